@@ -0,0 +1,8 @@
+#!/bin/sh
+# compiles the simulator with the micro-benchmarks and runs them,
+# the arguments are passed to BenchmarkRunner (e.g. -rsu 10,100 -vehicles 500 orchestrator)
+cd "$(dirname "$0")/.."
+rm -rf benchmark/bin
+mkdir benchmark/bin
+javac -nowarn -classpath "lib/cloudsim-4.0.jar:lib/commons-math3-3.6.1.jar:lib/colt.jar" -d benchmark/bin $(find src -name "*.java") $(find benchmark/src -name "*.java") || exit 1
+java -Xms2g -Xmx2g -classpath "benchmark/bin:lib/cloudsim-4.0.jar:lib/commons-math3-3.6.1.jar:lib/colt.jar" edu.boun.edgecloudsim.benchmark.BenchmarkRunner "$@"
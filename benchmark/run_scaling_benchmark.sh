@@ -0,0 +1,8 @@
+#!/bin/sh
+# compiles the simulator with the benchmarks and runs whole simulations on the scaling matrix,
+# the arguments are passed to ScalingBenchmark (e.g. -vehicles 100,1000 -baseline scaling_baseline.txt)
+cd "$(dirname "$0")/.."
+rm -rf benchmark/bin
+mkdir benchmark/bin
+javac -nowarn -classpath "lib/cloudsim-4.0.jar:lib/commons-math3-3.6.1.jar:lib/colt.jar" -d benchmark/bin $(find src -name "*.java") $(find benchmark/src -name "*.java") || exit 1
+java -Xms4g -Xmx4g -classpath "benchmark/bin:lib/cloudsim-4.0.jar:lib/commons-math3-3.6.1.jar:lib/colt.jar" edu.boun.edgecloudsim.benchmark.ScalingBenchmark "$@"
@@ -0,0 +1,148 @@
+/*
+ * Title:        EdgeCloudSim - Benchmark Fork
+ *
+ * Description:
+ * BenchmarkFork measures a single benchmark at a single scale. BenchmarkRunner
+ * invokes it reflectively inside a new SimulationClassLoader, like a forked
+ * JVM of JMH, therefore its entry point only uses JDK types.
+ *
+ * The number of operations of a batch is calibrated first, so that the
+ * clock is read rarely compared to the measured operations. Then warm-up
+ * and measurement iterations of a fixed duration are executed; each of them
+ * runs batches until its duration is over. The memory allocated by the
+ * benchmark thread and the collections of the garbage collectors are
+ * counted during the measurement iterations.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class BenchmarkFork {
+	public static final int OPS_PER_SECOND = 0;
+	public static final int OPS_PER_SECOND_ERROR = 1;
+	public static final int BYTES_PER_OP = 2;
+	public static final int ALLOCATION_RATE = 3; //MB/s
+	public static final int GC_COUNT = 4;
+	public static final int GC_TIME = 5; //ms
+	public static final int NUM_OF_RESULTS = 6;
+
+	private static final int MAX_BATCH_SIZE = 1 << 24;
+
+	//results of the operations are collected here, so they cannot be eliminated
+	public static volatile long sink;
+
+	/**
+	 * runs the benchmark and returns the results indexed by the constants of this class,
+	 * the allocation results are NaN if the JVM cannot measure the allocated memory
+	 */
+	public static double[] run(String benchmarkName, int rsuCount, int vehicleCount, int inFlightTasks,
+			String applicationsFile, int warmUpIterations, int measurementIterations, long iterationNanos) throws Exception {
+		MicroBenchmark benchmark = HotPathBenchmarks.create(benchmarkName);
+		if(benchmark == null)
+			throw new IllegalArgumentException("unknown benchmark " + benchmarkName);
+
+		BenchmarkScale scale = new BenchmarkScale(rsuCount, vehicleCount, inFlightTasks);
+		SyntheticScenario scenario = new SyntheticScenario(scale, benchmark.getOrchestratorPolicy(), new File(applicationsFile));
+		benchmark.setUp(scenario);
+
+		//the batch takes about a tenth of an iteration
+		int batchSize = 1;
+		while(batchSize < MAX_BATCH_SIZE) {
+			long start = System.nanoTime();
+			sink += benchmark.run(batchSize);
+			if(System.nanoTime() - start >= iterationNanos / 10)
+				break;
+			batchSize *= 2;
+		}
+
+		for(int i=0; i<warmUpIterations; i++)
+			runIteration(benchmark, batchSize, iterationNanos);
+
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		com.sun.management.ThreadMXBean allocationBean = null;
+		if(threadBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)threadBean).isThreadAllocatedMemorySupported()) {
+			allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+			allocationBean.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		double[] throughputs = new double[measurementIterations];
+		long totalOperations = 0;
+		long totalNanos = 0;
+		long allocatedBytes = allocationBean == null ? 0 : allocationBean.getCurrentThreadAllocatedBytes();
+		long gcCount = getGcCount();
+		long gcTime = getGcTime();
+		for(int i=0; i<measurementIterations; i++) {
+			long start = System.nanoTime();
+			long operations = runIteration(benchmark, batchSize, iterationNanos);
+			long elapsed = System.nanoTime() - start;
+			throughputs[i] = operations * 1e9 / elapsed;
+			totalOperations += operations;
+			totalNanos += elapsed;
+		}
+		if(allocationBean != null)
+			allocatedBytes = allocationBean.getCurrentThreadAllocatedBytes() - allocatedBytes;
+		gcCount = getGcCount() - gcCount;
+		gcTime = getGcTime() - gcTime;
+
+		double[] results = new double[NUM_OF_RESULTS];
+		results[OPS_PER_SECOND] = mean(throughputs);
+		results[OPS_PER_SECOND_ERROR] = standardDeviation(throughputs, results[OPS_PER_SECOND]);
+		results[BYTES_PER_OP] = allocationBean == null ? Double.NaN : (double)allocatedBytes / totalOperations;
+		results[ALLOCATION_RATE] = allocationBean == null ? Double.NaN : allocatedBytes * 1e9 / totalNanos / (1024 * 1024);
+		results[GC_COUNT] = gcCount;
+		results[GC_TIME] = gcTime;
+		return results;
+	}
+
+	/**
+	 * runs batches until the duration of the iteration is over, returns the number of operations
+	 */
+	private static long runIteration(MicroBenchmark benchmark, int batchSize, long iterationNanos) {
+		long operations = 0;
+		long result = 0;
+		long end = System.nanoTime() + iterationNanos;
+		do {
+			result += benchmark.run(batchSize);
+			operations += batchSize;
+		} while(System.nanoTime() < end);
+		sink += result;
+		return operations;
+	}
+
+	static long getGcCount() {
+		long count = 0;
+		for(GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, bean.getCollectionCount());
+		return count;
+	}
+
+	static long getGcTime() {
+		long time = 0;
+		for(GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(0, bean.getCollectionTime());
+		return time;
+	}
+
+	private static double mean(double[] values) {
+		double sum = 0;
+		for(double value : values)
+			sum += value;
+		return values.length == 0 ? 0 : sum / values.length;
+	}
+
+	private static double standardDeviation(double[] values, double mean) {
+		if(values.length < 2)
+			return 0;
+		double sum = 0;
+		for(double value : values)
+			sum += (value - mean) * (value - mean);
+		return Math.sqrt(sum / (values.length - 1));
+	}
+}
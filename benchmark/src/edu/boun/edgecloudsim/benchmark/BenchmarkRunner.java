@@ -0,0 +1,142 @@
+/*
+ * Title:        EdgeCloudSim - Benchmark Runner
+ *
+ * Description:
+ * BenchmarkRunner executes the micro-benchmarks of the simulator hot paths
+ * at each combination of the given scales and prints their throughput and
+ * allocation rate. Each benchmark is executed at each scale in its own
+ * SimulationClassLoader, so the static simulation state and the profile of
+ * the JIT compiler collected by a benchmark do not affect the others.
+ *
+ * Usage: BenchmarkRunner [options] [regex]
+ *   -l                 lists the benchmarks
+ *   -rsu n,n,...       numbers of road side units (default 10,100)
+ *   -vehicles n,n,...  numbers of vehicles (default 100,1000)
+ *   -tasks n,n,...     numbers of in-flight tasks (default 0,1000)
+ *   -wi n              warm-up iterations (default 3)
+ *   -i n               measurement iterations (default 5)
+ *   -t seconds         duration of an iteration (default 1)
+ *   -apps file         applications file (default resources/config/applications.xml)
+ * Only the benchmarks whose names contain a match of the regex are executed.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.cloudbus.cloudsim.Log;
+
+import edu.boun.edgecloudsim.core.SimulationClassLoader;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class BenchmarkRunner {
+	private static final String FORK_CLASS = "edu.boun.edgecloudsim.benchmark.BenchmarkFork";
+
+	public static void main(String[] args) {
+		Log.disable();
+		SimLogger.enablePrintLog();
+
+		int[] rsuCounts = {10, 100};
+		int[] vehicleCounts = {100, 1000};
+		int[] inFlightTasks = {0, 1000};
+		int warmUpIterations = 3;
+		int measurementIterations = 5;
+		double iterationTime = 1;
+		String applicationsFile = "resources/config/applications.xml";
+		Pattern filter = Pattern.compile("");
+		boolean listOnly = false;
+
+		try {
+			for(int i=0; i<args.length; i++) {
+				switch(args[i]) {
+				case "-l": listOnly = true; break;
+				case "-rsu": rsuCounts = parseList(args[++i]); break;
+				case "-vehicles": vehicleCounts = parseList(args[++i]); break;
+				case "-tasks": inFlightTasks = parseList(args[++i]); break;
+				case "-wi": warmUpIterations = Integer.parseInt(args[++i]); break;
+				case "-i": measurementIterations = Integer.parseInt(args[++i]); break;
+				case "-t": iterationTime = Double.parseDouble(args[++i]); break;
+				case "-apps": applicationsFile = args[++i]; break;
+				default: filter = Pattern.compile(args[i]);
+				}
+			}
+		} catch (RuntimeException e) {
+			SimLogger.printLine("Invalid benchmark arguments! " + e.getMessage());
+			System.exit(1);
+		}
+
+		List<String> names = new ArrayList<String>();
+		for(MicroBenchmark benchmark : HotPathBenchmarks.createAll())
+			if(filter.matcher(benchmark.getName()).find())
+				names.add(benchmark.getName());
+
+		if(listOnly) {
+			for(String name : names)
+				SimLogger.printLine(name);
+			return;
+		}
+
+		SimLogger.printLine(String.format("%-50s %6s %8s %8s %14s %12s %12s %12s %6s %8s",
+				"Benchmark", "RSUs", "Vehicles", "Tasks", "ops/s", "error", "B/op", "MB/s", "GCs", "GC ms"));
+		try {
+			URL[] classPath = SimulationClassLoader.getApplicationClassPath();
+			for(String name : names) {
+				for(int rsuCount : rsuCounts) {
+					for(int vehicleCount : vehicleCounts) {
+						for(int taskCount : inFlightTasks) {
+							double[] results = fork(classPath, name, rsuCount, vehicleCount, taskCount, applicationsFile,
+									warmUpIterations, measurementIterations, (long)(iterationTime * 1e9));
+							SimLogger.printLine(String.format("%-50s %6d %8d %8d %14.1f %12.1f %12.1f %12.2f %6d %8d",
+									name, rsuCount, vehicleCount, taskCount,
+									results[BenchmarkFork.OPS_PER_SECOND], results[BenchmarkFork.OPS_PER_SECOND_ERROR],
+									results[BenchmarkFork.BYTES_PER_OP], results[BenchmarkFork.ALLOCATION_RATE],
+									(long)results[BenchmarkFork.GC_COUNT], (long)results[BenchmarkFork.GC_TIME]));
+						}
+					}
+				}
+			}
+		} catch (Exception e) {
+			SimLogger.printLine("The benchmark has been terminated due to an unexpected error");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * runs the benchmark in a new class loader and returns the results of BenchmarkFork
+	 */
+	private static double[] fork(URL[] classPath, String name, int rsuCount, int vehicleCount, int taskCount,
+			String applicationsFile, int warmUpIterations, int measurementIterations, long iterationNanos) throws Exception {
+		ClassLoader previousLoader = Thread.currentThread().getContextClassLoader();
+		try (SimulationClassLoader loader = new SimulationClassLoader(classPath, BenchmarkRunner.class.getClassLoader())) {
+			Thread.currentThread().setContextClassLoader(loader);
+			Method method = Class.forName(FORK_CLASS, true, loader).getMethod("run", String.class, int.class, int.class, int.class,
+					String.class, int.class, int.class, long.class);
+			return (double[])method.invoke(null, name, rsuCount, vehicleCount, taskCount, applicationsFile,
+					warmUpIterations, measurementIterations, iterationNanos);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw new IllegalStateException(name + " cannot be measured", cause);
+		} finally {
+			Thread.currentThread().setContextClassLoader(previousLoader);
+			//the classes of the finished fork can be unloaded before the next one
+			System.gc();
+		}
+	}
+
+	static int[] parseList(String value) {
+		String[] items = value.split(",");
+		int[] numbers = new int[items.length];
+		for(int i=0; i<items.length; i++)
+			numbers[i] = Integer.parseInt(items[i].trim());
+		return numbers;
+	}
+}
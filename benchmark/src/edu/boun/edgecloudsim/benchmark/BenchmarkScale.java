@@ -0,0 +1,41 @@
+/*
+ * Title:        EdgeCloudSim - Benchmark Scale
+ *
+ * Description:
+ * BenchmarkScale is the size of the synthetic scenario of a benchmark:
+ * the number of road side units, vehicles and in-flight tasks.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+public class BenchmarkScale {
+	private final int rsuCount;
+	private final int vehicleCount;
+	private final int inFlightTasks;
+
+	public BenchmarkScale(int _rsuCount, int _vehicleCount, int _inFlightTasks) {
+		rsuCount = _rsuCount;
+		vehicleCount = _vehicleCount;
+		inFlightTasks = _inFlightTasks;
+	}
+
+	public int getRsuCount() {
+		return rsuCount;
+	}
+
+	public int getVehicleCount() {
+		return vehicleCount;
+	}
+
+	public int getInFlightTasks() {
+		return inFlightTasks;
+	}
+
+	@Override
+	public String toString() {
+		return rsuCount + " RSUs, " + vehicleCount + " vehicles, " + inFlightTasks + " in-flight tasks";
+	}
+}
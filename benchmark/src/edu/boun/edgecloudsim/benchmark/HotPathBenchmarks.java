@@ -0,0 +1,390 @@
+/*
+ * Title:        EdgeCloudSim - Hot Path Benchmarks
+ *
+ * Description:
+ * HotPathBenchmarks contains the micro-benchmarks of the methods which are
+ * called for each task or location check of a simulation: the location of
+ * a vehicle, the decisions of each orchestrator, the upload and download
+ * delays of the network model, the flows of a processor sharing link, the
+ * average utilization of the edge servers and the per-task logging.
+ *
+ * The operations work on the tasks generated after the warm-up time of
+ * the synthetic scenario, in the order of their start times. When all
+ * tasks are used, they are used again; the orchestrators which keep a
+ * history of the tasks are created again at that point, since the times
+ * of their tasks can only increase.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+
+import edu.boun.edgecloudsim.benchmark.SyntheticScenario.ReplayedTask;
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
+import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
+import edu.boun.edgecloudsim.mobility.MobilityModel;
+import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.network.ProcessorSharingLink;
+import edu.boun.edgecloudsim.network.SampleNetworkModel;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class HotPathBenchmarks {
+
+	/**
+	 * returns a new instance of each benchmark
+	 */
+	public static List<MicroBenchmark> createAll() {
+		List<MicroBenchmark> benchmarks = new ArrayList<MicroBenchmark>();
+		benchmarks.add(new GetLocation());
+		for(OrchestratorPolicy policy : OrchestratorPolicy.values()) {
+			benchmarks.add(new GetDeviceToOffload(policy));
+			benchmarks.add(new GetVmToOffload(policy));
+		}
+		benchmarks.add(new GetUploadDelay());
+		benchmarks.add(new GetDownloadDelay());
+		benchmarks.add(new ProcessorSharingFlows());
+		benchmarks.add(new GetAvgUtilization());
+		benchmarks.add(new TaskLifecycleLogging());
+		return benchmarks;
+	}
+
+	/**
+	 * returns a new instance of the benchmark having the given name, or null
+	 */
+	public static MicroBenchmark create(String name) {
+		for(MicroBenchmark benchmark : createAll())
+			if(benchmark.getName().equals(name))
+				return benchmark;
+		return null;
+	}
+
+	/**
+	 * base class of the benchmarks which use the replayed tasks one by one
+	 */
+	private static abstract class TaskBenchmark extends MicroBenchmark {
+		protected List<ReplayedTask> tasks;
+		protected int next;
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			tasks = scenario.getReplayedTasks();
+			if(tasks.isEmpty())
+				throw new IllegalStateException("no task is generated after the warm-up time of " + scenario.getScale());
+		}
+
+		/**
+		 * returns the index of the next task, wrapped() is called when the tasks are used again
+		 */
+		protected int nextIndex() {
+			if(next == tasks.size()) {
+				next = 0;
+				wrapped();
+			}
+			return next++;
+		}
+
+		protected void wrapped() {
+		}
+	}
+
+	static class GetLocation extends TaskBenchmark {
+		private MobilityModel mobility;
+
+		@Override
+		public String getName() {
+			return "mobility.getLocation";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			mobility = scenario.getContext().getMobilityModel();
+		}
+
+		@Override
+		public long run(int operations) {
+			long sink = 0;
+			for(int i=0; i<operations; i++) {
+				ReplayedTask task = tasks.get(nextIndex());
+				Location location = mobility.getLocation(task.getMobileDeviceId(), task.getCreationTime());
+				sink += location.getServingWlanId() + location.getXPos();
+			}
+			return sink;
+		}
+	}
+
+	static class GetDeviceToOffload extends TaskBenchmark {
+		private final OrchestratorPolicy policy;
+		private EdgeOrchestrator orchestrator;
+
+		GetDeviceToOffload(OrchestratorPolicy _policy) {
+			policy = _policy;
+		}
+
+		@Override
+		public String getName() {
+			return "orchestrator." + policy + ".getDeviceToOffload";
+		}
+
+		@Override
+		public OrchestratorPolicy getOrchestratorPolicy() {
+			return policy;
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			orchestrator = scenario.createOrchestrator();
+		}
+
+		@Override
+		protected void wrapped() {
+			orchestrator = scenario.createOrchestrator();
+		}
+
+		@Override
+		public long run(int operations) {
+			long sink = 0;
+			for(int i=0; i<operations; i++)
+				sink += orchestrator.getDeviceToOffload(tasks.get(nextIndex()));
+			return sink;
+		}
+	}
+
+	static class GetVmToOffload extends TaskBenchmark {
+		private final OrchestratorPolicy policy;
+		private EdgeOrchestrator orchestrator;
+		private int[] deviceIds;
+
+		GetVmToOffload(OrchestratorPolicy _policy) {
+			policy = _policy;
+		}
+
+		@Override
+		public String getName() {
+			return "orchestrator." + policy + ".getVmToOffload";
+		}
+
+		@Override
+		public OrchestratorPolicy getOrchestratorPolicy() {
+			return policy;
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			//the destinations are decided by an orchestrator which is not measured
+			EdgeOrchestrator deviceSelector = scenario.createOrchestrator();
+			deviceIds = new int[tasks.size()];
+			for(int i=0; i<deviceIds.length; i++)
+				deviceIds[i] = deviceSelector.getDeviceToOffload(tasks.get(i));
+			orchestrator = scenario.createOrchestrator();
+		}
+
+		@Override
+		public long run(int operations) {
+			long sink = 0;
+			for(int i=0; i<operations; i++) {
+				int index = nextIndex();
+				Vm vm = orchestrator.getVmToOffload(tasks.get(index), deviceIds[index]);
+				sink += vm == null ? -1 : vm.getId();
+			}
+			return sink;
+		}
+	}
+
+	static class GetUploadDelay extends TaskBenchmark {
+		private NetworkModel networkModel;
+
+		@Override
+		public String getName() {
+			return "network.getUploadDelay";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			networkModel = scenario.getContext().getNetworkModel();
+		}
+
+		@Override
+		public long run(int operations) {
+			double sink = 0;
+			for(int i=0; i<operations; i++) {
+				ReplayedTask task = tasks.get(nextIndex());
+				//alternate between the edge and the cloud like the orchestrators do
+				int destination = (i & 1) == 0 ? SimSettings.GENERIC_EDGE_DEVICE_ID : SimSettings.CLOUD_DATACENTER_ID;
+				sink += networkModel.getUploadDelay(task.getMobileDeviceId(), destination, task);
+			}
+			return Double.doubleToLongBits(sink);
+		}
+	}
+
+	static class GetDownloadDelay extends TaskBenchmark {
+		private NetworkModel networkModel;
+
+		@Override
+		public String getName() {
+			return "network.getDownloadDelay";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			networkModel = scenario.getContext().getNetworkModel();
+		}
+
+		@Override
+		public long run(int operations) {
+			double sink = 0;
+			for(int i=0; i<operations; i++) {
+				ReplayedTask task = tasks.get(nextIndex());
+				int source = (i & 1) == 0 ? SimSettings.GENERIC_EDGE_DEVICE_ID : SimSettings.CLOUD_DATACENTER_ID;
+				sink += networkModel.getDownloadDelay(source, task.getMobileDeviceId(), task);
+			}
+			return Double.doubleToLongBits(sink);
+		}
+	}
+
+	/**
+	 * transfers the input files of the tasks over a WLAN link, the given number
+	 * of flows are in flight: each operation finishes the next flow and adds
+	 * the flow of the next task
+	 */
+	static class ProcessorSharingFlows extends TaskBenchmark {
+		private ProcessorSharingLink link;
+
+		@Override
+		public String getName() {
+			return "network.processorSharingFlows";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			double[] rates = new double[SampleNetworkModel.experimentalWlanDelay.length];
+			for(int i=0; i<rates.length; i++)
+				rates[i] = SampleNetworkModel.experimentalWlanDelay[i] * (double) 3;
+			link = new ProcessorSharingLink(rates);
+			int inFlightFlows = Math.max(1, scenario.getScale().getInFlightTasks());
+			for(int i=0; i<inFlightFlows; i++)
+				addFlow(0);
+		}
+
+		@Override
+		public long run(int operations) {
+			long sink = 0;
+			for(int i=0; i<operations; i++) {
+				double time = link.getNextFinishTime();
+				int slot = link.poll(time);
+				if(slot != -1)
+					sink += link.getTag(slot);
+				addFlow(time);
+			}
+			return sink;
+		}
+
+		private void addFlow(double time) {
+			ReplayedTask task = tasks.get(nextIndex());
+			link.add(time, task.getCloudletFileSize() * (double)8, task.getMobileDeviceId(), task.getCloudletId(), task);
+		}
+	}
+
+	static class GetAvgUtilization extends MicroBenchmark {
+		private EdgeServerManager edgeServerManager;
+
+		@Override
+		public String getName() {
+			return "edgeServer.getAvgUtilization";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			edgeServerManager = scenario.getContext().getEdgeServerManager();
+		}
+
+		@Override
+		public long run(int operations) {
+			double sink = 0;
+			for(int i=0; i<operations; i++)
+				sink += edgeServerManager.getAvgUtilization();
+			return Double.doubleToLongBits(sink);
+		}
+	}
+
+	/**
+	 * logs the whole life of the tasks executed on edge VMs, the given number
+	 * of tasks are in flight: a task ends when the task started that many
+	 * operations later starts
+	 */
+	static class TaskLifecycleLogging extends TaskBenchmark {
+		private SimLogger logger;
+		private int[] inFlightTaskIds;
+		private double[] inFlightStartTimes;
+		private int nextInFlightTask;
+
+		@Override
+		public String getName() {
+			return "logger.taskLifecycle";
+		}
+
+		@Override
+		public void setUp(SyntheticScenario _scenario) {
+			super.setUp(_scenario);
+			logger = scenario.getContext().getLogger();
+			inFlightTaskIds = new int[scenario.getScale().getInFlightTasks()];
+			inFlightStartTimes = new double[inFlightTaskIds.length];
+			for(int i=0; i<inFlightTaskIds.length; i++)
+				inFlightTaskIds[i] = startTask(tasks.get(nextIndex()), i);
+		}
+
+		@Override
+		public long run(int operations) {
+			long sink = 0;
+			for(int i=0; i<operations; i++) {
+				ReplayedTask task = tasks.get(nextIndex());
+				if(inFlightTaskIds.length == 0) {
+					int taskId = startTask(task, -1);
+					endTask(taskId, task.getCreationTime());
+					sink += taskId;
+				}
+				else {
+					endTask(inFlightTaskIds[nextInFlightTask], inFlightStartTimes[nextInFlightTask]);
+					sink += inFlightTaskIds[nextInFlightTask] = startTask(task, nextInFlightTask);
+					nextInFlightTask = (nextInFlightTask + 1) % inFlightTaskIds.length;
+				}
+			}
+			return sink;
+		}
+
+		private int startTask(ReplayedTask task, int inFlightIndex) {
+			int taskId = scenario.nextTaskId();
+			logger.addLog(task.getMobileDeviceId(), taskId, task.getTaskType(),
+					(int)task.getCloudletLength(), (int)task.getCloudletFileSize(), (int)task.getCloudletOutputSize());
+			logger.taskStarted(taskId, task.getCreationTime());
+			logger.setUploadDelay(taskId, 0.01, NETWORK_DELAY_TYPES.WLAN_DELAY);
+			logger.taskAssigned(taskId, 0, 0, 0, SimSettings.VM_TYPES.EDGE_VM.ordinal());
+			if(inFlightIndex >= 0)
+				inFlightStartTimes[inFlightIndex] = task.getCreationTime();
+			return taskId;
+		}
+
+		private void endTask(int taskId, double startTime) {
+			logger.taskExecuted(taskId);
+			logger.setDownloadDelay(taskId, 0.01, NETWORK_DELAY_TYPES.WLAN_DELAY);
+			logger.taskEnded(taskId, startTime + 1);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Title:        EdgeCloudSim - Micro Benchmark
+ *
+ * Description:
+ * MicroBenchmark is an abstract class which is used for measuring a hot
+ * path of the simulator on a synthetic scenario. The benchmark prepares
+ * its inputs in setUp() and executes the measured operation in run();
+ * the value returned by run() depends on the results of the operations,
+ * so that the JIT compiler cannot eliminate them.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+
+public abstract class MicroBenchmark {
+	protected SyntheticScenario scenario;
+
+	/**
+	 * returns the name used for selecting and reporting the benchmark
+	 */
+	public abstract String getName();
+
+	/**
+	 * returns the orchestrator policy of the synthetic scenario
+	 */
+	public OrchestratorPolicy getOrchestratorPolicy() {
+		return OrchestratorPolicy.RANDOM;
+	}
+
+	/**
+	 * prepares the inputs of the operations, called once per scenario
+	 */
+	public void setUp(SyntheticScenario _scenario) {
+		scenario = _scenario;
+	}
+
+	/**
+	 * executes the given number of operations and returns a value derived from their results
+	 */
+	public abstract long run(int operations);
+}
@@ -0,0 +1,275 @@
+/*
+ * Title:        EdgeCloudSim - Scaling Benchmark
+ *
+ * Description:
+ * ScalingBenchmark executes whole simulations of the synthetic topology on
+ * a matrix of vehicle counts, RSU counts and orchestrator policies, each of
+ * them in its own SimulationClassLoader. For each cell the wall clock time,
+ * the simulated seconds per wall clock second, the number of CloudSim events
+ * per second, the maximum sampled heap usage and the GC time are measured.
+ *
+ * The results are written to a text file having a line per cell. If a
+ * baseline file is given, the results are compared with it: a cell whose
+ * wall clock time, event rate, heap usage or GC time is worse than
+ * the baseline by more than the tolerance is a regression, and the runner
+ * exits with status 1. If the baseline file does not exist, the results
+ * are stored as the baseline.
+ *
+ * Usage: ScalingBenchmark [options]
+ *   -vehicles n,n,...   numbers of vehicles (default 100,1000,10000)
+ *   -rsu n,n,...        numbers of road side units (default 10,100)
+ *   -policies p,p,...   orchestrator policies (default all)
+ *   -time minutes       simulation time (default 10)
+ *   -r n                runs of each cell, the fastest one is kept (default 1)
+ *   -o file             result file (default scaling_results.txt)
+ *   -baseline file      baseline file
+ *   -tolerance ratio    tolerance of the time and throughput metrics (default 0.2)
+ *   -heap ratio         tolerance of the maximum heap usage (default 0.3)
+ *   -apps file          applications file (default resources/config/applications.xml)
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationClassLoader;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class ScalingBenchmark {
+	private static final String FORK_CLASS = "edu.boun.edgecloudsim.benchmark.ScalingFork";
+	private static final String HEADER = "vehicles;rsus;policy;wall_time;simulation_speed;events;events_per_second;max_heap_used_mb;gc_time_ms;gc_count";
+	private static final double GC_TIME_SLACK = 100; //ms, short collections are not compared
+
+	public static void main(String[] args) {
+		Log.disable();
+		SimLogger.enablePrintLog();
+
+		int[] vehicleCounts = {100, 1000, 10000};
+		int[] rsuCounts = {10, 100};
+		OrchestratorPolicy[] policies = OrchestratorPolicy.values();
+		int simulationTime = 10;
+		int numOfRuns = 1;
+		String resultFile = "scaling_results.txt";
+		String baselineFile = null;
+		double tolerance = 0.2;
+		double heapTolerance = 0.3;
+		String applicationsFile = "resources/config/applications.xml";
+
+		try {
+			for(int i=0; i<args.length; i++) {
+				switch(args[i]) {
+				case "-vehicles": vehicleCounts = BenchmarkRunner.parseList(args[++i]); break;
+				case "-rsu": rsuCounts = BenchmarkRunner.parseList(args[++i]); break;
+				case "-policies": policies = parsePolicies(args[++i]); break;
+				case "-time": simulationTime = Integer.parseInt(args[++i]); break;
+				case "-r": numOfRuns = Integer.parseInt(args[++i]); break;
+				case "-o": resultFile = args[++i]; break;
+				case "-baseline": baselineFile = args[++i]; break;
+				case "-tolerance": tolerance = Double.parseDouble(args[++i]); break;
+				case "-heap": heapTolerance = Double.parseDouble(args[++i]); break;
+				case "-apps": applicationsFile = args[++i]; break;
+				default: throw new IllegalArgumentException("unknown option " + args[i]);
+				}
+			}
+		} catch (RuntimeException e) {
+			SimLogger.printLine("Invalid benchmark arguments! " + e.getMessage());
+			System.exit(1);
+		}
+
+		Map<String, double[]> results = new HashMap<String, double[]>();
+		List<String> cells = new ArrayList<String>();
+		SimLogger.printLine(String.format("%8s %6s %-18s %10s %12s %12s %14s %10s %10s",
+				"Vehicles", "RSUs", "Policy", "wall s", "sim s/s", "events", "events/s", "heap MB", "GC ms"));
+		try {
+			URL[] classPath = SimulationClassLoader.getApplicationClassPath();
+			for(int vehicleCount : vehicleCounts) {
+				for(int rsuCount : rsuCounts) {
+					for(OrchestratorPolicy policy : policies) {
+						double[] cellResults = null;
+						for(int run=0; run<numOfRuns; run++) {
+							double[] runResults = fork(classPath, vehicleCount, rsuCount, policy, simulationTime, applicationsFile);
+							if(cellResults == null || runResults[ScalingFork.WALL_TIME] < cellResults[ScalingFork.WALL_TIME])
+								cellResults = runResults;
+						}
+						String cell = getCellKey(vehicleCount, rsuCount, policy.name());
+						cells.add(cell);
+						results.put(cell, cellResults);
+						SimLogger.printLine(String.format("%8d %6d %-18s %10.2f %12.1f %12d %14.1f %10.1f %10d",
+								vehicleCount, rsuCount, policy,
+								cellResults[ScalingFork.WALL_TIME], cellResults[ScalingFork.SIMULATION_SPEED],
+								(long)cellResults[ScalingFork.NUM_OF_EVENTS], cellResults[ScalingFork.EVENTS_PER_SECOND],
+								cellResults[ScalingFork.MAX_HEAP_USED], (long)cellResults[ScalingFork.GC_TIME]));
+					}
+				}
+			}
+			writeResults(new File(resultFile), cells, results);
+			SimLogger.printLine("Results are written to " + resultFile);
+		} catch (Exception e) {
+			SimLogger.printLine("The benchmark has been terminated due to an unexpected error");
+			e.printStackTrace();
+			System.exit(1);
+		}
+
+		if(baselineFile == null)
+			return;
+
+		int numOfRegressions = 0;
+		try {
+			File baseline = new File(baselineFile);
+			if(!baseline.exists()) {
+				writeResults(baseline, cells, results);
+				SimLogger.printLine("Baseline " + baselineFile + " does not exist, the results are stored as the baseline");
+				return;
+			}
+			numOfRegressions = compare(readResults(baseline), cells, results, tolerance, heapTolerance);
+		} catch (IOException e) {
+			SimLogger.printLine("Baseline " + baselineFile + " cannot be used! " + e.getMessage());
+			System.exit(1);
+		}
+
+		if(numOfRegressions > 0) {
+			SimLogger.printLine(numOfRegressions + " regression(s) compared to " + baselineFile);
+			System.exit(1);
+		}
+		SimLogger.printLine("No regression compared to " + baselineFile);
+	}
+
+	/**
+	 * prints the comparison of each cell and returns the number of regressions
+	 */
+	private static int compare(Map<String, double[]> baseline, List<String> cells, Map<String, double[]> results,
+			double tolerance, double heapTolerance) {
+		int numOfRegressions = 0;
+		for(String cell : cells) {
+			double[] current = results.get(cell);
+			double[] base = baseline.get(cell);
+			if(base == null) {
+				SimLogger.printLine("NEW         " + cell);
+				continue;
+			}
+
+			List<String> problems = new ArrayList<String>();
+			if(current[ScalingFork.WALL_TIME] > base[ScalingFork.WALL_TIME] * (1 + tolerance))
+				problems.add("wall time " + getChange(current, base, ScalingFork.WALL_TIME));
+			if(current[ScalingFork.EVENTS_PER_SECOND] < base[ScalingFork.EVENTS_PER_SECOND] * (1 - tolerance))
+				problems.add("events/s " + getChange(current, base, ScalingFork.EVENTS_PER_SECOND));
+			if(current[ScalingFork.MAX_HEAP_USED] > base[ScalingFork.MAX_HEAP_USED] * (1 + heapTolerance))
+				problems.add("max heap used " + getChange(current, base, ScalingFork.MAX_HEAP_USED));
+			if(current[ScalingFork.GC_TIME] > base[ScalingFork.GC_TIME] * (1 + tolerance) + GC_TIME_SLACK)
+				problems.add("GC time " + getChange(current, base, ScalingFork.GC_TIME));
+
+			//a different number of events means the simulation itself has changed
+			String note = "";
+			if(current[ScalingFork.NUM_OF_EVENTS] != base[ScalingFork.NUM_OF_EVENTS])
+				note = " (number of events " + getChange(current, base, ScalingFork.NUM_OF_EVENTS) + ")";
+
+			if(problems.isEmpty()) {
+				SimLogger.printLine("OK          " + cell + " wall time " + getChange(current, base, ScalingFork.WALL_TIME) + note);
+			}
+			else {
+				SimLogger.printLine("REGRESSION  " + cell + " " + String.join(", ", problems) + note);
+				numOfRegressions++;
+			}
+		}
+		return numOfRegressions;
+	}
+
+	private static String getChange(double[] current, double[] base, int metric) {
+		if(base[metric] == 0)
+			return String.format("%.1f -> %.1f", base[metric], current[metric]);
+		return String.format("%+.1f%%", (current[metric] - base[metric]) * 100 / base[metric]);
+	}
+
+	/**
+	 * runs the cell in a new class loader and returns the results of ScalingFork
+	 */
+	private static double[] fork(URL[] classPath, int vehicleCount, int rsuCount, OrchestratorPolicy policy,
+			int simulationTime, String applicationsFile) throws Exception {
+		//the garbage of the previous cell is not counted for this one
+		System.gc();
+		ClassLoader previousLoader = Thread.currentThread().getContextClassLoader();
+		try (SimulationClassLoader loader = new SimulationClassLoader(classPath, ScalingBenchmark.class.getClassLoader())) {
+			Thread.currentThread().setContextClassLoader(loader);
+			Method method = Class.forName(FORK_CLASS, true, loader).getMethod("run", int.class, int.class, String.class,
+					int.class, String.class);
+			return (double[])method.invoke(null, vehicleCount, rsuCount, policy.name(), simulationTime, applicationsFile);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(getCellKey(vehicleCount, rsuCount, policy.name()) + " cannot be measured", e.getCause());
+		} finally {
+			Thread.currentThread().setContextClassLoader(previousLoader);
+		}
+	}
+
+	private static String getCellKey(int vehicleCount, int rsuCount, String policy) {
+		return vehicleCount + SimSettings.DELIMITER + rsuCount + SimSettings.DELIMITER + policy;
+	}
+
+	private static void writeResults(File file, List<String> cells, Map<String, double[]> results) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println(HEADER);
+			for(String cell : cells) {
+				double[] cellResults = results.get(cell);
+				writer.println(cell + SimSettings.DELIMITER +
+						cellResults[ScalingFork.WALL_TIME] + SimSettings.DELIMITER +
+						cellResults[ScalingFork.SIMULATION_SPEED] + SimSettings.DELIMITER +
+						(long)cellResults[ScalingFork.NUM_OF_EVENTS] + SimSettings.DELIMITER +
+						cellResults[ScalingFork.EVENTS_PER_SECOND] + SimSettings.DELIMITER +
+						cellResults[ScalingFork.MAX_HEAP_USED] + SimSettings.DELIMITER +
+						(long)cellResults[ScalingFork.GC_TIME] + SimSettings.DELIMITER +
+						(long)cellResults[ScalingFork.GC_COUNT]);
+			}
+		}
+	}
+
+	private static Map<String, double[]> readResults(File file) throws IOException {
+		Map<String, double[]> results = new HashMap<String, double[]>();
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line = reader.readLine();
+			if(!HEADER.equals(line))
+				throw new IOException("unexpected header " + line);
+			while((line = reader.readLine()) != null) {
+				if(line.isEmpty())
+					continue;
+				String[] values = line.split(SimSettings.DELIMITER);
+				if(values.length != 3 + ScalingFork.NUM_OF_RESULTS)
+					throw new IOException("unexpected line " + line);
+				double[] cellResults = new double[ScalingFork.NUM_OF_RESULTS];
+				cellResults[ScalingFork.WALL_TIME] = Double.parseDouble(values[3]);
+				cellResults[ScalingFork.SIMULATION_SPEED] = Double.parseDouble(values[4]);
+				cellResults[ScalingFork.NUM_OF_EVENTS] = Double.parseDouble(values[5]);
+				cellResults[ScalingFork.EVENTS_PER_SECOND] = Double.parseDouble(values[6]);
+				cellResults[ScalingFork.MAX_HEAP_USED] = Double.parseDouble(values[7]);
+				cellResults[ScalingFork.GC_TIME] = Double.parseDouble(values[8]);
+				cellResults[ScalingFork.GC_COUNT] = Double.parseDouble(values[9]);
+				results.put(getCellKey(Integer.parseInt(values[0]), Integer.parseInt(values[1]), values[2]), cellResults);
+			}
+		}
+		return results;
+	}
+
+	private static OrchestratorPolicy[] parsePolicies(String value) {
+		String[] items = value.split(",");
+		OrchestratorPolicy[] policies = new OrchestratorPolicy[items.length];
+		for(int i=0; i<items.length; i++)
+			policies[i] = OrchestratorPolicy.valueOf(items[i].trim());
+		return policies;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Title:        EdgeCloudSim - Scaling Fork
+ *
+ * Description:
+ * ScalingFork executes a whole simulation of the synthetic topology at a
+ * single (number of vehicles, number of RSUs, orchestrator policy) cell
+ * and measures it. ScalingBenchmark invokes it reflectively inside a new
+ * SimulationClassLoader, therefore its entry point only uses JDK types.
+ *
+ * The measurement covers the generation of the settings, the workload and
+ * the trajectories as well as the simulation itself, like a run of Main.
+ * The heap usage is sampled by a background thread while the cell runs and
+ * the maximum of the samples is reported; the peak usages of the memory
+ * pools are not summed, since the pools reach their peaks at different times.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.EventCounter;
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.core.VehicularScenarioFactory;
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class ScalingFork {
+	public static final int WALL_TIME = 0; //seconds
+	public static final int SIMULATION_SPEED = 1; //simulated seconds per wall clock second
+	public static final int NUM_OF_EVENTS = 2;
+	public static final int EVENTS_PER_SECOND = 3;
+	public static final int MAX_HEAP_USED = 4; //MB, maximum of the sampled heap usage
+	public static final int GC_TIME = 5; //ms
+	public static final int GC_COUNT = 6;
+	public static final int NUM_OF_RESULTS = 7;
+
+	private static final long RANDOM_SEED = 1;
+	private static final long HEAP_SAMPLING_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * runs the simulation and returns the results indexed by the constants of this class,
+	 * the simulation time is given in minutes
+	 */
+	public static double[] run(int vehicleCount, int rsuCount, String policyName, int simulationTime,
+			String applicationsFile) throws Exception {
+		OrchestratorPolicy policy = OrchestratorPolicy.valueOf(policyName);
+		HeapSampler heapSampler = new HeapSampler();
+		long gcCount = BenchmarkFork.getGcCount();
+		long gcTime = BenchmarkFork.getGcTime();
+		long start = System.nanoTime();
+		heapSampler.start();
+
+		SimSettings settings = SyntheticTopology.initializeSettings(rsuCount, vehicleCount, policy,
+				simulationTime, RANDOM_SEED, new File(applicationsFile));
+		SimulationContext context = new SimulationContext(settings, SimLogger.getInstance(), new RandomStreams(RANDOM_SEED));
+		context.getLogger().simStarted(context, System.getProperty("java.io.tmpdir"), "SCALING");
+		CloudSim.init(2, Calendar.getInstance(), false, 0.01);
+		EventCounter.install();
+		VehicularScenarioFactory factory = new VehicularScenarioFactory(vehicleCount, 1, settings.getSimulationTime(),
+				SyntheticTopology.SIM_SCENARIO, policy, context);
+		SimManager manager = new SimManager(context, factory, vehicleCount, SyntheticTopology.SIM_SCENARIO, policy);
+		try {
+			manager.startSimulation();
+		} finally {
+			heapSampler.finish();
+		}
+
+		double wallTime = (System.nanoTime() - start) / 1e9;
+		double[] results = new double[NUM_OF_RESULTS];
+		results[WALL_TIME] = wallTime;
+		results[SIMULATION_SPEED] = settings.getSimulationTime() / wallTime;
+		results[NUM_OF_EVENTS] = EventCounter.getNumOfProcessedEvents();
+		results[EVENTS_PER_SECOND] = results[NUM_OF_EVENTS] / wallTime;
+		results[MAX_HEAP_USED] = heapSampler.getMaxUsed() / (1024.0 * 1024.0);
+		results[GC_TIME] = BenchmarkFork.getGcTime() - gcTime;
+		results[GC_COUNT] = BenchmarkFork.getGcCount() - gcCount;
+		return results;
+	}
+
+	/**
+	 * samples the used heap memory periodically and keeps the maximum in bytes
+	 */
+	private static class HeapSampler extends Thread {
+		private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+		private volatile boolean stopped = false;
+		private long maxUsed = 0;
+
+		HeapSampler() {
+			super("ScalingFork-HeapSampler");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while(!stopped) {
+				sample();
+				LockSupport.parkNanos(this, HEAP_SAMPLING_INTERVAL);
+			}
+		}
+
+		/**
+		 * stops the sampling and takes the last sample
+		 */
+		void finish() throws InterruptedException {
+			stopped = true;
+			LockSupport.unpark(this);
+			join();
+			sample();
+		}
+
+		long getMaxUsed() {
+			return maxUsed;
+		}
+
+		private void sample() {
+			maxUsed = Math.max(maxUsed, memoryBean.getHeapMemoryUsage().getUsed());
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Title:        EdgeCloudSim - Synthetic Scenario
+ *
+ * Description:
+ * SyntheticScenario creates a vehicular scenario of the given scale on
+ * the synthetic topology (see SyntheticTopology) for the micro-benchmarks.
+ *
+ * The simulation is executed until the warm-up time without finishing it,
+ * so the VMs are created, the clock stays at the warm-up time and the
+ * orchestrator, network model and logger have seen a realistic workload.
+ * Then the requested number of
+ * in-flight tasks are placed on the VMs without running the simulation
+ * further. The tasks generated after the warm-up time are available for
+ * replaying them in the benchmarks.
+ *
+ * The simulator keeps its state in static fields, therefore a scenario
+ * must be created in its own SimulationClassLoader (see BenchmarkRunner).
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.core.VehicularScenarioFactory;
+import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.TaskProperty;
+
+public class SyntheticScenario {
+	public static final double WARM_UP_TIME = 300; //seconds simulated before the measurement
+	private static final int SIMULATION_TIME = 30; //minutes
+	private static final long RANDOM_SEED = 1;
+	private static final int MAX_REPLAYED_TASKS = 1 << 16;
+	private static final int FIRST_TASK_ID = 1 << 30; //not used by the simulated tasks
+
+	/**
+	 * task whose creation time is the start time of the replayed task
+	 * instead of the clock of the finished warm-up simulation
+	 */
+	public static class ReplayedTask extends Task {
+		private final double creationTime;
+
+		ReplayedTask(TaskProperty property, int taskId, UtilizationModel utilizationModelCpu, UtilizationModel utilizationModel) {
+			super(property.getMobileDeviceId(), taskId, property.getLength(), property.getPesNumber(),
+					property.getInputFileSize(), property.getOutputFileSize(),
+					utilizationModelCpu, utilizationModel, utilizationModel);
+			creationTime = property.getStartTime();
+		}
+
+		@Override
+		public double getCreationTime() {
+			return creationTime;
+		}
+	}
+
+	private final BenchmarkScale scale;
+	private final OrchestratorPolicy policy;
+	private final SimulationContext context;
+	private final List<ReplayedTask> replayedTasks;
+	private int taskIdCounter;
+	private int numOfInFlightTasks;
+
+	public SyntheticScenario(BenchmarkScale _scale, OrchestratorPolicy _policy, File applicationsFile) throws Exception {
+		scale = _scale;
+		policy = _policy;
+		taskIdCounter = FIRST_TASK_ID;
+
+		SimSettings settings = SyntheticTopology.initializeSettings(scale.getRsuCount(), scale.getVehicleCount(),
+				policy, SIMULATION_TIME, RANDOM_SEED, applicationsFile);
+		context = new SimulationContext(settings, SimLogger.getInstance(), new RandomStreams(RANDOM_SEED));
+		context.getLogger().simStarted(context, System.getProperty("java.io.tmpdir"), "BENCHMARK");
+		CloudSim.init(2, Calendar.getInstance(), false, 0.01);
+		new SimManager(context, createFactory(), scale.getVehicleCount(), SyntheticTopology.SIM_SCENARIO, policy);
+		runWarmUp();
+
+		replayedTasks = createReplayedTasks();
+		placeInFlightTasks();
+	}
+
+	public BenchmarkScale getScale() {
+		return scale;
+	}
+
+	public SimulationContext getContext() {
+		return context;
+	}
+
+	/**
+	 * returns the tasks created after the warm-up time in the order of their start times,
+	 * their submitted locations are set
+	 */
+	public List<ReplayedTask> getReplayedTasks() {
+		return replayedTasks;
+	}
+
+	public int getNumOfInFlightTasks() {
+		return numOfInFlightTasks;
+	}
+
+	public int nextTaskId() {
+		return taskIdCounter++;
+	}
+
+	/**
+	 * returns a new orchestrator of the scenario policy which has not seen any task
+	 */
+	public EdgeOrchestrator createOrchestrator() {
+		EdgeOrchestrator orchestrator = createFactory().getEdgeOrchestrator();
+		orchestrator.initialize();
+		return orchestrator;
+	}
+
+	private VehicularScenarioFactory createFactory() {
+		return new VehicularScenarioFactory(scale.getVehicleCount(), 1, context.getSettings().getSimulationTime(),
+				SyntheticTopology.SIM_SCENARIO, policy, context);
+	}
+
+	/*
+	 * SimManager.startSimulation() cannot be used, since CloudSim resets the
+	 * clock and removes the entities when the simulation finishes; the events
+	 * are processed here until the warm-up time instead
+	 */
+	private void runWarmUp() throws Exception {
+		int brokerId = context.getMobileDeviceManager().getId();
+		context.getEdgeServerManager().startDatacenters();
+		context.getEdgeServerManager().createVmList(brokerId);
+		context.getCloudServerManager().startDatacenters();
+		context.getCloudServerManager().createVmList(brokerId);
+		context.getMobileServerManager().startDatacenters();
+		context.getMobileServerManager().createVmList(brokerId);
+
+		CloudSim.runStart();
+		boolean queueEmpty = false;
+		while(!queueEmpty && CloudSim.clock() < WARM_UP_TIME)
+			queueEmpty = CloudSim.runClockTick();
+	}
+
+	private List<ReplayedTask> createReplayedTasks() {
+		List<ReplayedTask> tasks = new ArrayList<ReplayedTask>();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for(TaskProperty property : context.getLoadGeneratorModel().getTaskList()) {
+			if(property.getStartTime() < WARM_UP_TIME)
+				continue;
+			CpuUtilizationModel_Custom utilizationModelCpu = new CpuUtilizationModel_Custom(context.getSettings());
+			ReplayedTask task = new ReplayedTask(property, nextTaskId(), utilizationModelCpu, utilizationModel);
+			task.setUserId(context.getMobileDeviceManager().getId());
+			task.setTaskType(property.getTaskType());
+			utilizationModelCpu.setTask(task);
+			task.setSubmittedLocation(context.getMobilityModel().getLocation(property.getMobileDeviceId(), property.getStartTime()));
+			tasks.add(task);
+		}
+		tasks.sort((a, b) -> Double.compare(a.getCreationTime(), b.getCreationTime()));
+		return new ArrayList<ReplayedTask>(tasks.subList(0, Math.min(tasks.size(), MAX_REPLAYED_TASKS)));
+	}
+
+	/*
+	 * the in-flight tasks are offloaded like SampleMobileDeviceManager does,
+	 * but they are submitted to the VMs immediately and never finish; they are
+	 * not logged, since the logger keeps the records of unfinished tasks
+	 */
+	private void placeInFlightTasks() {
+		EdgeOrchestrator orchestrator = context.getEdgeOrchestrator();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<TaskProperty> taskList = context.getLoadGeneratorModel().getTaskList();
+		for(int i=0; i<scale.getInFlightTasks() && !taskList.isEmpty(); i++) {
+			TaskProperty property = taskList.get(i % taskList.size());
+			CpuUtilizationModel_Custom utilizationModelCpu = new CpuUtilizationModel_Custom(context.getSettings());
+			ReplayedTask task = new ReplayedTask(property, nextTaskId(), utilizationModelCpu, utilizationModel);
+			task.setUserId(context.getMobileDeviceManager().getId());
+			task.setTaskType(property.getTaskType());
+			utilizationModelCpu.setTask(task);
+			Location location = context.getMobilityModel().getLocation(property.getMobileDeviceId(), CloudSim.clock());
+			task.setSubmittedLocation(location);
+			if(location.getServingWlanId() < 0)
+				continue;
+
+			int deviceId = orchestrator.getDeviceToOffload(task);
+			Vm vm = orchestrator.getVmToOffload(task, deviceId);
+			if(vm == null)
+				continue;
+			task.setAssociatedDatacenterId(deviceId);
+			task.setAssociatedHostId(vm.getHost().getId());
+			task.setAssociatedVmId(vm.getId());
+			task.setVmId(vm.getId());
+			vm.getCloudletScheduler().cloudletSubmit(task, 0);
+			context.getNetworkModel().uploadStarted(location, deviceId == SimSettings.CLOUD_DATACENTER_ID ?
+					SimSettings.CLOUD_DATACENTER_ID : SimSettings.GENERIC_EDGE_DEVICE_ID);
+			numOfInFlightTasks++;
+		}
+	}
+}
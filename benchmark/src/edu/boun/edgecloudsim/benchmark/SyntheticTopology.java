@@ -0,0 +1,147 @@
+/*
+ * Title:        EdgeCloudSim - Synthetic Topology
+ *
+ * Description:
+ * SyntheticTopology generates the settings of the benchmark scenarios at
+ * a given scale. The road network is a grid whose nodes are 120 meters
+ * apart and there is a road side unit (an edge datacenter having one host
+ * with two VMs) at each node. The cloud is configured like the default
+ * configuration and the applications are read from the given file.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+
+import org.cloudbus.cloudsim.Log;
+
+import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class SyntheticTopology {
+	public static final String SIM_SCENARIO = "TWO_TIER_WITH_EO";
+	private static final int ROAD_NODE_DISTANCE = 120; //meters
+
+	/**
+	 * initializes the simulation settings of the class loader with the generated
+	 * files, the simulation time is given in minutes
+	 */
+	public static SimSettings initializeSettings(int rsuCount, int vehicleCount, OrchestratorPolicy policy,
+			int simulationTime, long randomSeed, File applicationsFile) throws IOException {
+		if(rsuCount < 2)
+			throw new IllegalArgumentException("at least two road side units are needed for a road network");
+
+		File folder = Files.createTempDirectory("edgecloudsim_benchmark").toFile();
+		try {
+			File propertiesFile = new File(folder, "config.properties");
+			File edgeDevicesFile = new File(folder, "edge_devices.xml");
+			File roadNodesFile = new File(folder, "road_nodes.xml");
+			writeProperties(propertiesFile, vehicleCount, policy, simulationTime, randomSeed);
+			writeRoadNodes(roadNodesFile, rsuCount);
+			writeEdgeDevices(edgeDevicesFile, rsuCount);
+
+			//the VM allocation policies read the shared settings
+			Log.disable();
+			SimSettings settings = SimSettings.getInstance();
+			if(!settings.initialize(propertiesFile.getPath(), edgeDevicesFile.getPath(), applicationsFile.getPath(), roadNodesFile.getPath()))
+				throw new IllegalStateException("cannot initialize simulation settings!");
+			return settings;
+		} finally {
+			for(File file : folder.listFiles())
+				file.delete();
+			folder.delete();
+		}
+	}
+
+	private static void writeProperties(File file, int vehicleCount, OrchestratorPolicy policy, int simulationTime, long randomSeed) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println("simulation_time=" + simulationTime);
+			writer.println("warm_up_period=3");
+			writer.println("vm_load_check_interval=0.1");
+			writer.println("location_check_interval=0.1");
+			writer.println("file_log_enabled=false");
+			writer.println("deep_file_log_enabled=false");
+			writer.println("random_seed=" + randomSeed);
+			writer.println("min_number_of_mobile_devices=" + vehicleCount);
+			writer.println("max_number_of_mobile_devices=" + vehicleCount);
+			writer.println("mobile_device_counter_size=1");
+			writer.println("wan_propagation_delay=0.1");
+			writer.println("lan_internal_delay=0.005");
+			writer.println("wlan_bandwidth=200");
+			writer.println("wan_bandwidth=15");
+			writer.println("gsm_bandwidth=0");
+			writer.println("number_of_host_on_cloud_datacenter=1");
+			writer.println("number_of_vm_on_cloud_host=4");
+			writer.println("core_for_cloud_vm=4");
+			writer.println("mips_for_cloud_vm=10000");
+			writer.println("ram_for_cloud_vm=32000");
+			writer.println("storage_for_cloud_vm=1000000");
+			writer.println("core_for_mobile_vm=0");
+			writer.println("mips_for_mobile_vm=0");
+			writer.println("ram_for_mobile_vm=0");
+			writer.println("storage_for_mobile_vm=0");
+			writer.println("orchestrator_policies=" + policy);
+			writer.println("simulation_scenarios=" + SIM_SCENARIO);
+		}
+	}
+
+	/**
+	 * writes a grid having a road node for each road side unit, the rows
+	 * are filled one by one so the last row may be shorter than the others
+	 */
+	private static void writeRoadNodes(File file, int numOfNodes) throws IOException {
+		int side = (int)Math.ceil(Math.sqrt(numOfNodes));
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println("<?xml version=\"1.0\"?>");
+			writer.println("<road_nodes>");
+			for(int node=0; node<numOfNodes; node++) {
+				int row = node / side;
+				int column = node % side;
+				writer.println("\t<node id=\"" + node + "\" name=\"Node" + node + "\">");
+				writer.println("\t\t<position><x>" + column * ROAD_NODE_DISTANCE + "</x><y>" + row * ROAD_NODE_DISTANCE + "</y></position>");
+				writer.println("\t\t<neighbors>");
+				if(column > 0)
+					writer.println("\t\t\t<id>" + (node - 1) + "</id>");
+				if(column < side - 1 && node + 1 < numOfNodes)
+					writer.println("\t\t\t<id>" + (node + 1) + "</id>");
+				if(row > 0)
+					writer.println("\t\t\t<id>" + (node - side) + "</id>");
+				if(node + side < numOfNodes)
+					writer.println("\t\t\t<id>" + (node + side) + "</id>");
+				writer.println("\t\t</neighbors>");
+				writer.println("\t</node>");
+			}
+			writer.println("</road_nodes>");
+		}
+	}
+
+	/**
+	 * writes a datacenter for each road node, having the same id as its wlan id
+	 */
+	private static void writeEdgeDevices(File file, int rsuCount) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println("<?xml version=\"1.0\"?>");
+			writer.println("<edge_devices>");
+			for(int i=0; i<rsuCount; i++) {
+				writer.println("\t<datacenter arch=\"x86\" os=\"Linux\" vmm=\"Xen\">");
+				writer.println("\t\t<costPerBw>0.1</costPerBw><costPerSec>3.0</costPerSec><costPerMem>0.05</costPerMem><costPerStorage>0.1</costPerStorage>");
+				writer.println("\t\t<location><node_id>" + i + "</node_id><wlan_id>" + i + "</wlan_id><attractiveness>0</attractiveness></location>");
+				writer.println("\t\t<hosts><host>");
+				writer.println("\t\t\t<core>8</core><mips>4000</mips><ram>8000</ram><storage>200000</storage>");
+				writer.println("\t\t\t<VMs>");
+				for(int k=0; k<2; k++)
+					writer.println("\t\t\t\t<VM vmm=\"Xen\"><core>2</core><mips>1000</mips><ram>2000</ram><storage>50000</storage></VM>");
+				writer.println("\t\t\t</VMs>");
+				writer.println("\t\t</host></hosts>");
+				writer.println("\t</datacenter>");
+			}
+			writer.println("</edge_devices>");
+		}
+	}
+}
@@ -0,0 +1,53 @@
+%--------------------------------------------------------------
+%description
+% reads a binary result file (.bin) written by ResultFileWriter
+% returns the column names and a matrix having one row per record,
+% the values are in the same order as the columns of the text logs
+%--------------------------------------------------------------
+function [columnNames, data] = readResultFile(filePath)
+    fid = fopen(filePath, 'r', 'ieee-le');
+    if(fid == -1)
+        error('cannot open %s', filePath);
+    end
+    cleaner = onCleanup(@() fclose(fid));
+
+    magic = fread(fid, 1, 'int32');
+    version = fread(fid, 1, 'int32');
+    if(magic ~= hex2dec('52534345') || version ~= 1)
+        error('%s is not a supported result file', filePath);
+    end
+    headerSize = fread(fid, 1, 'int32');
+    recordSize = fread(fid, 1, 'int32');
+    numOfColumns = fread(fid, 1, 'int32');
+
+    columnNames = cell(1, numOfColumns);
+    columnTypes = zeros(1, numOfColumns);
+    for i=1:numOfColumns
+        columnTypes(i) = fread(fid, 1, 'int8');
+        nameLength = fread(fid, 1, 'uint8');
+        columnNames{i} = char(fread(fid, nameLength, 'uint8')');
+    end
+
+    fseek(fid, headerSize, 'bof');
+    bytes = fread(fid, Inf, 'uint8=>uint8');
+    numOfRecords = floor(numel(bytes) / recordSize);
+    records = reshape(bytes(1:numOfRecords*recordSize), recordSize, numOfRecords);
+
+    data = zeros(numOfRecords, numOfColumns);
+    offset = 0;
+    for i=1:numOfColumns
+        if(columnTypes(i) == 1)
+            columnBytes = records(offset+1:offset+4, :);
+            data(:,i) = double(typecast(columnBytes(:), 'int32'));
+            offset = offset + 4;
+        elseif(columnTypes(i) == 3)
+            columnBytes = records(offset+1:offset+8, :);
+            data(:,i) = double(typecast(columnBytes(:), 'int64'));
+            offset = offset + 8;
+        else
+            columnBytes = records(offset+1:offset+8, :);
+            data(:,i) = typecast(columnBytes(:), 'double');
+            offset = offset + 8;
+        end
+    end
+end
@@ -23,17 +23,44 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.VmCapacityIndex;
+
 public abstract class CloudServerManager {
 	protected Datacenter localDatacenter;
 	protected List<List<CloudVM>> vmList;
+	protected VmCapacityIndex capacityIndex;
 
 	public CloudServerManager() {
 		vmList = new ArrayList<List<CloudVM>>();
+		capacityIndex = new VmCapacityIndex(SimSettings.VM_TYPES.CLOUD_VM);
 	}
 
 	public List<CloudVM> getVmList(int hostId){
 		return vmList.get(hostId);
 	}
+
+	/*
+	 * returns the VMs ordered by their remaining CPU capacity,
+	 * VMs must be added to this index while they are created
+	 */
+	public VmCapacityIndex getCapacityIndex(){
+		return capacityIndex;
+	}
+
+	/*
+	 * returns average utilization of the VMs on the given host
+	 */
+	public double getHostAvgUtilization(int hostIndex){
+		return capacityIndex.getHostUtilization(hostIndex) / capacityIndex.getHostNumOfVms(hostIndex);
+	}
+
+	/*
+	 * returns average utilization of the VMs in the given datacenter
+	 */
+	public double getDatacenterAvgUtilization(int datacenterIndex){
+		return capacityIndex.getDatacenterUtilization(datacenterIndex) / capacityIndex.getDatacenterNumOfVms(datacenterIndex);
+	}
 	
 	public Datacenter getDatacenter(){
 		return localDatacenter;
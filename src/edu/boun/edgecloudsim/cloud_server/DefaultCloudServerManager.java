@@ -14,7 +14,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -22,18 +21,19 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.utils.CloudletSchedulerTimeShared_Custom;
 
 public class DefaultCloudServerManager extends CloudServerManager{
+	private final SimSettings settings;
 
-	public DefaultCloudServerManager() {
-
+	public DefaultCloudServerManager(SimulationContext context) {
+		settings = context.getSettings();
 	}
 
 	@Override
@@ -55,22 +55,23 @@ public class DefaultCloudServerManager extends CloudServerManager{
 
 	public void createVmList(int brokerId){
 		//VMs should have unique IDs, so create Cloud VMs after Edge VMs
-		int vmCounter=SimSettings.getInstance().getNumOfEdgeVMs();
+		int vmCounter=settings.getNumOfEdgeVMs();
 		
 		//Create VMs for each hosts
-		for (int i = 0; i < SimSettings.getInstance().getNumOfCloudHost(); i++) {
+		for (int i = 0; i < settings.getNumOfCloudHost(); i++) {
 			vmList.add(i, new ArrayList<CloudVM>());
-			for(int j = 0; j < SimSettings.getInstance().getNumOfCloudVMsPerHost(); j++){
+			for(int j = 0; j < settings.getNumOfCloudVMsPerHost(); j++){
 				String vmm = "Xen";
-				int numOfCores = SimSettings.getInstance().getCoreForCloudVM();
-				double mips = SimSettings.getInstance().getMipsForCloudVM();
-				int ram = SimSettings.getInstance().getRamForCloudVM();
-				long storage = SimSettings.getInstance().getStorageForCloudVM();
+				int numOfCores = settings.getCoreForCloudVM();
+				double mips = settings.getMipsForCloudVM();
+				int ram = settings.getRamForCloudVM();
+				long storage = settings.getStorageForCloudVM();
 				long bandwidth = 0;
 				
 				//VM Parameters		
-				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared_Custom());
 				vmList.get(i).add(vm);
+				capacityIndex.add(vm, i, 0);
 				vmCounter++;
 			}
 		}
@@ -78,21 +79,7 @@ public class DefaultCloudServerManager extends CloudServerManager{
 	
 	//average utilization of all VMs
 	public double getAvgUtilization(){
-		double totalUtilization = 0;
-		double vmCounter = 0;
-
-		List<? extends Host> list = localDatacenter.getHostList();
-		// for each host...
-		for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-			List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-			//for each vm...
-			for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-				totalUtilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-				vmCounter++;
-			}
-		}
-
-		return totalUtilization / vmCounter;
+		return capacityIndex.getAvgUtilization();
 	}
 
 	private Datacenter createDatacenter(int index) throws Exception{
@@ -131,12 +118,12 @@ public class DefaultCloudServerManager extends CloudServerManager{
 		// 1. We need to create a list to store one or more Machines
 		List<Host> hostList = new ArrayList<Host>();
 		
-		for (int i = 0; i < SimSettings.getInstance().getNumOfCloudHost(); i++) {
-			int numOfVMPerHost = SimSettings.getInstance().getNumOfCloudVMsPerHost();
-			int numOfCores = SimSettings.getInstance().getCoreForCloudVM() * numOfVMPerHost;
-			double mips = SimSettings.getInstance().getMipsForCloudVM() * numOfVMPerHost;
-			int ram = SimSettings.getInstance().getRamForCloudVM() * numOfVMPerHost;
-			long storage = SimSettings.getInstance().getStorageForCloudVM() * numOfVMPerHost;
+		for (int i = 0; i < settings.getNumOfCloudHost(); i++) {
+			int numOfVMPerHost = settings.getNumOfCloudVMsPerHost();
+			int numOfCores = settings.getCoreForCloudVM() * numOfVMPerHost;
+			double mips = settings.getMipsForCloudVM() * numOfVMPerHost;
+			int ram = settings.getRamForCloudVM() * numOfVMPerHost;
+			long storage = settings.getStorageForCloudVM() * numOfVMPerHost;
 			long bandwidth = 0;
 			
 			// 2. A Machine contains one or more PEs or CPUs/Cores. Therefore, should
@@ -153,7 +140,7 @@ public class DefaultCloudServerManager extends CloudServerManager{
 			//4. Create Hosts with its id and list of PEs and add them to the list of machines
 			Host host = new Host(
 					//Hosts should have unique IDs, so create Cloud Hosts after Edge Hosts
-					i+SimSettings.getInstance().getNumOfEdgeHosts(),
+					i+settings.getNumOfEdgeHosts(),
 					new RamProvisionerSimple(ram),
 					new BwProvisionerSimple(bandwidth), //kbps
 					storage,
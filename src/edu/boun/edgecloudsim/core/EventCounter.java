@@ -0,0 +1,63 @@
+/*
+ * Title:        EdgeCloudSim - Event Counter
+ *
+ * Description:
+ * EventCounter counts the events processed by CloudSim. CloudSim does not
+ * count its events, but its future event queue is a protected field, so
+ * it is replaced by a queue which counts the events removed from it for
+ * processing. The events cancelled by the entities are not counted.
+ * The events already in the queue when it is installed are moved into
+ * the new queue in their order.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.FutureQueue;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+public class EventCounter extends CloudSim {
+	private static class CountingFutureQueue extends FutureQueue {
+		private long numOfProcessedEvents;
+
+		@Override
+		public boolean remove(SimEvent event) {
+			boolean removed = super.remove(event);
+			if(removed)
+				numOfProcessedEvents++;
+			return removed;
+		}
+
+		@Override
+		public boolean removeAll(Collection<SimEvent> events) {
+			numOfProcessedEvents += events.size();
+			return super.removeAll(events);
+		}
+	}
+
+	private static CountingFutureQueue queue;
+
+	/**
+	 * starts counting, must be called after CloudSim.init(),
+	 * the counting continues if it is already installed
+	 */
+	public static void install() {
+		if(queue != null && future == queue)
+			return;
+
+		queue = new CountingFutureQueue();
+		for(Iterator<SimEvent> events = future.iterator(); events.hasNext();)
+			queue.addEvent(events.next());
+		future = queue;
+	}
+
+	public static long getNumOfProcessedEvents() {
+		return queue == null ? 0 : queue.numOfProcessedEvents;
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Title:        EdgeCloudSim - Scenario Runner
+ *
+ * Description:
+ * ScenarioRunner executes a single (iteration, number of devices, scenario,
+ * orchestrator policy) cell of a simulation sweep. SweepEngine invokes it
+ * reflectively inside a SimulationClassLoader, therefore its entry point
+ * only uses JDK types. Simulation settings are loaded once per class loader
+ * and reused by the following cells executed by the same worker.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.PrintStream;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class ScenarioRunner {
+	private static boolean initialized = false;
+
+	/**
+	 * runs the given cell, settingFiles are the configuration, edge devices,
+	 * applications and road nodes files respectively
+	 */
+	public static void run(String[] settingFiles, String outputFolder, int iterationNumber,
+			int numOfMobileDevice, String simScenario, String policyName, PrintStream console) throws Exception {
+		SimSettings SS = SimSettings.getInstance();
+		if(!initialized) {
+			//disable console output of cloudsim library
+			Log.disable();
+
+			//enable console output and file output of this application
+			SimLogger.enablePrintLog();
+
+			if(!SS.initialize(settingFiles[0], settingFiles[1], settingFiles[2], settingFiles[3]))
+				throw new IllegalStateException("cannot initialize simulation settings!");
+
+			if(SS.getFileLoggingEnabled())
+				SimLogger.enableFileLog();
+
+			initialized = true;
+		}
+		SimLogger.setPrintStream(console);
+
+		OrchestratorPolicy orchestratorPolicy = OrchestratorPolicy.valueOf(policyName);
+		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		Date ScenarioStartDate = Calendar.getInstance().getTime();
+		String now = df.format(ScenarioStartDate);
+
+		SimLogger.printLine("Scenario started at " + now);
+		SimLogger.printLine("Scenario: " + simScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
+		SimLogger.printLine("Duration: " + SS.getSimulationTime() / 3600 + " hour(s) - Poisson: " + SS.getTaskLookUpTable()[0][2] + " - #devices: " + numOfMobileDevice + " - Seed: " + SS.getRandomSeed());
+
+		//the policies of an iteration are compared under the same workload and mobility
+		RandomStreams randomStreams = new RandomStreams(SS.getRandomSeed()).split(iterationNumber).split(numOfMobileDevice);
+		SimulationContext context = new SimulationContext(SS, SimLogger.getInstance(), randomStreams);
+		context.getLogger().simStarted(context, outputFolder, getFilePrefix(simScenario, policyName, numOfMobileDevice));
+
+		// First step: Initialize the CloudSim package. It should be called
+		// before creating any entities.
+		int num_user = 2;   // number of grid users
+		Calendar calendar = Calendar.getInstance();
+		boolean trace_flag = false;  // mean trace events
+
+		// Initialize the CloudSim library
+		CloudSim.init(num_user, calendar, trace_flag, 0.01);
+
+		// Generate EdgeCloudsim Scenario Factory
+		ScenarioFactory sampleFactory = new VehicularScenarioFactory(numOfMobileDevice, iterationNumber, SS.getSimulationTime(), simScenario, orchestratorPolicy, context);
+
+		// Generate EdgeCloudSim Simulation Manager
+		SimManager manager = new SimManager(context, sampleFactory, numOfMobileDevice, simScenario, orchestratorPolicy);
+
+		// Start simulation
+		manager.startSimulation();
+
+		Date ScenarioEndDate = Calendar.getInstance().getTime();
+		now = df.format(ScenarioEndDate);
+		SimLogger.printLine("Scenario finished at " + now + ". It took " + SimUtils.getTimeDifference(ScenarioStartDate, ScenarioEndDate));
+		SimLogger.printLine("----------------------------------------------------------------------");
+	}
+
+	/**
+	 * returns the prefix of the result files of the given cell
+	 */
+	public static String getFilePrefix(String simScenario, String policyName, int numOfMobileDevice) {
+		return "SIMRESULT_" + simScenario + "_" + policyName + "_" + numOfMobileDevice + "DEVICES";
+	}
+}
@@ -29,6 +29,7 @@ import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerMana
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.utils.EventProfiler;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
@@ -38,6 +39,12 @@ public class SimManager extends SimEntity {
 	private static final int GET_LOAD_LOG = 2;
 	private static final int PRINT_PROGRESS = 3;
 	private static final int STOP_SIMULATION = 4;
+	private static final int GET_LOCATION_LOG = 5;
+	private static final int HANDOVER = 6;
+	
+	//the sections of the event profiler are indexed by the event tags
+	private static final int[] PROFILED_EVENTS = EventProfiler.registerEvents("SimManager", "CREATE_TASK",
+			"CHECK_ALL_VM", "GET_LOAD_LOG", "PRINT_PROGRESS", "STOP_SIMULATION", "GET_LOCATION_LOG", "HANDOVER");
 	
 	private String simScenario;
 	private OrchestratorPolicy orchestratorPolicy;
@@ -51,48 +58,74 @@ public class SimManager extends SimEntity {
 	private MobileServerManager mobileServerManager;
 	private LoadGeneratorModel loadGeneratorModel;
 	private MobileDeviceManager mobileDeviceManager;
+	private SimulationContext context;
+	private SimSettings settings;
+	private SimLogger logger;
+	private int locationLogCounter;
+	private SimTelemetry telemetry;
 	
 	private static SimManager instance = null;
 	
 	public SimManager(ScenarioFactory _scenarioFactory, int _numOfMobileDevice, String _simScenario, OrchestratorPolicy _orchestratorPolicy) throws Exception {
+		this(new SimulationContext(SimSettings.getInstance(), SimLogger.getInstance()),
+				_scenarioFactory, _numOfMobileDevice, _simScenario, _orchestratorPolicy);
+	}
+	
+	/**
+	 * creates the simulation manager of the run described by the given context,
+	 * the components created by the scenario factory are registered to the context
+	 */
+	public SimManager(SimulationContext _context, ScenarioFactory _scenarioFactory, int _numOfMobileDevice, String _simScenario, OrchestratorPolicy _orchestratorPolicy) throws Exception {
 		super("SimManager");
+		context = _context;
+		settings = context.getSettings();
+		logger = context.getLogger();
 		simScenario = _simScenario;
 		scenarioFactory = _scenarioFactory;
 		numOfMobileDevice = _numOfMobileDevice;
 		orchestratorPolicy = _orchestratorPolicy;
+		context.setSimManager(this);
 
 		SimLogger.print("Creating tasks...");
 		loadGeneratorModel = scenarioFactory.getLoadGeneratorModel();
+		context.setLoadGeneratorModel(loadGeneratorModel);
 		loadGeneratorModel.initializeModel();
 		SimLogger.printLine("Done, ");
 		
 		SimLogger.print("Creating device locations...");
 		mobilityModel = scenarioFactory.getMobilityModel();
+		context.setMobilityModel(mobilityModel);
 		mobilityModel.initialize();
 		SimLogger.printLine("Done.");
 
 		//Generate network model
 		networkModel = scenarioFactory.getNetworkModel();
+		context.setNetworkModel(networkModel);
 		networkModel.initialize();
 		
 		//Generate edge orchestrator
 		edgeOrchestrator = scenarioFactory.getEdgeOrchestrator();
+		context.setEdgeOrchestrator(edgeOrchestrator);
 		edgeOrchestrator.initialize();
 		
 		//Create Physical Servers
 		edgeServerManager = scenarioFactory.getEdgeServerManager();
+		context.setEdgeServerManager(edgeServerManager);
 		edgeServerManager.initialize();
 		
 		//Create Physical Servers on cloud
 		cloudServerManager = scenarioFactory.getCloudServerManager();
+		context.setCloudServerManager(cloudServerManager);
 		cloudServerManager.initialize();
 		
 		//Create Physical Servers on mobile devices
 		mobileServerManager = scenarioFactory.getMobileServerManager();
+		context.setMobileServerManager(mobileServerManager);
 		mobileServerManager.initialize();
 
 		//Create Client Manager
 		mobileDeviceManager = scenarioFactory.getMobileDeviceManager();
+		context.setMobileDeviceManager(mobileDeviceManager);
 		mobileDeviceManager.initialize();
 		
 		instance = this;
@@ -102,6 +135,10 @@ public class SimManager extends SimEntity {
 		return instance;
 	}
 	
+	public SimulationContext getContext(){
+		return context;
+	}
+	
 	/**
 	 * Triggering CloudSim to start simulation
 	 */
@@ -121,7 +158,21 @@ public class SimManager extends SimEntity {
 		mobileServerManager.startDatacenters();
 		mobileServerManager.createVmList(mobileDeviceManager.getId());
 		
-		CloudSim.startSimulation();
+		//live metrics are published through JMX and the telemetry file
+		if(settings.getTelemetryEnabled()) {
+			EventCounter.install();
+			telemetry = new SimTelemetry(context);
+			telemetry.start();
+		}
+		
+		EventProfiler.reset();
+		try {
+			CloudSim.startSimulation();
+		} finally {
+			//the MXBean is unregistered even if the simulation fails
+			if(telemetry != null)
+				telemetry.close();
+		}
 	}
 
 	public String getSimulationScenario(){
@@ -184,7 +235,7 @@ public class SimManager extends SimEntity {
 			}
 		}
 		
-		for(int i = 0; i<SimSettings.getInstance().getNumOfCloudHost(); i++) {
+		for(int i = 0; i<settings.getNumOfCloudHost(); i++) {
 			mobileDeviceManager.submitVmList(cloudServerManager.getVmList(i));
 		}
 
@@ -194,14 +245,32 @@ public class SimManager extends SimEntity {
 		}
 		
 		//Creation of tasks are scheduled here!
-		for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
-			schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
+		if(loadGeneratorModel.isStreaming()) {
+			//only the next task of each device is pending, the following one is scheduled when it is created
+			for(int i=0; i<numOfMobileDevice; i++)
+				scheduleNextTask(i);
+		}
+		else {
+			for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
+				schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
+		}
 		
 		//Periodic event loops starts from here!
 		schedule(getId(), 5, CHECK_ALL_VM);
-		schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
-		schedule(getId(), SimSettings.getInstance().getVmLoadLogInterval(), GET_LOAD_LOG);
-		schedule(getId(), SimSettings.getInstance().getSimulationTime(), STOP_SIMULATION);
+		schedule(getId(), settings.getSimulationTime()/100, PRINT_PROGRESS);
+		schedule(getId(), settings.getVmLoadLogInterval(), GET_LOAD_LOG);
+		schedule(getId(), settings.getSimulationTime(), STOP_SIMULATION);
+		
+		//number of devices on each access point is logged while the simulation runs
+		locationLogCounter = 1;
+		if(SimLogger.isFileLogEnabled() && settings.getLocationLogInterval() != 0)
+			schedule(getId(), settings.getLocationLogInterval(), GET_LOCATION_LOG);
+		
+		//handovers are simulated as events only if the network model needs them
+		if(networkModel.needsHandoverEvents()) {
+			mobilityModel.setHandoverListener(networkModel);
+			scheduleNextHandover();
+		}
 		
 		SimLogger.printLine("Done.");
 	}
@@ -209,56 +278,88 @@ public class SimManager extends SimEntity {
 	@Override
 	public void processEvent(SimEvent ev) {
 		synchronized(this){
+			EventProfiler.begin();
 			switch (ev.getTag()) {
 			case CREATE_TASK:
 				try {
 					TaskProperty edgeTask = (TaskProperty) ev.getData();
 					mobileDeviceManager.submitTask(edgeTask);						
+					if(loadGeneratorModel.isStreaming())
+						scheduleNextTask(edgeTask.getMobileDeviceId());
 				} catch (Exception e) {
 					e.printStackTrace();
 					System.exit(1);
 				}
 				break;
 			case CHECK_ALL_VM:
-				int totalNumOfVm = SimSettings.getInstance().getNumOfEdgeVMs();
+				int totalNumOfVm = settings.getNumOfEdgeVMs();
 				if(EdgeVmAllocationPolicy_Custom.getCreatedVmNum() != totalNumOfVm){
 					SimLogger.printLine("All VMs cannot be created! Terminating simulation...");
 					System.exit(1);
 				}
 				break;
 			case GET_LOAD_LOG:
-				SimLogger.getInstance().addVmUtilizationLog(
-						CloudSim.clock(),
-						edgeServerManager.getAvgUtilization(),
-						cloudServerManager.getAvgUtilization(),
-						mobileServerManager.getAvgUtilization());
+				EventProfiler.begin();
+				double edgeUtilization = edgeServerManager.getAvgUtilization();
+				double cloudUtilization = cloudServerManager.getAvgUtilization();
+				double mobileUtilization = mobileServerManager.getAvgUtilization();
+				EventProfiler.end(EventProfiler.SERVER_MANAGERS);
+				
+				logger.addVmUtilizationLog(CloudSim.clock(), edgeUtilization, cloudUtilization, mobileUtilization);
+				updateTelemetry();
 				
-				schedule(getId(), SimSettings.getInstance().getVmLoadLogInterval(), GET_LOAD_LOG);
+				schedule(getId(), settings.getVmLoadLogInterval(), GET_LOAD_LOG);
+				break;
+			case GET_LOCATION_LOG:
+				double time = locationLogCounter * settings.getLocationLogInterval();
+				if(time >= SimSettings.CLIENT_ACTIVITY_START_TIME) {
+					int[] numOfDevicesOnAp = new int[settings.getNumOfEdgeDatacenters()];
+					EventProfiler.begin();
+					mobilityModel.getNumOfDevicesOnWlans(time, numOfDevicesOnAp);
+					EventProfiler.end(EventProfiler.MOBILITY);
+					logger.addLocationLog(time, numOfDevicesOnAp);
+				}
+				
+				locationLogCounter++;
+				if(locationLogCounter < settings.getSimulationTime() / settings.getLocationLogInterval())
+					schedule(getId(), locationLogCounter * settings.getLocationLogInterval() - CloudSim.clock(), GET_LOCATION_LOG);
+				break;
+			case HANDOVER:
+				//the event may be received slightly before the scheduled time due to rounding
+				EventProfiler.begin();
+				mobilityModel.processHandovers(Math.max(CloudSim.clock(), (Double)ev.getData()));
+				scheduleNextHandover();
+				EventProfiler.end(EventProfiler.MOBILITY);
 				break;
 			case PRINT_PROGRESS:
-				int progress = (int)((CloudSim.clock()*100)/SimSettings.getInstance().getSimulationTime());
+				int progress = (int)((CloudSim.clock()*100)/settings.getSimulationTime());
 				if(progress % 10 == 0)
 					SimLogger.print(Integer.toString(progress));
 				else
 					SimLogger.print(".");
-				if(CloudSim.clock() < SimSettings.getInstance().getSimulationTime())
-					schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
+				updateTelemetry();
+				if(CloudSim.clock() < settings.getSimulationTime())
+					schedule(getId(), settings.getSimulationTime()/100, PRINT_PROGRESS);
 
 				break;
 			case STOP_SIMULATION:
 				SimLogger.printLine("100");
 				CloudSim.terminateSimulation();
 				try {
-					SimLogger.getInstance().simStopped();
+					if(telemetry != null)
+						telemetry.stop();
+					logger.simStopped();
 				} catch (IOException e) {
 					e.printStackTrace();
 					System.exit(1);
 				}
+				EventProfiler.printReport();
 				break;
 			default:
 				SimLogger.printLine(getName() + ": unknown event type");
 				break;
 			}
+			EventProfiler.end(PROFILED_EVENTS, ev.getTag());
 		}
 	}
 
@@ -268,4 +369,30 @@ public class SimManager extends SimEntity {
 		cloudServerManager.terminateDatacenters();
 		mobileServerManager.terminateDatacenters();
 	}
+
+	private void scheduleNextTask(int deviceId) {
+		EventProfiler.begin();
+		TaskProperty task = loadGeneratorModel.getNextTask(deviceId);
+		EventProfiler.end(EventProfiler.LOAD_GENERATOR);
+		if(task != null)
+			schedule(getId(), task.getStartTime() - CloudSim.clock(), CREATE_TASK, task);
+	}
+
+	private void updateTelemetry() {
+		if(telemetry == null)
+			return;
+		
+		try {
+			telemetry.update();
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private void scheduleNextHandover() {
+		double time = mobilityModel.getNextHandoverTime();
+		if(time < settings.getSimulationTime())
+			schedule(getId(), Math.max(0, time - CloudSim.clock()), HANDOVER, time);
+	}
 }
@@ -58,8 +58,22 @@ public class SimSettings {
 	private double INTERVAL_TO_GET_VM_LOAD_LOG; //minutes unit in properties file
 	private double INTERVAL_TO_GET_LOCATION_LOG; //minutes unit in properties file
 	private double INTERVAL_TO_GET_AP_DELAY_LOG; //minutes unit in properties file
+	private double LOG_DOWNSAMPLING_INTERVAL; //minutes unit in properties file
 	private boolean FILE_LOG_ENABLED; //boolean to check file logging option
 	private boolean DEEP_FILE_LOG_ENABLED; //boolean to check deep file logging option
+	private boolean BINARY_FILE_LOG_ENABLED; //boolean to write the periodic logs as binary result files
+	private int SWEEP_WORKER_COUNT; //number of scenarios executed at the same time, 0 means all cores
+	private boolean LAZY_MOBILITY_ENABLED; //boolean to generate the trajectories while the simulation runs
+	private double MOBILITY_LOOK_AHEAD_WINDOW; //seconds unit in properties file
+	private boolean TASK_STREAMING_ENABLED; //boolean to generate the tasks while the simulation runs
+	private boolean PARALLEL_GENERATION_ENABLED; //boolean to generate the workload and trajectories on all cores
+	private String TASK_TRACE_FOLDER; //folder of the binary task traces, empty means no trace
+	private long RANDOM_SEED; //seed of the random streams of the simulation runs
+	private boolean RANDOM_SEED_FIXED; //true if the seed is given in the properties file
+	private boolean TELEMETRY_ENABLED; //boolean to publish the live metrics through JMX and a Prometheus text file
+	private double TELEMETRY_INTERVAL; //seconds of wall clock time unit in properties file
+	private double KPI_WINDOW_SIZE; //seconds unit in properties file
+	private boolean FLOW_LEVEL_NETWORK_ENABLED; //boolean to share the WLAN and WAN bandwidth between the flows
 
 	private int MIN_NUM_OF_MOBILE_DEVICES;
 	private int MAX_NUM_OF_MOBILE_DEVICES;
@@ -116,7 +130,11 @@ public class SimSettings {
 
 	private String[] taskNames = null;
 
-	private SimSettings() {
+	/**
+	 * getInstance() provides the shared settings, separate instances
+	 * can be created for the simulations having their own context
+	 */
+	public SimSettings() {
 		NUM_OF_PLACE_TYPES = 0;
 	}
 
@@ -147,8 +165,23 @@ public class SimSettings {
 			INTERVAL_TO_GET_VM_LOAD_LOG = (double)60 * Double.parseDouble(prop.getProperty("vm_load_check_interval")); //seconds
 			INTERVAL_TO_GET_LOCATION_LOG = (double)60 * Double.parseDouble(prop.getProperty("location_check_interval")); //seconds
 			INTERVAL_TO_GET_AP_DELAY_LOG = (double)60 * Double.parseDouble(prop.getProperty("ap_delay_check_interval", "0")); //seconds		
+			LOG_DOWNSAMPLING_INTERVAL = (double)60 * Double.parseDouble(prop.getProperty("log_downsampling_interval", "0")); //seconds
 			FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("file_log_enabled"));
 			DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_enabled"));
+			BINARY_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("binary_file_log_enabled", "false"));
+			SWEEP_WORKER_COUNT = Integer.parseInt(prop.getProperty("sweep_worker_count", "1"));
+			LAZY_MOBILITY_ENABLED = Boolean.parseBoolean(prop.getProperty("lazy_mobility_enabled", "false"));
+			MOBILITY_LOOK_AHEAD_WINDOW = Double.parseDouble(prop.getProperty("mobility_look_ahead_window", "60")); //seconds
+			TASK_STREAMING_ENABLED = Boolean.parseBoolean(prop.getProperty("task_streaming_enabled", "false"));
+			PARALLEL_GENERATION_ENABLED = Boolean.parseBoolean(prop.getProperty("parallel_generation_enabled", "false"));
+			TASK_TRACE_FOLDER = prop.getProperty("task_trace_folder", "").trim();
+			String randomSeed = prop.getProperty("random_seed", "").trim();
+			RANDOM_SEED_FIXED = !randomSeed.isEmpty();
+			RANDOM_SEED = RANDOM_SEED_FIXED ? Long.parseLong(randomSeed) : System.currentTimeMillis();
+			TELEMETRY_ENABLED = Boolean.parseBoolean(prop.getProperty("telemetry_enabled", "false"));
+			TELEMETRY_INTERVAL = Double.parseDouble(prop.getProperty("telemetry_interval", "5")); //seconds
+			KPI_WINDOW_SIZE = Double.parseDouble(prop.getProperty("kpi_window_size", "0")); //seconds
+			FLOW_LEVEL_NETWORK_ENABLED = Boolean.parseBoolean(prop.getProperty("flow_level_network_enabled", "false"));
 
 			MIN_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
 			MAX_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
@@ -260,6 +293,15 @@ public class SimSettings {
 		return INTERVAL_TO_GET_AP_DELAY_LOG; 
 	}
 
+	/**
+	 * returns the interval of merging the VM load, location and AP delay samples
+	 * (in seconds unit) from properties file, the samples are kept if it is 0
+	 */
+	public double getLogDownsamplingInterval()
+	{
+		return LOG_DOWNSAMPLING_INTERVAL;
+	}
+
 	/**
 	 * returns deep statistics logging status from properties file
 	 */
@@ -276,6 +318,118 @@ public class SimSettings {
 		return FILE_LOG_ENABLED; 
 	}
 
+	/**
+	 * returns true if the VM load, location and AP delay logs are written
+	 * as binary result files instead of text files
+	 */
+	public boolean getBinaryFileLoggingEnabled()
+	{
+		return FILE_LOG_ENABLED && BINARY_FILE_LOG_ENABLED; 
+	}
+
+	/**
+	 * returns the number of scenarios which are executed at the same time
+	 * zero or negative values in the properties file means all available cores
+	 */
+	public int getSweepWorkerCount()
+	{
+		if(SWEEP_WORKER_COUNT <= 0)
+			return Runtime.getRuntime().availableProcessors();
+		return SWEEP_WORKER_COUNT;
+	}
+
+	/**
+	 * returns lazy trajectory generation status from properties file
+	 */
+	public boolean getLazyMobilityEnabled()
+	{
+		return LAZY_MOBILITY_ENABLED;
+	}
+
+	/**
+	 * returns how far the trajectories are generated ahead of the queried time
+	 * in lazy mobility mode (in seconds unit) from properties file
+	 */
+	public double getMobilityLookAheadWindow()
+	{
+		return MOBILITY_LOOK_AHEAD_WINDOW;
+	}
+
+	/**
+	 * returns streaming task generation status from properties file
+	 */
+	public boolean getTaskStreamingEnabled()
+	{
+		return TASK_STREAMING_ENABLED;
+	}
+
+	/**
+	 * returns parallel workload and trajectory generation status from properties file
+	 */
+	public boolean getParallelGenerationEnabled()
+	{
+		return PARALLEL_GENERATION_ENABLED;
+	}
+
+	/**
+	 * returns the folder of the binary task traces from properties file,
+	 * empty string if the tasks are not replayed from a trace
+	 */
+	public String getTaskTraceFolder()
+	{
+		return TASK_TRACE_FOLDER;
+	}
+
+	/**
+	 * returns the seed of the random streams from properties file,
+	 * current time in milliseconds if it is not given
+	 */
+	public long getRandomSeed()
+	{
+		return RANDOM_SEED;
+	}
+
+	/**
+	 * returns true if the seed of the random streams is given in properties file
+	 */
+	public boolean getRandomSeedFixed()
+	{
+		return RANDOM_SEED_FIXED;
+	}
+
+	/**
+	 * returns live telemetry status from properties file
+	 */
+	public boolean getTelemetryEnabled()
+	{
+		return TELEMETRY_ENABLED;
+	}
+
+	/**
+	 * returns the interval of rewriting the telemetry file (in seconds of wall clock time) from properties file
+	 */
+	public double getTelemetryInterval()
+	{
+		return TELEMETRY_INTERVAL;
+	}
+
+	/**
+	 * returns the size of the windows of the KPI time series (in seconds unit) from properties file,
+	 * the time series is disabled if it is 0
+	 */
+	public double getKpiWindowSize()
+	{
+		return KPI_WINDOW_SIZE;
+	}
+
+	/**
+	 * returns flow level network option from properties file
+	 */
+	public boolean getFlowLevelNetworkEnabled()
+	{
+		return FLOW_LEVEL_NETWORK_ENABLED;
+	}
+
 	/**
 	 * returns WAN propagation delay (in second unit) from properties file
 	 */
@@ -358,7 +512,8 @@ public class SimSettings {
 	}
 
 	/**
-	 * returns edge device range in meter
+	 * returns edge device range in meter, 0 means the vehicles are
+	 * served by the access point of the road node they are connected to
 	 */
 	public int getWlanRange()
 	{
@@ -0,0 +1,343 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Telemetry
+ *
+ * Description:
+ * SimTelemetry publishes the live state of a running scenario: simulated
+ * time, simulation speed, CloudSim events per second, tasks in flight,
+ * utilization of each tier, finished tasks by status and heap usage.
+ * The values are taken from the counters of SimLogger, the VM load samples
+ * of SimManager and EventCounter.
+ *
+ * The simulation thread copies the values into an immutable snapshot when
+ * update() is called. The snapshot is exposed through JMX as an MXBean and
+ * a background thread rewrites it to a text file in Prometheus exposition
+ * format periodically, so that the file can be scraped by the textfile
+ * collector of node_exporter or read by hand. The file is replaced
+ * atomically, the readers never see a partially written file.
+ *
+ * The MXBean is named by the scenario and the output folder, since the
+ * iterations of a sweep may run the same scenario at the same time.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimLogger.TASK_STATUS;
+
+public class SimTelemetry implements SimTelemetryMXBean {
+	private static final TASK_STATUS[] FINISHED_STATUSES = {
+		TASK_STATUS.COMLETED,
+		TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY,
+		TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH,
+		TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH,
+		TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY,
+		TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE
+	};
+
+	private static class Snapshot {
+		final long updateNanos;
+		final double simulatedTime;
+		final double simulationSpeed;
+		final long numOfEvents;
+		final double eventsPerSecond;
+		final int numOfInFlightTasks;
+		final double edgeUtilization;
+		final double cloudUtilization;
+		final double mobileUtilization;
+		final int[] numOfFinishedTasks; //indexed as FINISHED_STATUSES
+
+		Snapshot(long _updateNanos, double _simulatedTime, double _simulationSpeed, long _numOfEvents,
+				double _eventsPerSecond, int _numOfInFlightTasks, double _edgeUtilization,
+				double _cloudUtilization, double _mobileUtilization, int[] _numOfFinishedTasks) {
+			updateNanos = _updateNanos;
+			simulatedTime = _simulatedTime;
+			simulationSpeed = _simulationSpeed;
+			numOfEvents = _numOfEvents;
+			eventsPerSecond = _eventsPerSecond;
+			numOfInFlightTasks = _numOfInFlightTasks;
+			edgeUtilization = _edgeUtilization;
+			cloudUtilization = _cloudUtilization;
+			mobileUtilization = _mobileUtilization;
+			numOfFinishedTasks = _numOfFinishedTasks;
+		}
+	}
+
+	private final SimLogger logger;
+	private final String scenario;
+	private final double simulationTime;
+	private final long intervalNanos;
+	private final File file;
+	private final long startNanos;
+	private ObjectName objectName;
+	private Thread writer;
+
+	private volatile Snapshot snapshot;
+	private volatile boolean stopped = false;
+	private volatile IOException failure = null;
+
+	/**
+	 * the telemetry of the scenario is written to <output folder>/<file prefix>_TELEMETRY.prom
+	 */
+	public SimTelemetry(SimulationContext context) {
+		logger = context.getLogger();
+		scenario = logger.getFilePrefix();
+		simulationTime = context.getSettings().getSimulationTime();
+		intervalNanos = (long)(context.getSettings().getTelemetryInterval() * 1e9);
+		file = new File(logger.getOutputFolder(), scenario + "_TELEMETRY.prom");
+		startNanos = System.nanoTime();
+		snapshot = new Snapshot(startNanos, 0, 0, 0, 0, 0, 0, 0, 0, new int[FINISHED_STATUSES.length]);
+	}
+
+	/**
+	 * registers the MXBean and starts rewriting the file
+	 */
+	public void start() throws JMException {
+		ObjectName name = new ObjectName("edu.boun.edgecloudsim:type=SimTelemetry,scenario=" + ObjectName.quote(scenario) +
+				",folder=" + ObjectName.quote(file.getAbsoluteFile().getParent()));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+		objectName = name;
+
+		writer = new Thread(this::run, "SimTelemetry-" + scenario);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * publishes the current values, must be called by the simulation thread,
+	 * throws the IO error of the background thread if any
+	 */
+	public void update() throws IOException {
+		if(failure != null)
+			throw failure;
+
+		Snapshot previous = snapshot;
+		long now = System.nanoTime();
+		double simulatedTime = CloudSim.clock();
+		long numOfEvents = EventCounter.getNumOfProcessedEvents();
+		double elapsed = (now - previous.updateNanos) / 1e9;
+		double simulationSpeed = elapsed > 0 ? (simulatedTime - previous.simulatedTime) / elapsed : previous.simulationSpeed;
+		double eventsPerSecond = elapsed > 0 ? (numOfEvents - previous.numOfEvents) / elapsed : previous.eventsPerSecond;
+
+		int[] numOfFinishedTasks = new int[FINISHED_STATUSES.length];
+		for(int i=0; i<FINISHED_STATUSES.length; i++)
+			numOfFinishedTasks[i] = logger.getNumOfTasks(FINISHED_STATUSES[i]);
+
+		snapshot = new Snapshot(now, simulatedTime, simulationSpeed, numOfEvents, eventsPerSecond,
+				logger.getNumOfInFlightTasks(), logger.getLastLoadOnEdge(), logger.getLastLoadOnCloud(),
+				logger.getLastLoadOnMobile(), numOfFinishedTasks);
+	}
+
+	/**
+	 * publishes the final values, writes the file for the last time and unregisters the MXBean
+	 */
+	public void stop() throws IOException {
+		update();
+		stopped = true;
+		LockSupport.unpark(writer);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while writing the telemetry file", e);
+		}
+		try {
+			unregister();
+		} catch (JMException e) {
+			throw new IOException("telemetry MXBean cannot be unregistered", e);
+		}
+		if(failure != null)
+			throw failure;
+	}
+
+	/**
+	 * stops the background thread and unregisters the MXBean if stop() is not called,
+	 * e.g. the simulation is terminated by an error
+	 */
+	public void close() {
+		stopped = true;
+		if(writer != null)
+			LockSupport.unpark(writer);
+		try {
+			unregister();
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void unregister() throws JMException {
+		if(objectName == null)
+			return;
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		objectName = null;
+	}
+
+	private void run() {
+		try {
+			while(!stopped) {
+				write();
+				LockSupport.parkNanos(this, intervalNanos);
+			}
+			write();
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	private void write() throws IOException {
+		Snapshot s = snapshot;
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		String label = "{scenario=\"" + escape(scenario) + "\"}";
+
+		StringBuilder text = new StringBuilder();
+		appendMetric(text, "simulated_time_seconds", "gauge", "Simulated time", label, s.simulatedTime);
+		appendMetric(text, "simulation_time_seconds", "gauge", "Simulation time of the scenario", label, simulationTime);
+		appendMetric(text, "wall_time_seconds", "gauge", "Wall clock time since the scenario started", label, (System.nanoTime() - startNanos) / 1e9);
+		appendMetric(text, "simulation_speed_ratio", "gauge", "Simulated seconds per wall clock second", label, s.simulationSpeed);
+		appendMetric(text, "events_total", "counter", "CloudSim events processed", label, s.numOfEvents);
+		appendMetric(text, "events_per_second", "gauge", "CloudSim events processed per wall clock second", label, s.eventsPerSecond);
+		appendMetric(text, "tasks_in_flight", "gauge", "Tasks created but not finished yet", label, s.numOfInFlightTasks);
+
+		appendHeader(text, "tier_utilization_percent", "gauge", "Average VM utilization of the tier in the last load sample");
+		appendSample(text, "tier_utilization_percent", tierLabel("edge"), s.edgeUtilization);
+		appendSample(text, "tier_utilization_percent", tierLabel("cloud"), s.cloudUtilization);
+		appendSample(text, "tier_utilization_percent", tierLabel("mobile"), s.mobileUtilization);
+
+		appendHeader(text, "tasks_finished_total", "counter", "Tasks finished after the warm up period by status");
+		for(int i=0; i<FINISHED_STATUSES.length; i++)
+			appendSample(text, "tasks_finished_total", "{scenario=\"" + escape(scenario) + "\",status=\"" + FINISHED_STATUSES[i] + "\"}", s.numOfFinishedTasks[i]);
+
+		appendMetric(text, "heap_used_bytes", "gauge", "Used heap memory of the JVM", label, heap.getUsed());
+		appendMetric(text, "heap_max_bytes", "gauge", "Maximum heap memory of the JVM", label, heap.getMax());
+		appendMetric(text, "last_update_age_seconds", "gauge", "Wall clock time since the values were published", label, (System.nanoTime() - s.updateNanos) / 1e9);
+
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		Files.write(temporaryFile.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private String tierLabel(String tier) {
+		return "{scenario=\"" + escape(scenario) + "\",tier=\"" + tier + "\"}";
+	}
+
+	private static void appendMetric(StringBuilder text, String name, String type, String help, String label, double value) {
+		appendHeader(text, name, type, help);
+		appendSample(text, name, label, value);
+	}
+
+	private static void appendHeader(StringBuilder text, String name, String type, String help) {
+		text.append("# HELP edgecloudsim_").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE edgecloudsim_").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void appendSample(StringBuilder text, String name, String label, double value) {
+		text.append("edgecloudsim_").append(name).append(label).append(' ');
+		if(value == Math.rint(value) && Math.abs(value) < 1e15)
+			text.append((long)value);
+		else
+			text.append(String.format(Locale.ROOT, "%.6g", value));
+		text.append('\n');
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	@Override
+	public String getScenario() {
+		return scenario;
+	}
+
+	@Override
+	public double getSimulatedTime() {
+		return snapshot.simulatedTime;
+	}
+
+	@Override
+	public double getSimulationTime() {
+		return simulationTime;
+	}
+
+	@Override
+	public double getWallTime() {
+		return (System.nanoTime() - startNanos) / 1e9;
+	}
+
+	@Override
+	public double getSimulationSpeed() {
+		return snapshot.simulationSpeed;
+	}
+
+	@Override
+	public long getNumOfEvents() {
+		return snapshot.numOfEvents;
+	}
+
+	@Override
+	public double getEventsPerSecond() {
+		return snapshot.eventsPerSecond;
+	}
+
+	@Override
+	public int getNumOfInFlightTasks() {
+		return snapshot.numOfInFlightTasks;
+	}
+
+	@Override
+	public double getEdgeUtilization() {
+		return snapshot.edgeUtilization;
+	}
+
+	@Override
+	public double getCloudUtilization() {
+		return snapshot.cloudUtilization;
+	}
+
+	@Override
+	public double getMobileUtilization() {
+		return snapshot.mobileUtilization;
+	}
+
+	@Override
+	public Map<String, Integer> getNumOfFinishedTasks() {
+		Snapshot s = snapshot;
+		Map<String, Integer> result = new LinkedHashMap<String, Integer>();
+		for(int i=0; i<FINISHED_STATUSES.length; i++)
+			result.put(FINISHED_STATUSES[i].name(), s.numOfFinishedTasks[i]);
+		return result;
+	}
+
+	@Override
+	public long getHeapUsed() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	@Override
+	public long getHeapMax() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+	}
+
+	@Override
+	public double getSecondsSinceLastUpdate() {
+		return (System.nanoTime() - snapshot.updateNanos) / 1e9;
+	}
+}
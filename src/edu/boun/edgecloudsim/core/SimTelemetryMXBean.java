@@ -0,0 +1,57 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Telemetry MXBean
+ *
+ * Description:
+ * SimTelemetryMXBean is the JMX interface of SimTelemetry. The values are
+ * published by the simulation thread while the scenario runs, the heap
+ * usage and the age of the values are read when they are requested.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.util.Map;
+
+public interface SimTelemetryMXBean {
+	String getScenario();
+
+	/** returns the simulated time in seconds */
+	double getSimulatedTime();
+
+	/** returns the simulation time of the scenario in seconds */
+	double getSimulationTime();
+
+	/** returns the wall clock time since the scenario started in seconds */
+	double getWallTime();
+
+	/** returns the simulated seconds per wall clock second since the previous update */
+	double getSimulationSpeed();
+
+	long getNumOfEvents();
+
+	/** returns the CloudSim events processed per wall clock second since the previous update */
+	double getEventsPerSecond();
+
+	int getNumOfInFlightTasks();
+
+	/** returns the average utilization (%) of the edge VMs in the last load sample */
+	double getEdgeUtilization();
+
+	/** returns the average utilization (%) of the cloud VMs in the last load sample */
+	double getCloudUtilization();
+
+	/** returns the average utilization (%) of the mobile VMs in the last load sample */
+	double getMobileUtilization();
+
+	/** returns the number of the tasks finished after the warm up period by their status */
+	Map<String, Integer> getNumOfFinishedTasks();
+
+	long getHeapUsed();
+
+	long getHeapMax();
+
+	/** returns the wall clock time since the values are published in seconds, it grows if the simulation stalls */
+	double getSecondsSinceLastUpdate();
+}
@@ -0,0 +1,78 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Class Loader
+ *
+ * Description:
+ * CloudSim and EdgeCloudSim keep the simulation state in static fields
+ * (CloudSim clock and future queue, SimManager, SimLogger, SimSettings,
+ * random number generators, created VM counters etc.) Two simulations
+ * cannot share these classes. SimulationClassLoader loads the simulator
+ * classes child-first, so each loader owns a private copy of the whole
+ * static state. Third party libraries and JDK classes are still shared.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimulationClassLoader extends URLClassLoader {
+	private static final String[] ISOLATED_PACKAGES = {
+			"edu.boun.edgecloudsim.",
+			"org.cloudbus.cloudsim."
+	};
+
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	public SimulationClassLoader(URL[] urls, ClassLoader parent) {
+		super(urls, parent);
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if(!isIsolated(name))
+			return super.loadClass(name, resolve);
+
+		synchronized (getClassLoadingLock(name)) {
+			Class<?> c = findLoadedClass(name);
+			if(c == null) {
+				try {
+					c = findClass(name);
+				} catch (ClassNotFoundException e) {
+					c = super.loadClass(name, false);
+				}
+			}
+			if(resolve)
+				resolveClass(c);
+			return c;
+		}
+	}
+
+	private static boolean isIsolated(String name) {
+		for(String prefix : ISOLATED_PACKAGES) {
+			if(name.startsWith(prefix))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * returns the entries of the application class path as URLs
+	 */
+	public static URL[] getApplicationClassPath() throws MalformedURLException {
+		List<URL> urls = new ArrayList<URL>();
+		for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if(!entry.isEmpty())
+				urls.add(new File(entry).toURI().toURL());
+		}
+		return urls.toArray(new URL[urls.size()]);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Context
+ *
+ * Description:
+ * SimulationContext keeps the settings, logger, models and managers
+ * of a single simulation run. It is created before the scenario factory
+ * and passed to the components created by the factory, so that the hot
+ * code paths reach the other components through plain field accesses
+ * instead of the global SimManager/SimLogger/SimSettings singletons.
+ *
+ * The models and managers are registered by SimManager while they are
+ * created; a component should not access another one in its constructor.
+ * The random streams of the run are created with the context, so the
+ * components can take their streams in their constructors.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
+import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
+import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
+import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
+import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
+import edu.boun.edgecloudsim.mobility.MobilityModel;
+import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SimulationContext {
+	private final SimSettings settings;
+	private final SimLogger logger;
+	private final RandomStreams randomStreams;
+
+	private SimManager simManager;
+	private LoadGeneratorModel loadGeneratorModel;
+	private MobilityModel mobilityModel;
+	private NetworkModel networkModel;
+	private EdgeOrchestrator edgeOrchestrator;
+	private EdgeServerManager edgeServerManager;
+	private CloudServerManager cloudServerManager;
+	private MobileServerManager mobileServerManager;
+	private MobileDeviceManager mobileDeviceManager;
+
+	public SimulationContext(SimSettings _settings, SimLogger _logger) {
+		this(_settings, _logger, new RandomStreams(_settings.getRandomSeed()));
+	}
+
+	public SimulationContext(SimSettings _settings, SimLogger _logger, RandomStreams _randomStreams) {
+		settings = _settings;
+		logger = _logger;
+		randomStreams = _randomStreams;
+	}
+
+	public SimSettings getSettings() {
+		return settings;
+	}
+
+	public SimLogger getLogger() {
+		return logger;
+	}
+
+	public RandomStreams getRandomStreams() {
+		return randomStreams;
+	}
+
+	public SimManager getSimManager() {
+		return simManager;
+	}
+
+	public LoadGeneratorModel getLoadGeneratorModel() {
+		return loadGeneratorModel;
+	}
+
+	public MobilityModel getMobilityModel() {
+		return mobilityModel;
+	}
+
+	public NetworkModel getNetworkModel() {
+		return networkModel;
+	}
+
+	public EdgeOrchestrator getEdgeOrchestrator() {
+		return edgeOrchestrator;
+	}
+
+	public EdgeServerManager getEdgeServerManager() {
+		return edgeServerManager;
+	}
+
+	public CloudServerManager getCloudServerManager() {
+		return cloudServerManager;
+	}
+
+	public MobileServerManager getMobileServerManager() {
+		return mobileServerManager;
+	}
+
+	public MobileDeviceManager getMobileDeviceManager() {
+		return mobileDeviceManager;
+	}
+
+	void setSimManager(SimManager _simManager) {
+		simManager = _simManager;
+	}
+
+	void setLoadGeneratorModel(LoadGeneratorModel _loadGeneratorModel) {
+		loadGeneratorModel = _loadGeneratorModel;
+	}
+
+	void setMobilityModel(MobilityModel _mobilityModel) {
+		mobilityModel = _mobilityModel;
+	}
+
+	void setNetworkModel(NetworkModel _networkModel) {
+		networkModel = _networkModel;
+	}
+
+	void setEdgeOrchestrator(EdgeOrchestrator _edgeOrchestrator) {
+		edgeOrchestrator = _edgeOrchestrator;
+	}
+
+	void setEdgeServerManager(EdgeServerManager _edgeServerManager) {
+		edgeServerManager = _edgeServerManager;
+	}
+
+	void setCloudServerManager(CloudServerManager _cloudServerManager) {
+		cloudServerManager = _cloudServerManager;
+	}
+
+	void setMobileServerManager(MobileServerManager _mobileServerManager) {
+		mobileServerManager = _mobileServerManager;
+	}
+
+	void setMobileDeviceManager(MobileDeviceManager _mobileDeviceManager) {
+		mobileDeviceManager = _mobileDeviceManager;
+	}
+}
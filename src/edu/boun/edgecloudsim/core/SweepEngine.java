@@ -0,0 +1,177 @@
+/*
+ * Title:        EdgeCloudSim - Sweep Engine
+ *
+ * Description:
+ * SweepEngine executes the independent (iteration, number of devices,
+ * scenario, orchestrator policy) cells of a simulation sweep on a fixed
+ * number of worker threads. Each worker owns a SimulationClassLoader,
+ * so the static simulation state of CloudSim and EdgeCloudSim is isolated
+ * per worker and the cells assigned to a worker are executed one by one.
+ *
+ * When more than one worker is used, console output of each cell is
+ * written to a log file in the output folder of that cell.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SweepEngine {
+	private static final String RUNNER_CLASS = "edu.boun.edgecloudsim.core.ScenarioRunner";
+
+	public static class SweepCell {
+		private final int iterationNumber;
+		private final int numOfMobileDevice;
+		private final String simScenario;
+		private final OrchestratorPolicy orchestratorPolicy;
+		private final String outputFolder;
+
+		public SweepCell(int _iterationNumber, int _numOfMobileDevice, String _simScenario,
+				OrchestratorPolicy _orchestratorPolicy, String _outputFolder) {
+			iterationNumber = _iterationNumber;
+			numOfMobileDevice = _numOfMobileDevice;
+			simScenario = _simScenario;
+			orchestratorPolicy = _orchestratorPolicy;
+			outputFolder = _outputFolder;
+		}
+
+		public int getIterationNumber() {
+			return iterationNumber;
+		}
+
+		public int getNumOfMobileDevice() {
+			return numOfMobileDevice;
+		}
+
+		public String getSimScenario() {
+			return simScenario;
+		}
+
+		public OrchestratorPolicy getOrchestratorPolicy() {
+			return orchestratorPolicy;
+		}
+
+		public String getOutputFolder() {
+			return outputFolder;
+		}
+
+		public String getFilePrefix() {
+			return ScenarioRunner.getFilePrefix(simScenario, orchestratorPolicy.name(), numOfMobileDevice);
+		}
+
+		@Override
+		public String toString() {
+			return "Scenario: " + simScenario + " - Policy: " + orchestratorPolicy +
+					" - #iteration: " + iterationNumber + " - #devices: " + numOfMobileDevice;
+		}
+	}
+
+	private final int workerCount;
+	private final String[] settingFiles;
+	private final URL[] classPath;
+	private final ThreadLocal<Method> runner = new ThreadLocal<Method>();
+
+	/**
+	 * settingFiles are the configuration, edge devices, applications and
+	 * road nodes files respectively
+	 */
+	public SweepEngine(int _workerCount, String[] _settingFiles) throws Exception {
+		workerCount = Math.max(1, _workerCount);
+		settingFiles = _settingFiles.clone();
+		classPath = SimulationClassLoader.getApplicationClassPath();
+	}
+
+	public int getWorkerCount() {
+		return workerCount;
+	}
+
+	/**
+	 * executes all cells and waits until they are finished,
+	 * the first failure of a cell is thrown after the remaining cells are cancelled
+	 */
+	public void run(List<SweepCell> cells) throws Exception {
+		for(SweepCell cell : cells)
+			new File(cell.getOutputFolder()).mkdirs();
+
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(workerCount, r -> {
+			Thread t = new Thread(r, "SweepWorker-" + threadCounter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		try {
+			for(SweepCell cell : cells)
+				futures.add(executor.submit(() -> { runCell(cell); return null; }));
+
+			for(Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof Exception)
+						throw (Exception)cause;
+					throw new RuntimeException(cause);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void runCell(SweepCell cell) throws Exception {
+		PrintStream console = System.out;
+		if(workerCount > 1)
+			console = new PrintStream(new FileOutputStream(new File(cell.getOutputFolder(), cell.getFilePrefix() + "_CONSOLE.log")), true);
+
+		try {
+			getRunner().invoke(null, settingFiles, cell.getOutputFolder(), cell.getIterationNumber(),
+					cell.getNumOfMobileDevice(), cell.getSimScenario(), cell.getOrchestratorPolicy().name(), console);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if(cause != null)
+				cause.printStackTrace(console);
+			throw new IllegalStateException(cell + " cannot be completed", cause);
+		} finally {
+			if(console != System.out)
+				console.close();
+		}
+
+		if(workerCount > 1)
+			SimLogger.printLine(Thread.currentThread().getName() + " finished " + cell);
+	}
+
+	/**
+	 * returns the entry point of the scenario runner loaded by
+	 * the isolated class loader of the current worker
+	 */
+	private Method getRunner() throws Exception {
+		Method method = runner.get();
+		if(method == null) {
+			ClassLoader loader = new SimulationClassLoader(classPath, SweepEngine.class.getClassLoader());
+			Thread.currentThread().setContextClassLoader(loader);
+			method = Class.forName(RUNNER_CLASS, true, loader).getMethod("run",
+					String[].class, String.class, int.class, int.class, String.class, String.class, PrintStream.class);
+			runner.set(method);
+		}
+		return method;
+	}
+}
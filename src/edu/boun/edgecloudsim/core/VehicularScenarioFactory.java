@@ -10,6 +10,8 @@
 
 package edu.boun.edgecloudsim.core;
 
+import java.io.File;
+
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.cloud_server.DefaultCloudServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
@@ -25,60 +27,82 @@ import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.network.SampleNetworkModel;
 import edu.boun.edgecloudsim.task_generator.IdleActiveLoadGenerator;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
+import edu.boun.edgecloudsim.task_generator.TraceLoadGenerator;
 
 public class VehicularScenarioFactory implements ScenarioFactory {
 	private int numOfMobileDevice;
+	private int iterationNumber;
 	private double simulationTime;
 	private String simScenario;
 	private final OrchestratorPolicy orchestratorPolicy;
+	private final SimulationContext context;
 
 	public VehicularScenarioFactory(int _numOfMobileDevice,
+                                    int _iterationNumber,
                                     double _simulationTime,
-                                    String _simScenario, OrchestratorPolicy orchestratorPolicy){
+                                    String _simScenario, OrchestratorPolicy orchestratorPolicy,
+                                    SimulationContext context){
 		numOfMobileDevice = _numOfMobileDevice;
+		iterationNumber = _iterationNumber;
 		simulationTime = _simulationTime;
 		simScenario = _simScenario;
         this.orchestratorPolicy = orchestratorPolicy;
+        this.context = context;
     }
 	
 	@Override
 	public LoadGeneratorModel getLoadGeneratorModel() {
-		return new IdleActiveLoadGenerator(numOfMobileDevice, simulationTime, simScenario);
+		LoadGeneratorModel loadGeneratorModel = new IdleActiveLoadGenerator(numOfMobileDevice, simulationTime, simScenario, context);
+		String traceFolder = context.getSettings().getTaskTraceFolder();
+		if(traceFolder.isEmpty())
+			return loadGeneratorModel;
+
+		//the scenarios and policies of an iteration share the same workload, as the random streams do;
+		//the trace is also named by the number of applications and the simulation time, so a trace of
+		//other settings is not replayed; the seed is a part of the name only if it is fixed, a time
+		//based seed would never hit the trace
+		String traceName = "TASK_TRACE_" + numOfMobileDevice + "DEVICES_" +
+				context.getSettings().getTaskLookUpTable().length + "APPS_" +
+				(long)simulationTime + "SEC_ITE" + iterationNumber;
+		if(context.getSettings().getRandomSeedFixed())
+			traceName += "_SEED" + context.getSettings().getRandomSeed();
+		File traceFile = new File(traceFolder, traceName + ".bin");
+		return new TraceLoadGenerator(numOfMobileDevice, simulationTime, simScenario, traceFile, loadGeneratorModel, context);
 	}
 
 	@Override
 	public EdgeOrchestrator getEdgeOrchestrator() {
 		return switch (orchestratorPolicy) {
-			case RANDOM -> new RandomEdgeOrchestrator(orchestratorPolicy, simScenario);
-			case VISIT_COUNT_BASED -> new VisitCountBasedRandomEdgeOrchestrator(orchestratorPolicy, simScenario);
-			case TIME_BASED -> new TimeBasedEdgeOrchestrator(orchestratorPolicy, simScenario);
-			case UTILIZATION_BASED -> new UtilizationEdgeOrchestrator(orchestratorPolicy, simScenario);
+			case RANDOM -> new RandomEdgeOrchestrator(orchestratorPolicy, simScenario, context);
+			case VISIT_COUNT_BASED -> new VisitCountBasedRandomEdgeOrchestrator(orchestratorPolicy, simScenario, context);
+			case TIME_BASED -> new TimeBasedEdgeOrchestrator(orchestratorPolicy, simScenario, context);
+			case UTILIZATION_BASED -> new UtilizationEdgeOrchestrator(orchestratorPolicy, simScenario, context);
 		};
 	}
 
 	@Override
 	public MobilityModel getMobilityModel() {
-		return new VehicularMobility(numOfMobileDevice,simulationTime);
+		return new VehicularMobility(numOfMobileDevice,simulationTime, context);
 	}
 
 	@Override
 	public NetworkModel getNetworkModel() {
-		return new SampleNetworkModel(numOfMobileDevice, simScenario);
+		return new SampleNetworkModel(numOfMobileDevice, simScenario, context);
 	}
 
 	@Override
 	public EdgeServerManager getEdgeServerManager() {
-		return new DefaultEdgeServerManager();
+		return new DefaultEdgeServerManager(context);
 	}
 
 	@Override
 	public CloudServerManager getCloudServerManager() {
-		return new DefaultCloudServerManager();
+		return new DefaultCloudServerManager(context);
 	}
 	
 	@Override
 	public MobileDeviceManager getMobileDeviceManager() throws Exception {
-		return new SampleMobileDeviceManager();
+		return new SampleMobileDeviceManager(context);
 	}
 
 	@Override
@@ -23,8 +23,14 @@ import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class CpuUtilizationModel_Custom implements UtilizationModel {
 	private Task task;
+	private double[][] taskLookUpTable;
 	
 	public CpuUtilizationModel_Custom(){
+		this(SimSettings.getInstance());
+	}
+	
+	public CpuUtilizationModel_Custom(SimSettings settings){
+		taskLookUpTable = settings.getTaskLookUpTable();
 	}
 	
 	/*
@@ -39,7 +45,7 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 		else if(task.getAssociatedDatacenterId() == SimSettings.MOBILE_DATACENTER_ID)
 			index = 11;
 
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return taskLookUpTable[task.getTaskType()][index];
 	}
 	
 	public void setTask(Task _task){
@@ -58,6 +64,6 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 			SimLogger.printLine("Unknown VM Type! Terminating simulation...");
 			System.exit(1);
 		}
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return taskLookUpTable[task.getTaskType()][index];
 	}
 }
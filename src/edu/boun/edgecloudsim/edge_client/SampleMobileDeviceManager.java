@@ -18,6 +18,10 @@
  * they access the edge server via two hops where the packets
  * must go through WLAN and MAN.
  * 
+ * If the flow level network of the SampleNetworkModel is enabled,
+ * the WLAN and WAN transfers are started as flows and their delays
+ * are logged when they finish.
+ * 
  * If you want to use different topology, you should modify
  * the flow implemented in this class.
  * 
@@ -27,13 +31,15 @@
 
 package edu.boun.edgecloudsim.edge_client;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
 import edu.boun.edgecloudsim.edge_server.EdgeHost;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
-import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.mobility.MobilityModel;
+import edu.boun.edgecloudsim.network.FlowNetwork;
 import edu.boun.edgecloudsim.network.SampleNetworkModel;
+import edu.boun.edgecloudsim.utils.EventProfiler;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.TaskProperty;
@@ -57,18 +63,32 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 
 	private static final double MM1_QUEUE_MODEL_UPDATE_INTEVAL = 5; //seconds
 	
+	//the sections of the event profiler are indexed by (tag - UPDATE_MM1_QUEUE_MODEL)
+	private static final int[] PROFILED_EVENTS = EventProfiler.registerEvents("SampleMobileDeviceManager",
+			"UPDATE_MM1_QUEUE_MODEL", "REQUEST_RECEIVED_BY_CLOUD", "REQUEST_RECEIVED_BY_EDGE_DEVICE",
+			"REQUEST_RECEIVED_BY_REMOTE_EDGE_DEVICE", "REQUEST_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_NEIGHBOR",
+			"RESPONSE_RECEIVED_BY_MOBILE_DEVICE", "RESPONSE_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_MOBILE_DEVICE");
+	private static final int CLOUDLET_RETURN_EVENT = EventProfiler.registerSection("SampleMobileDeviceManager.CLOUDLET_RETURN");
+	
 	private int taskIdCounter=0;
+	private final SimulationContext context;
+	private final SimLogger logger;
+	private FlowNetwork flowNetwork; //null if the flow level network is disabled
 	
-	public SampleMobileDeviceManager() throws Exception{
+	public SampleMobileDeviceManager(SimulationContext _context) throws Exception{
+		context = _context;
+		logger = context.getLogger();
 	}
 
 	@Override
 	public void initialize() {
+		if(context.getNetworkModel() instanceof SampleNetworkModel)
+			flowNetwork = ((SampleNetworkModel)context.getNetworkModel()).getFlowNetwork();
 	}
 	
 	@Override
 	public UtilizationModel getCpuUtilizationModel() {
-		return new CpuUtilizationModel_Custom();
+		return new CpuUtilizationModel_Custom(context.getSettings());
 	}
 	
 	@Override
@@ -96,41 +116,43 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 	 * @post $none
 	 */
 	protected void processCloudletReturn(SimEvent ev) {
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
+		EventProfiler.begin();
 		Task task = (Task) ev.getData();
 		
-		SimLogger.getInstance().taskExecuted(task.getCloudletId());
+		logger.taskExecuted(task.getCloudletId());
 
-		if(task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID){
+		if(flowNetwork != null && task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID){
+			startDownloadFlow(task, SimSettings.CLOUD_DATACENTER_ID);
+		}
+		else if(task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID){
 			//SimLogger.printLine(CloudSim.clock() + ": " + getName() + ": task #" + task.getCloudletId() + " received from cloud");
-			double WanDelay = networkModel.getDownloadDelay(SimSettings.CLOUD_DATACENTER_ID, task.getMobileDeviceId(), task);
+			double WanDelay = getDownloadDelay(SimSettings.CLOUD_DATACENTER_ID, task.getMobileDeviceId(), task);
 			if(WanDelay > 0)
 			{
-				Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+WanDelay);
-				if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+				int submittedWlanId = task.getSubmittedLocation().getServingWlanId();
+				if(isOnWlan(task.getMobileDeviceId(), submittedWlanId, CloudSim.clock()+WanDelay))
 				{
-					networkModel.downloadStarted(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
-					SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), WanDelay, NETWORK_DELAY_TYPES.WAN_DELAY);
+					downloadStarted(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
+					logger.setDownloadDelay(task.getCloudletId(), WanDelay, NETWORK_DELAY_TYPES.WAN_DELAY);
 					schedule(getId(), WanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
 				}
 				else
 				{
-					SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+					logger.failedDueToMobility(task.getCloudletId(), CloudSim.clock());
 				}
 			}
 			else
 			{
-				SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WAN_DELAY);
+				logger.failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WAN_DELAY);
 			}
 		}
 		else{
 			int nextEvent = RESPONSE_RECEIVED_BY_MOBILE_DEVICE;
 			int nextDeviceForNetworkModel = SimSettings.GENERIC_EDGE_DEVICE_ID;
 			NETWORK_DELAY_TYPES delayType = NETWORK_DELAY_TYPES.WLAN_DELAY;
-			double delay = networkModel.getDownloadDelay(task.getAssociatedHostId(), task.getMobileDeviceId(), task);
+			double delay = 0;
 			
-			EdgeHost host = (EdgeHost)(SimManager.
-					getInstance().
+			EdgeHost host = (EdgeHost)(context.
 					getEdgeServerManager().
 					getDatacenterList().get(task.getAssociatedHostId()).
 					getHostList().get(0));
@@ -138,32 +160,41 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 			//if neighbor edge device is selected
 			if(host.getLocation().getServingWlanId() != task.getSubmittedLocation().getServingWlanId())
 			{
-				delay = networkModel.getDownloadDelay(SimSettings.GENERIC_EDGE_DEVICE_ID, SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+				delay = getDownloadDelay(SimSettings.GENERIC_EDGE_DEVICE_ID, SimSettings.GENERIC_EDGE_DEVICE_ID, task);
 				nextEvent = RESPONSE_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_MOBILE_DEVICE;
 				nextDeviceForNetworkModel = SimSettings.GENERIC_EDGE_DEVICE_ID + 1;
 				delayType = NETWORK_DELAY_TYPES.MAN_DELAY;
 			}
+			else if(flowNetwork == null)
+			{
+				delay = getDownloadDelay(task.getAssociatedHostId(), task.getMobileDeviceId(), task);
+			}
 			
-			if(delay > 0)
+			if(flowNetwork != null && nextEvent == RESPONSE_RECEIVED_BY_MOBILE_DEVICE)
+			{
+				startDownloadFlow(task, SimSettings.GENERIC_EDGE_DEVICE_ID);
+			}
+			else if(delay > 0)
 			{
-				Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+delay);
-				if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+				int submittedWlanId = task.getSubmittedLocation().getServingWlanId();
+				if(isOnWlan(task.getMobileDeviceId(), submittedWlanId, CloudSim.clock()+delay))
 				{
-					networkModel.downloadStarted(currentLocation, nextDeviceForNetworkModel);
-					SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), delay, delayType);
+					downloadStarted(task.getSubmittedLocation(), nextDeviceForNetworkModel);
+					logger.setDownloadDelay(task.getCloudletId(), delay, delayType);
 					
 					schedule(getId(), delay, nextEvent, task);
 				}
 				else
 				{
-					SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+					logger.failedDueToMobility(task.getCloudletId(), CloudSim.clock());
 				}
 			}
 			else
 			{
-				SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), delayType);
+				logger.failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), delayType);
 			}
 		}
+		EventProfiler.end(CLOUDLET_RETURN_EVENT);
 	}
 	
 	protected void processOtherEvent(SimEvent ev) {
@@ -173,12 +204,11 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 			return;
 		}
 		
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
-		
+		EventProfiler.begin();
 		switch (ev.getTag()) {
 			case UPDATE_MM1_QUEUE_MODEL:
 			{
-				((SampleNetworkModel)networkModel).updateMM1QueeuModel();
+				updateMM1QueueModel();
 				schedule(getId(), MM1_QUEUE_MODEL_UPDATE_INTEVAL, UPDATE_MM1_QUEUE_MODEL);
 	
 				break;
@@ -186,21 +216,23 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 			case REQUEST_RECEIVED_BY_CLOUD:
 			{
 				Task task = (Task) ev.getData();
-				networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
+				uploadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
+				logFlowDelay(task, true, NETWORK_DELAY_TYPES.WAN_DELAY);
 				submitTaskToVm(task, SimSettings.VM_TYPES.CLOUD_VM);
 				break;
 			}
 			case REQUEST_RECEIVED_BY_EDGE_DEVICE:
 			{
 				Task task = (Task) ev.getData();
-				networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+				uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+				logFlowDelay(task, true, NETWORK_DELAY_TYPES.WLAN_DELAY);
 				submitTaskToVm(task, SimSettings.VM_TYPES.EDGE_VM);
 				break;
 			}
 			case REQUEST_RECEIVED_BY_REMOTE_EDGE_DEVICE:
 			{
 				Task task = (Task) ev.getData();
-				networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
+				uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
 				submitTaskToVm(task, SimSettings.VM_TYPES.EDGE_VM);
 				
 				break;
@@ -208,18 +240,19 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 			case REQUEST_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_NEIGHBOR:
 			{
 				Task task = (Task) ev.getData();
-				networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+				uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+				logFlowDelay(task, true, NETWORK_DELAY_TYPES.WLAN_DELAY);
 				
-				double manDelay =  networkModel.getUploadDelay(SimSettings.GENERIC_EDGE_DEVICE_ID, SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+				double manDelay =  getUploadDelay(SimSettings.GENERIC_EDGE_DEVICE_ID, SimSettings.GENERIC_EDGE_DEVICE_ID, task);
 				if(manDelay>0){
-					networkModel.uploadStarted(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
-					SimLogger.getInstance().setUploadDelay(task.getCloudletId(), manDelay, NETWORK_DELAY_TYPES.MAN_DELAY);
+					uploadStarted(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
+					logger.setUploadDelay(task.getCloudletId(), manDelay, NETWORK_DELAY_TYPES.MAN_DELAY);
 					schedule(getId(), manDelay, REQUEST_RECEIVED_BY_REMOTE_EDGE_DEVICE, task);
 				}
 				else
 				{
 					//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
-					SimLogger.getInstance().rejectedDueToBandwidth(
+					logger.rejectedDueToBandwidth(
 							task.getCloudletId(),
 							CloudSim.clock(),
 							SimSettings.VM_TYPES.EDGE_VM.ordinal(),
@@ -231,28 +264,33 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 			case RESPONSE_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_MOBILE_DEVICE:
 			{
 				Task task = (Task) ev.getData();
-				networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
+				downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID+1);
 				
 				//SimLogger.printLine(CloudSim.clock() + ": " + getName() + ": task #" + task.getCloudletId() + " received from edge");
-				double delay = networkModel.getDownloadDelay(task.getAssociatedHostId(), task.getMobileDeviceId(), task);
+				if(flowNetwork != null)
+				{
+					startDownloadFlow(task, SimSettings.GENERIC_EDGE_DEVICE_ID);
+					break;
+				}
 				
+				double delay = getDownloadDelay(task.getAssociatedHostId(), task.getMobileDeviceId(), task);
 				if(delay > 0)
 				{
-					Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+delay);
-					if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+					int submittedWlanId = task.getSubmittedLocation().getServingWlanId();
+					if(isOnWlan(task.getMobileDeviceId(), submittedWlanId, CloudSim.clock()+delay))
 					{
-						networkModel.downloadStarted(currentLocation, SimSettings.GENERIC_EDGE_DEVICE_ID);
-						SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), delay, NETWORK_DELAY_TYPES.WLAN_DELAY);
+						downloadStarted(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+						logger.setDownloadDelay(task.getCloudletId(), delay, NETWORK_DELAY_TYPES.WLAN_DELAY);
 						schedule(getId(), delay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
 					}
 					else
 					{
-						SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+						logger.failedDueToMobility(task.getCloudletId(), CloudSim.clock());
 					}
 				}
 				else
 				{
-					SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WLAN_DELAY);
+					logger.failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WLAN_DELAY);
 				}
 				
 				break;
@@ -262,11 +300,24 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 				Task task = (Task) ev.getData();
 				
 				if(task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID)
-					networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
+					downloadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
 				else
-					networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+					downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
 				
-				SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
+				//the flows are not stopped when the device leaves the access point, it is checked when the response arrives
+				if(flowNetwork != null && !isOnWlan(task.getMobileDeviceId(), task.getSubmittedLocation().getServingWlanId(), CloudSim.clock()))
+				{
+					logger.failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+				}
+				else
+				{
+					if(task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID)
+						logFlowDelay(task, false, NETWORK_DELAY_TYPES.WAN_DELAY);
+					else
+						logFlowDelay(task, false, NETWORK_DELAY_TYPES.WLAN_DELAY);
+					
+					logger.taskEnded(task.getCloudletId(), CloudSim.clock());
+				}
 				break;
 			}
 			default:
@@ -274,6 +325,7 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 				System.exit(0);
 				break;
 		}
+		EventProfiler.end(PROFILED_EVENTS, ev.getTag() - UPDATE_MM1_QUEUE_MODEL);
 	}
 
 	public void submitTask(TaskProperty edgeTask) {
@@ -283,45 +335,49 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 		NETWORK_DELAY_TYPES delayType;
 		double delay=0;
 		
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
-		
 		//create a task
 		Task task = createTask(edgeTask);
 		
-		Location currentLocation = SimManager.getInstance().getMobilityModel().
-				getLocation(task.getMobileDeviceId(), CloudSim.clock());
+		Location currentLocation = getLocation(task.getMobileDeviceId(), CloudSim.clock());
 		
 		//set location of the mobile device which generates this task
 		task.setSubmittedLocation(currentLocation);
 
 		//add related task to log list
-		SimLogger.getInstance().addLog(task.getMobileDeviceId(),
+		logger.addLog(task.getMobileDeviceId(),
 				task.getCloudletId(),
 				task.getTaskType(),
 				(int)task.getCloudletLength(),
 				(int)task.getCloudletFileSize(),
 				(int)task.getCloudletOutputSize());
 
-		int nextHopId = SimManager.getInstance().getEdgeOrchestrator().getDeviceToOffload(task);
+		if(currentLocation.getServingWlanId() == MobilityModel.NO_WLAN){
+			logger.rejectedDueToWlanCoverage(task.getCloudletId(), CloudSim.clock(), SimSettings.VM_TYPES.EDGE_VM.ordinal());
+			return;
+		}
+
+		int nextHopId = getDeviceToOffload(task);
 		
 		if(nextHopId == SimSettings.CLOUD_DATACENTER_ID){
-			delay = networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.CLOUD_DATACENTER_ID, task);
 			vmType = SimSettings.VM_TYPES.CLOUD_VM.ordinal();
 			nextEvent = REQUEST_RECEIVED_BY_CLOUD;
 			delayType = NETWORK_DELAY_TYPES.WAN_DELAY;
 			nextDeviceForNetworkModel = SimSettings.CLOUD_DATACENTER_ID;
 		}
 		else {
-			delay = networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
 			vmType = SimSettings.VM_TYPES.EDGE_VM.ordinal();
 			nextEvent = REQUEST_RECEIVED_BY_EDGE_DEVICE;
 			delayType = NETWORK_DELAY_TYPES.WLAN_DELAY;
 			nextDeviceForNetworkModel = SimSettings.GENERIC_EDGE_DEVICE_ID;
 		}
 		
-		if(delay>0){
+		if(flowNetwork == null)
+			delay = getUploadDelay(task.getMobileDeviceId(), nextDeviceForNetworkModel, task);
+		
+		//the flows share the bandwidth, so the tasks are not rejected due to the bandwidth in the flow level network
+		if(delay>0 || flowNetwork != null){
 			
-			Vm selectedVM = SimManager.getInstance().getEdgeOrchestrator().getVmToOffload(task, nextHopId);
+			Vm selectedVM = getVmToOffload(task, nextHopId);
 			
 			if(selectedVM != null){
 				//set related host id
@@ -345,22 +401,26 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 						nextEvent = REQUEST_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_NEIGHBOR;
 					}
 				}
-				networkModel.uploadStarted(currentLocation, nextDeviceForNetworkModel);
+				uploadStarted(currentLocation, nextDeviceForNetworkModel);
 				
-				SimLogger.getInstance().taskStarted(task.getCloudletId(), CloudSim.clock());
-				SimLogger.getInstance().setUploadDelay(task.getCloudletId(), delay, delayType);
+				logger.taskStarted(task.getCloudletId(), CloudSim.clock());
+				if(flowNetwork == null)
+					logger.setUploadDelay(task.getCloudletId(), delay, delayType);
 
-				schedule(getId(), delay, nextEvent, task);
+				if(flowNetwork != null)
+					startFlow(task, nextHopId == SimSettings.CLOUD_DATACENTER_ID, task.getCloudletFileSize(), nextEvent);
+				else
+					schedule(getId(), delay, nextEvent, task);
 			}
 			else{
 				//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
-				SimLogger.getInstance().rejectedDueToVMCapacity(task.getCloudletId(), CloudSim.clock(), vmType);
+				logger.rejectedDueToVMCapacity(task.getCloudletId(), CloudSim.clock(), vmType);
 			}
 		}
 		else
 		{
 			//SimLogger.printLine("Task #" + task.getCloudletId() + " cannot assign to any VM");
-			SimLogger.getInstance().rejectedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), vmType, delayType);
+			logger.rejectedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), vmType, delayType);
 		}
 	}
 	
@@ -368,13 +428,122 @@ public class SampleMobileDeviceManager extends MobileDeviceManager {
 		//SimLogger.printLine(CloudSim.clock() + ": Cloudlet#" + task.getCloudletId() + " is submitted to VM#" + task.getVmId());
 		schedule(getVmsToDatacentersMap().get(task.getVmId()), 0, CloudSimTags.CLOUDLET_SUBMIT, task);
 
-		SimLogger.getInstance().taskAssigned(task.getCloudletId(),
+		logger.taskAssigned(task.getCloudletId(),
 				task.getAssociatedDatacenterId(),
 				task.getAssociatedHostId(),
 				task.getAssociatedVmId(),
 				vmType.ordinal());
 	}
 	
+	/**
+	 * starts the transfer of the task over the WLAN or the WAN of the access point of the request,
+	 * the next event is sent when the transfer finishes
+	 */
+	private void startFlow(Task task, boolean overWan, double dataSize, int nextEvent) {
+		task.setTransferStartTime(CloudSim.clock());
+		EventProfiler.begin();
+		flowNetwork.startFlow(overWan, task.getSubmittedLocation().getServingWlanId(),
+				dataSize, getId(), nextEvent, task);
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
+	private void startDownloadFlow(Task task, int sourceDeviceId) {
+		downloadStarted(task.getSubmittedLocation(), sourceDeviceId);
+		startFlow(task, sourceDeviceId == SimSettings.CLOUD_DATACENTER_ID,
+				task.getCloudletOutputSize(), RESPONSE_RECEIVED_BY_MOBILE_DEVICE);
+	}
+	
+	/**
+	 * logs the duration of the finished flow of the task, does nothing if the flow level network is disabled
+	 */
+	private void logFlowDelay(Task task, boolean upload, NETWORK_DELAY_TYPES delayType) {
+		if(flowNetwork == null)
+			return;
+		
+		double delay = CloudSim.clock() - task.getTransferStartTime();
+		if(upload)
+			logger.setUploadDelay(task.getCloudletId(), delay, delayType);
+		else
+			logger.setDownloadDelay(task.getCloudletId(), delay, delayType);
+	}
+	
+	/*
+	 * the following methods call the mobility model, the orchestrator and the network
+	 * model within the related sections of the event profiler
+	 */
+	
+	private Location getLocation(int deviceId, double time) {
+		EventProfiler.begin();
+		Location location = context.getMobilityModel().getLocation(deviceId, time);
+		EventProfiler.end(EventProfiler.MOBILITY);
+		return location;
+	}
+	
+	private boolean isOnWlan(int deviceId, int wlanId, double time) {
+		EventProfiler.begin();
+		boolean onWlan = context.getMobilityModel().isOnWlan(deviceId, wlanId, time);
+		EventProfiler.end(EventProfiler.MOBILITY);
+		return onWlan;
+	}
+	
+	private int getDeviceToOffload(Task task) {
+		EventProfiler.begin();
+		int deviceId = context.getEdgeOrchestrator().getDeviceToOffload(task);
+		EventProfiler.end(EventProfiler.ORCHESTRATOR);
+		return deviceId;
+	}
+	
+	private Vm getVmToOffload(Task task, int deviceId) {
+		EventProfiler.begin();
+		Vm vm = context.getEdgeOrchestrator().getVmToOffload(task, deviceId);
+		EventProfiler.end(EventProfiler.ORCHESTRATOR);
+		return vm;
+	}
+	
+	private double getUploadDelay(int sourceDeviceId, int destDeviceId, Task task) {
+		EventProfiler.begin();
+		double delay = context.getNetworkModel().getUploadDelay(sourceDeviceId, destDeviceId, task);
+		EventProfiler.end(EventProfiler.NETWORK);
+		return delay;
+	}
+	
+	private double getDownloadDelay(int sourceDeviceId, int destDeviceId, Task task) {
+		EventProfiler.begin();
+		double delay = context.getNetworkModel().getDownloadDelay(sourceDeviceId, destDeviceId, task);
+		EventProfiler.end(EventProfiler.NETWORK);
+		return delay;
+	}
+	
+	private void uploadStarted(Location accessPointLocation, int destDeviceId) {
+		EventProfiler.begin();
+		context.getNetworkModel().uploadStarted(accessPointLocation, destDeviceId);
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
+	private void uploadFinished(Location accessPointLocation, int destDeviceId) {
+		EventProfiler.begin();
+		context.getNetworkModel().uploadFinished(accessPointLocation, destDeviceId);
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
+	private void downloadStarted(Location accessPointLocation, int sourceDeviceId) {
+		EventProfiler.begin();
+		context.getNetworkModel().downloadStarted(accessPointLocation, sourceDeviceId);
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
+	private void downloadFinished(Location accessPointLocation, int sourceDeviceId) {
+		EventProfiler.begin();
+		context.getNetworkModel().downloadFinished(accessPointLocation, sourceDeviceId);
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
+	private void updateMM1QueueModel() {
+		EventProfiler.begin();
+		((SampleNetworkModel)context.getNetworkModel()).updateMM1QueeuModel();
+		EventProfiler.end(EventProfiler.NETWORK);
+	}
+	
 	private Task createTask(TaskProperty edgeTask){
 		UtilizationModel utilizationModel = new UtilizationModelFull(); /*UtilizationModelStochastic*/
 		UtilizationModel utilizationModelCPU = getCpuUtilizationModel();
@@ -25,6 +25,7 @@ public class Task extends Cloudlet {
 	private int hostIndex;
 	private int vmIndex;
 	private int datacenterId;
+	private double transferStartTime; //start time of the last flow of the task
 
 	public Task(int _mobileDeviceId, int cloudletId, long cloudletLength, int pesNumber,
 			long cloudletFileSize, long cloudletOutputSize,
@@ -60,6 +61,10 @@ public class Task extends Cloudlet {
 		type=_type;
 	}
 
+	public void setTransferStartTime(double _transferStartTime){
+		transferStartTime=_transferStartTime;
+	}
+
 	public int getMobileDeviceId(){
 		return mobileDeviceId;
 	}
@@ -87,4 +92,8 @@ public class Task extends Cloudlet {
 	public double getCreationTime() {
 		return creationTime;
 	}
+
+	public double getTransferStartTime() {
+		return transferStartTime;
+	}
 }
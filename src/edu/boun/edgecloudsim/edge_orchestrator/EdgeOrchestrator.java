@@ -13,21 +13,38 @@
 
 package edu.boun.edgecloudsim.edge_orchestrator;
 
+import java.util.SplittableRandom;
+
 import edu.boun.edgecloudsim.core.OrchestratorPolicy;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.SimEntity;
 
+import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.VmCapacityIndex;
 
 public abstract class EdgeOrchestrator extends SimEntity{
 	protected OrchestratorPolicy policy;
 	protected String simScenario;
+	protected SimulationContext context;
+	protected SimSettings settings;
+	protected SplittableRandom random;
 	
 	public EdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario){
 		super("EdgeOrchestrator");
 		policy = _policy;
 		simScenario = _simScenario;
 	}
+	
+	public EdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario, SimulationContext _context){
+		this(_policy, _simScenario);
+		context = _context;
+		settings = context.getSettings();
+		random = context.getRandomStreams().getStream("edge_orchestrator");
+	}
 
 	/*
 	 * Default Constructor: Creates an empty EdgeOrchestrator
@@ -50,4 +67,16 @@ public abstract class EdgeOrchestrator extends SimEntity{
 	 * returns proper VM from the edge orchestrator point of view
 	 */
 	public abstract Vm getVmToOffload(Task task, int deviceId);
+
+	/*
+	 * returns the VM having the largest remaining capacity in the index
+	 * if it can serve the task, null otherwise (Least Loaded algorithm)
+	 */
+	protected Vm getLeastLoadedVm(Task task, VmCapacityIndex index) {
+		double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(index.getVmType());
+		double targetVmCapacity = index.peekCapacity();
+		if(requiredCapacity <= targetVmCapacity && targetVmCapacity > 0)
+			return index.peek();
+		return null;
+	}
 }
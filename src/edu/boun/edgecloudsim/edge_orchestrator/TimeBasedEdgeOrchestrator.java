@@ -12,21 +12,16 @@
 
 package edu.boun.edgecloudsim.edge_orchestrator;
 
-import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.OrchestratorPolicy;
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.core.SimSettings;
-import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.mobility.RoadNode;
 import edu.boun.edgecloudsim.utils.AverageAccumulator;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 
 import java.util.*;
@@ -42,15 +37,15 @@ public class TimeBasedEdgeOrchestrator extends EdgeOrchestrator {
 	private final Map<RoadNode, Double> lastVisitTimeMap = new HashMap<>();
 	private final NavigableMap<Double, Map<RoadNode, Integer>> taskProcessCountMap = new TreeMap<>();
 
-	public TimeBasedEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario) {
-		super(_policy, _simScenario);
+	public TimeBasedEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario, SimulationContext _context) {
+		super(_policy, _simScenario, _context);
 	}
 
 	@Override
 	public void initialize() {
-		numberOfHost=SimSettings.getInstance().getNumOfEdgeHosts();
+		numberOfHost=settings.getNumOfEdgeHosts();
 
-		double simulationTime = SimSettings.getInstance().getSimulationTime();
+		double simulationTime = settings.getSimulationTime();
 		int taskCountWindowCount = (int) Math.ceil(simulationTime / TASK_COUNT_WINDOW);
 		for (int i = 1; i < taskCountWindowCount+1; i++) {
 			taskProcessCountMap.put(i * TASK_COUNT_WINDOW + SimSettings.CLIENT_ACTIVITY_START_TIME, new HashMap<>());
@@ -95,7 +90,7 @@ public class TimeBasedEdgeOrchestrator extends EdgeOrchestrator {
 
 
 		if (taskCount > TASK_COUNT_THRESHOLD) {
-			int randomNumber = SimUtils.getRandomNumber(1, 100);
+			int randomNumber = SimUtils.getRandomNumber(random, 1, 100);
 			randomNumber -= - taskCount / 10;
 			if (randomNumber <= 50) {
 				return SimSettings.CLOUD_DATACENTER_ID;
@@ -111,34 +106,11 @@ public class TimeBasedEdgeOrchestrator extends EdgeOrchestrator {
 
 		if(deviceId == SimSettings.CLOUD_DATACENTER_ID){
 			//Select VM on cloud devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			List<Host> list = SimManager.getInstance().getCloudServerManager().getDatacenter().getHostList();
-			for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-				List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getCloudServerManager().getCapacityIndex());
 		}
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			for(int hostIndex=0; hostIndex<numberOfHost; hostIndex++){
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getEdgeServerManager().getCapacityIndex());
 		}
 		else{
 			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
@@ -13,21 +13,14 @@
 
 package edu.boun.edgecloudsim.edge_orchestrator;
 
-import java.util.List;
-
 import edu.boun.edgecloudsim.core.OrchestratorPolicy;
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 
-import edu.boun.edgecloudsim.cloud_server.CloudVM;
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
-import edu.boun.edgecloudsim.edge_server.EdgeVM;
-import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
@@ -35,13 +28,13 @@ public class UtilizationEdgeOrchestrator extends EdgeOrchestrator {
 	
 	private int numberOfHost; //used by load balancer
 
-	public UtilizationEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario) {
-		super(_policy, _simScenario);
+	public UtilizationEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario, SimulationContext _context) {
+		super(_policy, _simScenario, _context);
 	}
 
 	@Override
 	public void initialize() {
-		numberOfHost=SimSettings.getInstance().getNumOfEdgeHosts();
+		numberOfHost=settings.getNumOfEdgeHosts();
 	}
 
 	/*
@@ -53,7 +46,7 @@ public class UtilizationEdgeOrchestrator extends EdgeOrchestrator {
 	@Override
 	public int getDeviceToOffload(Task task) {
 		int result = 0;
-		double edgeUtilization = SimManager.getInstance().getEdgeServerManager().getAvgUtilization();
+		double edgeUtilization = context.getEdgeServerManager().getAvgUtilization();
 		if(edgeUtilization > 80)
 			result = SimSettings.CLOUD_DATACENTER_ID;
 		else
@@ -70,34 +63,11 @@ public class UtilizationEdgeOrchestrator extends EdgeOrchestrator {
 
 		if(deviceId == SimSettings.CLOUD_DATACENTER_ID){
 			//Select VM on cloud devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			List<Host> list = SimManager.getInstance().getCloudServerManager().getDatacenter().getHostList();
-			for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-				List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getCloudServerManager().getCapacityIndex());
 		}
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			for(int hostIndex=0; hostIndex<numberOfHost; hostIndex++){
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getEdgeServerManager().getCapacityIndex());
 		}
 		else{
 			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
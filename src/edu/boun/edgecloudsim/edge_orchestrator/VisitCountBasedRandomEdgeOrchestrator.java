@@ -12,24 +12,18 @@
 
 package edu.boun.edgecloudsim.edge_orchestrator;
 
-import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.OrchestratorPolicy;
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.core.SimSettings;
-import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.mobility.RoadNode;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class VisitCountBasedRandomEdgeOrchestrator extends EdgeOrchestrator {
@@ -38,13 +32,13 @@ public class VisitCountBasedRandomEdgeOrchestrator extends EdgeOrchestrator {
 	private int[] lastSelectedVmIndexes; //used by each host individually
 	private final Map<RoadNode, Integer> roadVisitCountMap = new HashMap<>();
 
-	public VisitCountBasedRandomEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario) {
-		super(_policy, _simScenario);
+	public VisitCountBasedRandomEdgeOrchestrator(OrchestratorPolicy _policy, String _simScenario, SimulationContext _context) {
+		super(_policy, _simScenario, _context);
 	}
 
 	@Override
 	public void initialize() {
-		numberOfHost=SimSettings.getInstance().getNumOfEdgeHosts();
+		numberOfHost=settings.getNumOfEdgeHosts();
 		
 		lastSelectedHostIndex = -1;
 		lastSelectedVmIndexes = new int[numberOfHost];
@@ -63,8 +57,8 @@ public class VisitCountBasedRandomEdgeOrchestrator extends EdgeOrchestrator {
         RoadNode connectedRoadNode = submittedLocation.getConnectedRoadNode();
         //decide to use cloud or Edge VM
 		int totalVisitCount = roadVisitCountMap.compute(connectedRoadNode, (k, v) -> v == null ? 1 : v + 1);
-		int CloudVmPicker = SimUtils.getRandomNumber(0, 100 - totalVisitCount / 10);
-		if(CloudVmPicker <= SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][1]) {
+		int CloudVmPicker = SimUtils.getRandomNumber(random, 0, 100 - totalVisitCount / 10);
+		if(CloudVmPicker <= settings.getTaskLookUpTable()[task.getTaskType()][1]) {
 			return SimSettings.CLOUD_DATACENTER_ID;
 		}
 
@@ -77,34 +71,11 @@ public class VisitCountBasedRandomEdgeOrchestrator extends EdgeOrchestrator {
 
 		if(deviceId == SimSettings.CLOUD_DATACENTER_ID){
 			//Select VM on cloud devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			List<Host> list = SimManager.getInstance().getCloudServerManager().getDatacenter().getHostList();
-			for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-				List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getCloudServerManager().getCapacityIndex());
 		}
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			for(int hostIndex=0; hostIndex<numberOfHost; hostIndex++){
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			selectedVM = getLeastLoadedVm(task, context.getEdgeServerManager().getCapacityIndex());
 		}
 		else{
 			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
@@ -19,7 +19,6 @@ import java.util.List;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.mobility.RoadNode;
 import edu.boun.edgecloudsim.mobility.VehicularMobility;
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -27,7 +26,6 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
@@ -36,15 +34,20 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.utils.CloudletSchedulerTimeShared_Custom;
 import edu.boun.edgecloudsim.utils.Location;
 
 public class DefaultEdgeServerManager extends EdgeServerManager{
 	private int hostIdCounter;
+	private final SimulationContext context;
+	private final SimSettings settings;
 
-	public DefaultEdgeServerManager() {
+	public DefaultEdgeServerManager(SimulationContext _context) {
 		hostIdCounter = 0;
+		context = _context;
+		settings = context.getSettings();
 	}
 
 	@Override
@@ -57,7 +60,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 	}
 	
 	public void startDatacenters() throws Exception{
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+		Document doc = settings.getEdgeDevicesDocument();
 		NodeList datacenterList = doc.getElementsByTagName("datacenter");
 		for (int i = 0; i < datacenterList.getLength(); i++) {
 			Node datacenterNode = datacenterList.item(i);
@@ -71,7 +74,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 		int vmCounter=0;
 		
 		//Create VMs for each hosts
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+		Document doc = settings.getEdgeDevicesDocument();
 		NodeList datacenterList = doc.getElementsByTagName("datacenter");
 		for (int i = 0; i < datacenterList.getLength(); i++) {
 			Node datacenterNode = datacenterList.item(i);
@@ -93,11 +96,12 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 					double mips = Double.parseDouble(vmElement.getElementsByTagName("mips").item(0).getTextContent());
 					int ram = Integer.parseInt(vmElement.getElementsByTagName("ram").item(0).getTextContent());
 					long storage = Long.parseLong(vmElement.getElementsByTagName("storage").item(0).getTextContent());
-					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
+					long bandwidth = settings.getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
 					
 					//VM Parameters		
-					EdgeVM vm = new EdgeVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+					EdgeVM vm = new EdgeVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared_Custom());
 					vmList.get(hostCounter).add(vm);
+					capacityIndex.add(vm, hostCounter, i);
 					vmCounter++;
 				}
 
@@ -114,24 +118,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 
 	//average utilization of all VMs
 	public double getAvgUtilization(){
-		double totalUtilization = 0;
-		double vmCounter = 0;
-		
-		// for each datacenter...
-		for(int i= 0; i<localDatacenters.size(); i++) {
-			List<? extends Host> list = localDatacenters.get(i).getHostList();
-			// for each host...
-			for (int j=0; j < list.size(); j++) {
-				Host host = list.get(j);
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(host.getId());
-				//for each vm...
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					totalUtilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					vmCounter++;
-				}
-			}
-		}
-		return totalUtilization / vmCounter;
+		return capacityIndex.getAvgUtilization();
 	}
 
 	private Datacenter createDatacenter(int index, Element datacenterElement) throws Exception{
@@ -174,7 +161,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 		
 		Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
 		String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
-		VehicularMobility mobilityModel = (VehicularMobility) SimManager.getInstance().getMobilityModel();
+		VehicularMobility mobilityModel = (VehicularMobility) context.getMobilityModel();
 		int wlan_id = Integer.parseInt(location.getElementsByTagName("wlan_id").item(0).getTextContent());
 		int nodeId = Integer.parseInt(location.getElementsByTagName("node_id").item(0).getTextContent());
 		RoadNode roadNodeById = mobilityModel.getRoadNodeById(nodeId);
@@ -189,7 +176,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 			double mips = Double.parseDouble(hostElement.getElementsByTagName("mips").item(0).getTextContent());
 			int ram = Integer.parseInt(hostElement.getElementsByTagName("ram").item(0).getTextContent());
 			long storage = Long.parseLong(hostElement.getElementsByTagName("storage").item(0).getTextContent());
-			long bandwidth = SimSettings.getInstance().getWlanBandwidth() / hostNodeList.getLength();
+			long bandwidth = settings.getWlanBandwidth() / hostNodeList.getLength();
 			
 			// 2. A Machine contains one or more PEs or CPUs/Cores. Therefore, should
 			//    create a list to store these PEs before creating
@@ -212,7 +199,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 					new VmSchedulerSpaceShared(peList)
 				);
 			
-			host.setPlace(new Location(placeTypeIndex, new RoadNode(0, "", 0,0, wlan_id), roadNodeById.getX(), roadNodeById.getY()));
+			host.setPlace(new Location(placeTypeIndex, new RoadNode(0, -1, "", 0,0, wlan_id), roadNodeById.getX(), roadNodeById.getY()));
 			hostList.add(host);
 			hostIdCounter++;
 		}
@@ -23,18 +23,45 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.VmCapacityIndex;
+
 public abstract class EdgeServerManager {
 	protected List<Datacenter> localDatacenters;
 	protected List<List<EdgeVM>> vmList;
+	protected VmCapacityIndex capacityIndex;
 
 	public EdgeServerManager() {
 		localDatacenters=new ArrayList<Datacenter>();
 		vmList = new ArrayList<List<EdgeVM>>();
+		capacityIndex = new VmCapacityIndex(SimSettings.VM_TYPES.EDGE_VM);
 	}
 
 	public List<EdgeVM> getVmList(int hostId){
 		return vmList.get(hostId);
 	}
+
+	/*
+	 * returns the VMs ordered by their remaining CPU capacity,
+	 * VMs must be added to this index while they are created
+	 */
+	public VmCapacityIndex getCapacityIndex(){
+		return capacityIndex;
+	}
+
+	/*
+	 * returns average utilization of the VMs on the given host
+	 */
+	public double getHostAvgUtilization(int hostIndex){
+		return capacityIndex.getHostUtilization(hostIndex) / capacityIndex.getHostNumOfVms(hostIndex);
+	}
+
+	/*
+	 * returns average utilization of the VMs in the given datacenter
+	 */
+	public double getDatacenterAvgUtilization(int datacenterIndex){
+		return capacityIndex.getDatacenterUtilization(datacenterIndex) / capacityIndex.getDatacenterNumOfVms(datacenterIndex);
+	}
 	
 	public List<Datacenter> getDatacenterList(){
 		return localDatacenters;
@@ -1,39 +1,284 @@
 package edu.boun.edgecloudsim.mobility;
 
-import java.util.*;
+import java.util.Arrays;
 
+/**
+ * Trajectory of a car as a list of waypoints. Waypoint k is the road node at index nodes[k]
+ * which is reached at times[k]; dirX[k] and dirY[k] keep the unit direction vector of the road
+ * segment from waypoint k to waypoint k+1. Lookups start from a cursor, so monotonically
+ * increasing query times are answered in O(1) and the others by a binary search.
+ * The trajectory can be extended while the simulation runs and the past waypoints
+ * can be discarded, in that case the car cannot be located before its first waypoint.
+ *
+ * The handover timeline is derived from the waypoints as they are added: the car is served by
+ * handoverWlanIds[h] from handoverTimes[h] until handoverTimes[h+1]. On each road the car is
+ * served by the WLAN of the road node it leaves until handoverAdvance seconds before the half
+ * of the road, and by the WLAN of the road node it goes to after that time. If a WLAN coverage
+ * is given, the car is served by the nearest access point within the WLAN range instead.
+ */
 public class Car {
 
     private final int id;
-    private final NavigableMap<Double, RoadNode> destinationMap = new TreeMap<>();
-    private final Map<Integer, Map<Integer, Integer>> roadVisitCount = new HashMap<>();//from -> to -> count
+    private final RoadNode[] roadNodes;
+    private double[] times = new double[16];
+    private int[] nodes = new int[16];
+    private double[] dirX = new double[16];
+    private double[] dirY = new double[16];
+    private int size = 0;
+    private int cursor = 0;
+    private boolean complete = false;
+    private final int[] visitCounts; //edge id -> count
 
+    private final double handoverAdvance;
+    private final WlanCoverage coverage;
+    private double[] handoverTimes = new double[16];
+    private int[] handoverWlanIds = new int[16];
+    private int[] handoverMarks = new int[16]; //waypoint -> number of handovers before its road
+    private int numOfHandovers = 0;
+    private int handoverCursor = 0;
 
-    public Car(int id) {
+
+    public Car(int id, RoadNode[] roadNodes, int numOfEdges, double handoverAdvance) {
+        this(id, roadNodes, numOfEdges, handoverAdvance, null);
+    }
+
+    Car(int id, RoadNode[] roadNodes, int numOfEdges, double handoverAdvance, WlanCoverage coverage) {
         this.id = id;
+        this.roadNodes = roadNodes;
+        this.visitCounts = new int[numOfEdges];
+        this.handoverAdvance = handoverAdvance;
+        this.coverage = coverage;
     }
 
+    /**
+     * adds the waypoint, time must not be less than the time of the last waypoint
+     */
     public void addDestination(double time, RoadNode destination) {
-        destinationMap.put(time, destination);
-        Map.Entry<Double, RoadNode> fromEntry = destinationMap.lowerEntry(time);
-        if (fromEntry == null)  {
+        if (size > 0 && times[size - 1] == time) {
+            //a waypoint at the same time replaces the previous one
+            size--;
+        }
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+            dirX = Arrays.copyOf(dirX, size * 2);
+            dirY = Arrays.copyOf(dirY, size * 2);
+            handoverMarks = Arrays.copyOf(handoverMarks, size * 2);
+        }
+        times[size] = time;
+        nodes[size] = destination.getIndex();
+        size++;
+        if (size == 1) {
+            handoverMarks[0] = 0;
+            numOfHandovers = 0;
+            addHandover(Double.NEGATIVE_INFINITY, getServingWlanId(destination));
+            return;
+        }
+
+        RoadNode from = roadNodes[nodes[size - 2]];
+        double distance = Math.sqrt(Math.pow(destination.getX() - from.getX(), 2) + Math.pow(destination.getY() - from.getY(), 2));
+        dirX[size - 2] = (destination.getX() - from.getX()) / distance;
+        dirY[size - 2] = (destination.getY() - from.getY()) / distance;
+
+        //the handovers after the previous waypoint were not known until this road is added
+        int road = size - 2;
+        numOfHandovers = handoverMarks[road];
+        handoverCursor = Math.min(handoverCursor, Math.max(0, numOfHandovers - 1));
+        double enterTime = road == 0 ? Double.NEGATIVE_INFINITY : times[road];
+        if (coverage != null) {
+            int count = coverage.computeHandovers(from.getX(), from.getY(), destination.getX(), destination.getY());
+            addHandover(enterTime, coverage.getHandoverWlanId(0));
+            for (int i = 1; i < count; i++) {
+                addHandover(times[road] + coverage.getHandoverFraction(i) * (time - times[road]), coverage.getHandoverWlanId(i));
+            }
+            handoverMarks[size - 1] = numOfHandovers;
+            addHandover(time, getServingWlanId(destination));
+            return;
+        }
+        double passTime = Math.nextUp(times[road] + (time - times[road]) / 2 - handoverAdvance);
+        if (enterTime >= passTime) {
+            addHandover(enterTime, destination.getServingWlanId());
+        } else {
+            addHandover(enterTime, from.getServingWlanId());
+            if (passTime < time) {
+                addHandover(passTime, destination.getServingWlanId());
+            }
+        }
+        handoverMarks[size - 1] = numOfHandovers;
+        addHandover(time, destination.getServingWlanId());
+    }
+
+    private int getServingWlanId(RoadNode node) {
+        return coverage == null ? node.getServingWlanId() : coverage.getServingWlanId(node.getX(), node.getY());
+    }
+
+    private void addHandover(double time, int wlanId) {
+        if (numOfHandovers > 0 && handoverWlanIds[numOfHandovers - 1] == wlanId) {
+            return;
+        }
+        if (numOfHandovers == handoverTimes.length) {
+            handoverTimes = Arrays.copyOf(handoverTimes, numOfHandovers * 2);
+            handoverWlanIds = Arrays.copyOf(handoverWlanIds, numOfHandovers * 2);
+        }
+        handoverTimes[numOfHandovers] = time;
+        handoverWlanIds[numOfHandovers] = wlanId;
+        numOfHandovers++;
+    }
+
+    /**
+     * adds the waypoint reached over the given edge of the road network
+     */
+    public void addDestination(double time, RoadNode destination, int edge) {
+        addDestination(time, destination);
+        visitCounts[edge]++;
+    }
+
+    /**
+     * returns the index of the last waypoint reached at the given time,
+     * the first waypoint is returned for the times before it
+     */
+    public int getWaypoint(double time) {
+        int i = cursor;
+        if (times[i] <= time) {
+            //usual case, time is increasing
+            while (i + 1 < size && times[i + 1] <= time)
+                i++;
+        } else if (i > 0 && times[i - 1] <= time) {
+            //time is slightly before the last query
+            i--;
+        } else {
+            int low = 0;
+            int high = i - 1;
+            i = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= time) {
+                    i = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+        cursor = i;
+        return i;
+    }
+
+    /**
+     * returns the index of the last handover at or before the given time
+     */
+    private int getHandover(double time) {
+        int h = handoverCursor;
+        if (handoverTimes[h] <= time) {
+            while (h + 1 < numOfHandovers && handoverTimes[h + 1] <= time)
+                h++;
+        } else {
+            int low = 0;
+            int high = h - 1;
+            h = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (handoverTimes[mid] <= time) {
+                    h = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+        handoverCursor = h;
+        return h;
+    }
+
+    /**
+     * returns the id of the WLAN serving the car at the given time,
+     * MobilityModel.NO_WLAN if the car is out of the WLAN coverage
+     */
+    public int getServingWlanId(double time) {
+        return handoverWlanIds[getHandover(time)];
+    }
+
+    /**
+     * returns the time of the first handover after the given time within the generated
+     * trajectory, Double.POSITIVE_INFINITY if there is no such handover
+     */
+    public double getNextHandoverTime(double time) {
+        int h = getHandover(time) + 1;
+        return h < numOfHandovers ? handoverTimes[h] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * discards the waypoints which are left behind before the given time,
+     * the arrays are compacted only after half of them became obsolete
+     */
+    public void discardBefore(double time) {
+        int waypoint = getWaypoint(time);
+        if (waypoint < 16 || waypoint < size / 2) {
             return;
         }
-        RoadNode from = fromEntry.getValue();
-        roadVisitCount
-                .computeIfAbsent(from.getId(), (k) -> new HashMap<>())
-                .compute(destination.getId(), (k, v) -> v == null ? 1 : v + 1);
+        size -= waypoint;
+        System.arraycopy(times, waypoint, times, 0, size);
+        System.arraycopy(nodes, waypoint, nodes, 0, size);
+        System.arraycopy(dirX, waypoint, dirX, 0, size);
+        System.arraycopy(dirY, waypoint, dirY, 0, size);
+        cursor -= waypoint;
+
+        //keep the handover which is active when the first remaining road is entered
+        int handover = Math.max(0, handoverMarks[waypoint] - 1);
+        numOfHandovers -= handover;
+        System.arraycopy(handoverTimes, handover, handoverTimes, 0, numOfHandovers);
+        System.arraycopy(handoverWlanIds, handover, handoverWlanIds, 0, numOfHandovers);
+        for (int i = 0; i < size; i++) {
+            handoverMarks[i] = handoverMarks[waypoint + i] - handover;
+        }
+        handoverCursor = Math.max(0, handoverCursor - handover);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * no more waypoints will be added after the trajectory is completed
+     */
+    public boolean isComplete() {
+        return complete;
     }
 
-    public Map.Entry<Double, RoadNode> getFrom(double time) {
-        return destinationMap.floorEntry(time);
+    public void setComplete() {
+        complete = true;
     }
-    public Map.Entry<Double, RoadNode> getDestination(double time) {
-        return destinationMap.higherEntry(time);
+
+    public double getLastTime() {
+        return times[size - 1];
+    }
+
+    public int getLastNodeIndex() {
+        return nodes[size - 1];
+    }
+
+    public int getNumOfWaypoints() {
+        return size;
+    }
+
+    public double getTime(int waypoint) {
+        return times[waypoint];
+    }
+
+    public int getNodeIndex(int waypoint) {
+        return nodes[waypoint];
+    }
+
+    public double getDirX(int waypoint) {
+        return dirX[waypoint];
+    }
+
+    public double getDirY(int waypoint) {
+        return dirY[waypoint];
     }
 
-    public int getVisitCount(int from, int to) {
-        return roadVisitCount.getOrDefault(from, Collections.emptyMap()).getOrDefault(to, 0);
+    public int getVisitCount(int edge) {
+        return visitCounts[edge];
     }
 
 
@@ -0,0 +1,13 @@
+package edu.boun.edgecloudsim.mobility;
+
+/**
+ * Receives the handovers of the devices from the mobility model as they happen.
+ */
+public interface HandoverListener {
+
+    /**
+     * called when the device starts to be served by wlanId instead of previousWlanId,
+     * the ids are MobilityModel.NO_WLAN while the device is out of the WLAN coverage
+     */
+    void handoverOccurred(int deviceId, int previousWlanId, int wlanId);
+}
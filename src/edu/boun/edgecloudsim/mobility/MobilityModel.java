@@ -13,9 +13,14 @@
 
 package edu.boun.edgecloudsim.mobility;
 
+import java.util.Arrays;
+
 import edu.boun.edgecloudsim.utils.Location;
 
 public abstract class MobilityModel {
+	//serving access point id of the devices which are out of the WLAN coverage
+	public static final int NO_WLAN = -1;
+
 	protected int numberOfMobileDevices;
 	protected double simulationTime;
 	
@@ -39,4 +44,73 @@ public abstract class MobilityModel {
 	 * returns location of a device at a certain time
 	 */
 	public abstract Location getLocation(int deviceId, double time);
+
+	/*
+	 * returns the id of the access point serving a device at a certain time,
+	 * NO_WLAN if the device is out of the WLAN coverage,
+	 * mobility models should override it to avoid creating a Location
+	 */
+	public int getServingWlanId(int deviceId, double time){
+		return getLocation(deviceId, time).getServingWlanId();
+	}
+
+	/*
+	 * returns the number of devices served by the given access point at a certain time,
+	 * mobility models should override it to avoid visiting all devices
+	 */
+	public int getNumOfDevicesOnWlan(int wlanId, double time){
+		int result = 0;
+		for(int i=0; i<numberOfMobileDevices; i++)
+			if(getServingWlanId(i, time) == wlanId)
+				result++;
+		return result;
+	}
+
+	/*
+	 * fills the number of devices served by each access point at a certain time
+	 */
+	public void getNumOfDevicesOnWlans(double time, int[] numOfDevicesOnWlan){
+		Arrays.fill(numOfDevicesOnWlan, 0);
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			int wlanId = getServingWlanId(i, time);
+			if(wlanId != NO_WLAN)
+				numOfDevicesOnWlan[wlanId]++;
+		}
+	}
+
+	/*
+	 * returns true if the device is served by the given access point at a certain time
+	 */
+	public boolean isOnWlan(int deviceId, int wlanId, double time){
+		return getServingWlanId(deviceId, time) == wlanId;
+	}
+
+	/*
+	 * returns the time of the first handover of the device after a certain time,
+	 * Double.POSITIVE_INFINITY if it is not known by the mobility model
+	 */
+	public double getNextHandoverTime(int deviceId, double time){
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/*
+	 * returns the time of the next handover among all devices which is not
+	 * processed yet, Double.POSITIVE_INFINITY if it is not known by the mobility model
+	 */
+	public double getNextHandoverTime(){
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/*
+	 * notifies the handover listener about the handovers until a certain time
+	 */
+	public void processHandovers(double time){
+	}
+
+	/*
+	 * sets the listener to be notified by processHandovers, the mobility models
+	 * which do not track the handovers ignore it
+	 */
+	public void setHandoverListener(HandoverListener listener){
+	}
 }
@@ -6,6 +6,7 @@ import java.util.Objects;
 
 public class RoadNode {
     private final int id;
+    private final int index;
     private final String name;
     private final int x;
     private final int y;
@@ -13,8 +14,9 @@ public class RoadNode {
     private final List<RoadNode> neighbours;
 
 
-    public RoadNode(int id, String name, int x, int y, int servingWlanId) {
+    public RoadNode(int id, int index, String name, int x, int y, int servingWlanId) {
         this.id = id;
+        this.index = index;
         this.name = name;
         this.x = x;
         this.y = y;
@@ -26,6 +28,13 @@ public class RoadNode {
         return id;
     }
 
+    /**
+     * returns the position of the node in the road network arrays of the mobility model
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,113 +1,255 @@
 package edu.boun.edgecloudsim.mobility;
 
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimUtils;
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class VehicularMobility extends MobilityModel {
 
     public static final double CAR_SPEED = 5.55556; //meter/second
-    private final Map<Integer, Car> carMap = new HashMap<>();
-    private final Map<Integer, RoadNode> roadNodeMap = generateRoadNetwork();
+    private static final int CARS_PER_GENERATION_TASK = 16;
+    private Car[] cars;
+    private SplittableRandom[] carRandoms; //device id -> random stream of the random walk
+    private final RandomStreams randomStreams;
+    private final SimSettings settings;
+    private final double wanPropagationDelay;
+    private final boolean lazyMobility;
+    private final boolean parallelGeneration;
+    private final double lookAheadWindow;
+    private final Map<Integer, RoadNode> roadNodeMap;
+    private RoadNode[] roadNodes;
+    //road network in compressed sparse row form, edges of node i are in [edgeOffsets[i], edgeOffsets[i+1])
+    private int[] edgeOffsets;
+    private int[] edgeTargets;
+    private double[] edgeLengths;
+    private WlanOccupancy occupancy;
+    private final WlanCoverage coverage;
 
 
-    public VehicularMobility(int _numberOfMobileDevices, double _simulationTime) {
+    public VehicularMobility(int _numberOfMobileDevices, double _simulationTime, SimulationContext context) {
         super(_numberOfMobileDevices, _simulationTime);
-
+        settings = context.getSettings();
+        randomStreams = context.getRandomStreams();
+        wanPropagationDelay = settings.getWanPropagationDelay();
+        lazyMobility = settings.getLazyMobilityEnabled();
+        parallelGeneration = settings.getParallelGenerationEnabled();
+        lookAheadWindow = settings.getMobilityLookAheadWindow();
+        roadNodeMap = generateRoadNetwork();
+        coverage = settings.getWlanRange() > 0 ? createWlanCoverage() : null;
     }
 
     @Override
     public void initialize() {
-        for (int i = 0; i < numberOfMobileDevices; i++) {
-            Car car = new Car(i);
-            int randomNode = SimUtils.getRandomNumber(0, roadNodeMap.size() - 1);
+        cars = new Car[numberOfMobileDevices];
+        carRandoms = new SplittableRandom[numberOfMobileDevices];
+        if (parallelGeneration && !lazyMobility) {
+            ForkJoinPool.commonPool().invoke(new CarGeneration(0, numberOfMobileDevices));
+        } else {
+            initializeCars(0, numberOfMobileDevices, coverage);
+        }
+
+        occupancy = new WlanOccupancy(this, numberOfMobileDevices, settings.getNumOfEdgeDatacenters(), 0);
+    }
+
+    /**
+     * creates the cars in [from, to), their trajectories are generated unless the mobility is lazy
+     */
+    private void initializeCars(int from, int to, WlanCoverage coverage) {
+        for (int i = from; i < to; i++) {
+            Car car = new Car(i, roadNodes, edgeTargets.length, wanPropagationDelay, coverage);
+            carRandoms[i] = randomStreams.getStream("mobility", i);
+            int randomNode = SimUtils.getRandomNumber(carRandoms[i], 0, roadNodeMap.size() - 1);
             RoadNode roadNode = roadNodeMap.get(randomNode);
             car.addDestination(SimSettings.CLIENT_ACTIVITY_START_TIME, roadNode); //start from random node. Initially car starts at this road node
-            carMap.put(i, car);
-        }
-
-        for (Car car : carMap.values()) {
-            double time = SimSettings.CLIENT_ACTIVITY_START_TIME;
-            RoadNode from = car.getFrom(time).getValue();
-            while (time < simulationTime) {
-                List<RoadNode> neighbours = from.getNeighbours();
-                if (neighbours.isEmpty()) {
-                    break;
-                }
-                NavigableMap<Integer, Integer> neighbourVisitCumulativeMap = new TreeMap<>();
-                int totalVisitCount = 0;
-                for (int i = 0; i < neighbours.size(); i++) {
-                    RoadNode neighbour = neighbours.get(i);
-                    int visitCount = car.getVisitCount(from.getId(), neighbour.getId());
-                    totalVisitCount += visitCount == 0 ? 1 : visitCount;
-                    neighbourVisitCumulativeMap.put(totalVisitCount, i);
-                }
-
-                int randomNumber = SimUtils.getRandomNumber(1, totalVisitCount);
-                int randomNeighbourIndex = neighbourVisitCumulativeMap.ceilingEntry(randomNumber).getValue();
-
-
-                RoadNode neighbour = neighbours.get(randomNeighbourIndex);
-                double distance = Math.sqrt(Math.pow(neighbour.getX() - from.getX(), 2) + Math.pow(neighbour.getY() - from.getY(), 2));
-                double timeToReach = distance / CAR_SPEED;
-                time += timeToReach;
-                car.addDestination(time, neighbour);
-                from = neighbour;
+            cars[i] = car;
+            if (!lazyMobility) {
+                extendTrajectory(car, simulationTime);
             }
         }
+    }
 
+    /**
+     * generates the cars in [from, to) on the common ForkJoin pool,
+     * the cars of a task share a copy of the coverage
+     */
+    private class CarGeneration extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
 
+        CarGeneration(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CARS_PER_GENERATION_TASK) {
+                initializeCars(from, to, coverage == null ? null : coverage.copy());
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CarGeneration(from, middle), new CarGeneration(middle, to));
+        }
     }
 
-    private double distanceBetweenRoadNodes(RoadNode node, RoadNode neighbour) {
-        return distanceToRoadNode(node, neighbour.getX(), neighbour.getY());
+    /**
+     * continues the random walk of the car until it passes the given time or the simulation time
+     */
+    private void extendTrajectory(Car car, double until) {
+        double time = car.getLastTime();
+        RoadNode from = roadNodes[car.getLastNodeIndex()];
+        while (time <= until) {
+            if (time >= simulationTime) {
+                car.setComplete();
+                break;
+            }
+            int firstEdge = edgeOffsets[from.getIndex()];
+            int lastEdge = edgeOffsets[from.getIndex() + 1];
+            if (firstEdge == lastEdge) {
+                car.setComplete();
+                break;
+            }
+            int totalVisitCount = 0;
+            for (int edge = firstEdge; edge < lastEdge; edge++) {
+                int visitCount = car.getVisitCount(edge);
+                totalVisitCount += visitCount == 0 ? 1 : visitCount;
+            }
+
+            //select the first edge whose cumulative visit count reaches the random number
+            int randomNumber = SimUtils.getRandomNumber(carRandoms[car.getId()], 1, totalVisitCount);
+            int edge = firstEdge;
+            int cumulativeVisitCount = Math.max(1, car.getVisitCount(edge));
+            while (cumulativeVisitCount < randomNumber) {
+                edge++;
+                cumulativeVisitCount += Math.max(1, car.getVisitCount(edge));
+            }
+
+            RoadNode neighbour = roadNodes[edgeTargets[edge]];
+            double timeToReach = edgeLengths[edge] / CAR_SPEED;
+            time += timeToReach;
+            car.addDestination(time, neighbour, edge);
+            from = neighbour;
+        }
     }
 
-    private double distanceToRoadNode(RoadNode node, int x, int y) {
-        return Math.sqrt(Math.pow(node.getX() - x, 2) + Math.pow(node.getY() - y, 2));
+    /**
+     * returns the car of the device whose trajectory covers the given time,
+     * in lazy mode the trajectory is extended and the past waypoints are discarded here
+     */
+    private Car getCar(int deviceId, double time) {
+        Car car = cars[deviceId];
+        if (lazyMobility && !car.isComplete() && car.getLastTime() <= time) {
+            car.discardBefore(CloudSim.clock());
+            extendTrajectory(car, time + lookAheadWindow);
+        }
+        return car;
     }
 
     @Override
     public Location getLocation(int deviceId, double time) {
-        Car car = carMap.get(deviceId);
-        Map.Entry<Double, RoadNode> fromEntry  = car.getFrom(time);
-        double enterTime = fromEntry.getKey();
-        RoadNode from = fromEntry.getValue();
+        Car car = getCar(deviceId, time);
+        int waypoint = car.getWaypoint(time);
+        RoadNode from = roadNodes[car.getNodeIndex(waypoint)];
+        int wlanId = car.getServingWlanId(time);
+        if (waypoint + 1 == car.getNumOfWaypoints()) {
+            return new Location(1, from, wlanId, from.getX(), from.getY());
+        }
+        RoadNode destination = roadNodes[car.getNodeIndex(waypoint + 1)];
+
+        double distanceTraveled = (time - car.getTime(waypoint)) * CAR_SPEED;
+        int x = (int) (from.getX() + distanceTraveled * car.getDirX(waypoint));
+        int y = (int) (from.getY() + distanceTraveled * car.getDirY(waypoint));
+
+        return new Location(1, passedHalf(car, waypoint, time) ? destination : from, wlanId, x, y);
+    }
+
+    @Override
+    public int getServingWlanId(int deviceId, double time) {
+        return getCar(deviceId, time).getServingWlanId(time);
+    }
 
-        Map.Entry<Double, RoadNode> destinationEntry = car.getDestination(time);
-        if (destinationEntry == null) {
-            return new Location(1, from, from.getX(), from.getY());
+    /**
+     * returns the time of the first handover of the device after the given time,
+     * Double.POSITIVE_INFINITY if the device is not handed over any more
+     */
+    @Override
+    public double getNextHandoverTime(int deviceId, double time) {
+        Car car = getCar(deviceId, time);
+        double result = car.getNextHandoverTime(time);
+        //the handovers after the last waypoint are not known until the trajectory is extended
+        while (lazyMobility && !car.isComplete() && result >= car.getLastTime()) {
+            extendTrajectory(car, car.getLastTime() + lookAheadWindow);
+            result = car.getNextHandoverTime(time);
         }
-        double exitTime = destinationEntry.getKey();
-        RoadNode destination = destinationEntry.getValue();
+        return result;
+    }
 
-        double timePassed = time - enterTime;
-        double distanceTraveled = timePassed * CAR_SPEED;
+    @Override
+    public double getNextHandoverTime() {
+        return occupancy.getNextHandoverTime();
+    }
 
-        double normalizedXVector = (destination.getX() - from.getX()) / distanceBetweenRoadNodes(from, destination);
-        double normalizedYVector = (destination.getY() - from.getY()) / distanceBetweenRoadNodes(from, destination);
+    @Override
+    public void processHandovers(double time) {
+        occupancy.advanceTo(time);
+    }
 
-        int x = (int) (from.getX() + distanceTraveled * normalizedXVector);
-        int y = (int) (from.getY() + distanceTraveled * normalizedYVector);
+    @Override
+    public void setHandoverListener(HandoverListener listener) {
+        occupancy.setListener(listener);
+    }
+
+    @Override
+    public int getNumOfDevicesOnWlan(int wlanId, double time) {
+        if (time < occupancy.getTime()) {
+            return super.getNumOfDevicesOnWlan(wlanId, time);
+        }
+        occupancy.advanceTo(time);
+        return occupancy.getNumOfDevices(wlanId);
+    }
 
+    @Override
+    public void getNumOfDevicesOnWlans(double time, int[] numOfDevicesOnWlan) {
+        if (time < occupancy.getTime()) {
+            super.getNumOfDevicesOnWlans(time, numOfDevicesOnWlan);
+            return;
+        }
+        occupancy.advanceTo(time);
+        for (int i = 0; i < numOfDevicesOnWlan.length; i++) {
+            numOfDevicesOnWlan[i] = occupancy.getNumOfDevices(i);
+        }
+    }
+
+    /**
+     * the car is connected to the destination of the road after the half of the road
+     */
+    private boolean passedHalf(Car car, int waypoint, double time) {
+        double enterTime = car.getTime(waypoint);
+        double exitTime = car.getTime(waypoint + 1);
         double roadHalfTime = enterTime + (exitTime - enterTime) / 2;
-        boolean passedHalf = time > roadHalfTime - SimSettings.getInstance().getWanPropagationDelay();
-        return new Location(1, passedHalf ? destination : from, x, y);
+        return time > roadHalfTime - wanPropagationDelay;
     }
 
 
     private Map<Integer, RoadNode> generateRoadNetwork() {
         Map<Integer, Integer> wlanIdMap = getWlanIdMap();
 
-        Document doc = SimSettings.getInstance().getRoadDocument();
+        Document doc = settings.getRoadDocument();
         NodeList roadNodes = doc.getElementsByTagName("node");
 
         Map<Integer, RoadNode> roadNodeMap = new HashMap<>();
+        this.roadNodes = new RoadNode[roadNodes.getLength()];
         for (int i = 0; i < roadNodes.getLength(); i++) {
             Element roadNodeElement = (Element) roadNodes.item(i);
             int id = Integer.parseInt(roadNodeElement.getAttribute("id"));
@@ -115,8 +257,9 @@ public class VehicularMobility extends MobilityModel {
             Element position = (Element) roadNodeElement.getElementsByTagName("position").item(0);
             int x = Integer.parseInt(position.getElementsByTagName("x").item(0).getTextContent());
             int y = Integer.parseInt(position.getElementsByTagName("y").item(0).getTextContent());
-            RoadNode roadNode = new RoadNode(id, name, x, y, wlanIdMap.get(id));
+            RoadNode roadNode = new RoadNode(id, i, name, x, y, wlanIdMap.get(id));
             roadNodeMap.put(id, roadNode);
+            this.roadNodes[i] = roadNode;
         }
 
         for (int i = 0; i < roadNodes.getLength(); i++) {
@@ -136,11 +279,46 @@ public class VehicularMobility extends MobilityModel {
             }
         }
 
+        edgeOffsets = new int[this.roadNodes.length + 1];
+        for (int i = 0; i < this.roadNodes.length; i++) {
+            edgeOffsets[i + 1] = edgeOffsets[i] + this.roadNodes[i].getNeighbours().size();
+        }
+        edgeTargets = new int[edgeOffsets[this.roadNodes.length]];
+        edgeLengths = new double[edgeTargets.length];
+        for (int i = 0; i < this.roadNodes.length; i++) {
+            RoadNode from = this.roadNodes[i];
+            List<RoadNode> neighbours = from.getNeighbours();
+            for (int j = 0; j < neighbours.size(); j++) {
+                RoadNode neighbour = neighbours.get(j);
+                edgeTargets[edgeOffsets[i] + j] = neighbour.getIndex();
+                edgeLengths[edgeOffsets[i] + j] = Math.sqrt(Math.pow(neighbour.getX() - from.getX(), 2) + Math.pow(neighbour.getY() - from.getY(), 2));
+            }
+        }
+
         return roadNodeMap;
     }
 
+    /**
+     * the access points are located at the road nodes of the edge datacenters
+     */
+    private WlanCoverage createWlanCoverage() {
+        Map<Integer, Integer> wlanIdMap = getWlanIdMap();
+        int[] xs = new int[wlanIdMap.size()];
+        int[] ys = new int[wlanIdMap.size()];
+        int[] wlanIds = new int[wlanIdMap.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : wlanIdMap.entrySet()) {
+            RoadNode roadNode = roadNodeMap.get(entry.getKey());
+            xs[i] = roadNode.getX();
+            ys[i] = roadNode.getY();
+            wlanIds[i] = entry.getValue();
+            i++;
+        }
+        return new WlanCoverage(xs, ys, wlanIds, settings.getWlanRange());
+    }
+
     private Map<Integer, Integer> getWlanIdMap() {
-        Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+        Document doc = settings.getEdgeDevicesDocument();
         NodeList datacenterList = doc.getElementsByTagName("datacenter");
         Map<Integer, Integer> wlanIdMap = new HashMap<>();
         for (int i = 0; i < datacenterList.getLength(); i++) {
@@ -0,0 +1,269 @@
+package edu.boun.edgecloudsim.mobility;
+
+import java.util.Arrays;
+
+/**
+ * Associates the vehicles with the nearest access point within the WLAN range.
+ * The access points are bucketed into a uniform grid whose cells are not smaller than the range,
+ * so only the 3x3 cells around a position are visited to find the serving access point.
+ *
+ * Along a road the serving access point can only change where the car enters or leaves the range
+ * of an access point or crosses the bisector of two access points, so the handovers of a road are
+ * found by solving these crossings for the access points near the road.
+ * The buffers used for this are not shared, so each thread needs its own copy of the coverage.
+ */
+class WlanCoverage {
+
+    private static final int MAX_GRID_SIZE = 1024; //maximum number of cells along each axis
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] wlanIds;
+    private final double range;
+    private final double rangeSquare;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    //access points of cell i are in cellEntries[cellOffsets[i], cellOffsets[i+1])
+    private final int[] cellOffsets;
+    private final int[] cellEntries;
+
+    //buffers reused while computing the handovers of a road
+    private final int[] candidates;
+    private int numOfCandidates;
+    private double[] breakpoints = new double[16];
+    private double[] handoverFractions = new double[16];
+    private int[] handoverWlanIds = new int[16];
+
+    /**
+     * creates the coverage of the access points at the given positions
+     */
+    WlanCoverage(int[] xs, int[] ys, int[] wlanIds, double range) {
+        this.xs = xs;
+        this.ys = ys;
+        this.wlanIds = wlanIds;
+        this.range = range;
+        this.rangeSquare = range * range;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        //larger cells still work since the neighbour cells cover the range
+        cellSize = Math.max(range, (double) Math.max(maxX - minX, maxY - minY) / MAX_GRID_SIZE);
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        cellOffsets = new int[columns * rows + 1];
+        for (int i = 0; i < xs.length; i++) {
+            cellOffsets[getCell(i) + 1]++;
+        }
+        for (int i = 0; i < columns * rows; i++) {
+            cellOffsets[i + 1] += cellOffsets[i];
+        }
+        cellEntries = new int[xs.length];
+        int[] fill = Arrays.copyOf(cellOffsets, columns * rows);
+        for (int i = 0; i < xs.length; i++) {
+            cellEntries[fill[getCell(i)]++] = i;
+        }
+        candidates = new int[xs.length];
+    }
+
+    private WlanCoverage(WlanCoverage coverage) {
+        xs = coverage.xs;
+        ys = coverage.ys;
+        wlanIds = coverage.wlanIds;
+        range = coverage.range;
+        rangeSquare = coverage.rangeSquare;
+        minX = coverage.minX;
+        minY = coverage.minY;
+        cellSize = coverage.cellSize;
+        columns = coverage.columns;
+        rows = coverage.rows;
+        cellOffsets = coverage.cellOffsets;
+        cellEntries = coverage.cellEntries;
+        candidates = new int[xs.length];
+    }
+
+    /**
+     * returns a coverage sharing the grid of this one with its own buffers
+     */
+    WlanCoverage copy() {
+        return new WlanCoverage(this);
+    }
+
+    /**
+     * returns the id of the nearest access point within the range of the position,
+     * MobilityModel.NO_WLAN if there is no such access point
+     */
+    int getServingWlanId(double x, double y) {
+        int column = (int) Math.floor((x - minX) / cellSize);
+        int row = (int) Math.floor((y - minY) / cellSize);
+        int best = -1;
+        double bestDistance = rangeSquare;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                int cell = r * columns + c;
+                for (int e = cellOffsets[cell]; e < cellOffsets[cell + 1]; e++) {
+                    int i = cellEntries[e];
+                    double distance = distanceSquare(i, x, y);
+                    if (isBetter(i, distance, best, bestDistance)) {
+                        best = i;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best == -1 ? MobilityModel.NO_WLAN : wlanIds[best];
+    }
+
+    /**
+     * computes the serving access points along the road from (x0,y0) to (x1,y1) and returns
+     * the number of them, the i-th one serves the car from getHandoverFraction(i) of the road
+     */
+    int computeHandovers(double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double lengthSquare = dx * dx + dy * dy;
+        if (lengthSquare == 0) {
+            handoverFractions[0] = 0;
+            handoverWlanIds[0] = getServingWlanId(x0, y0);
+            return 1;
+        }
+        findCandidates(x0, y0, x1, y1, dx, dy, lengthSquare);
+
+        int numOfBreakpoints = 0;
+        for (int k = 0; k < numOfCandidates; k++) {
+            int i = candidates[k];
+            //|p0 + f*d - c|^2 = range^2
+            double px = x0 - xs[i];
+            double py = y0 - ys[i];
+            double b = dx * px + dy * py;
+            double discriminant = b * b - lengthSquare * (px * px + py * py - rangeSquare);
+            if (discriminant > 0) {
+                double root = Math.sqrt(discriminant);
+                numOfBreakpoints = addBreakpoint(numOfBreakpoints, (-b - root) / lengthSquare);
+                numOfBreakpoints = addBreakpoint(numOfBreakpoints, (-b + root) / lengthSquare);
+            }
+            //|p0 + f*d - ci|^2 = |p0 + f*d - cj|^2 is linear in f
+            for (int l = k + 1; l < numOfCandidates; l++) {
+                int j = candidates[l];
+                double denominator = 2 * (dx * (xs[j] - xs[i]) + dy * (ys[j] - ys[i]));
+                if (denominator != 0) {
+                    double f = (distanceSquare(j, x0, y0) - distanceSquare(i, x0, y0)) / denominator;
+                    numOfBreakpoints = addBreakpoint(numOfBreakpoints, f);
+                }
+            }
+        }
+        Arrays.sort(breakpoints, 0, numOfBreakpoints);
+
+        //the serving access point is the same between two consecutive breakpoints
+        int numOfHandovers = 0;
+        double from = 0;
+        for (int k = 0; k <= numOfBreakpoints; k++) {
+            double to = k < numOfBreakpoints ? breakpoints[k] : 1;
+            if (to <= from && k < numOfBreakpoints) {
+                continue;
+            }
+            double middle = (from + to) / 2;
+            int wlanId = getCandidateWlanId(x0 + middle * dx, y0 + middle * dy);
+            if (numOfHandovers == 0 || handoverWlanIds[numOfHandovers - 1] != wlanId) {
+                if (numOfHandovers == handoverFractions.length) {
+                    handoverFractions = Arrays.copyOf(handoverFractions, numOfHandovers * 2);
+                    handoverWlanIds = Arrays.copyOf(handoverWlanIds, numOfHandovers * 2);
+                }
+                handoverFractions[numOfHandovers] = from;
+                handoverWlanIds[numOfHandovers] = wlanId;
+                numOfHandovers++;
+            }
+            from = to;
+        }
+        return numOfHandovers;
+    }
+
+    double getHandoverFraction(int index) {
+        return handoverFractions[index];
+    }
+
+    int getHandoverWlanId(int index) {
+        return handoverWlanIds[index];
+    }
+
+    /**
+     * collects the access points whose range intersects the road
+     */
+    private void findCandidates(double x0, double y0, double x1, double y1, double dx, double dy, double lengthSquare) {
+        int firstColumn = Math.max(0, (int) Math.floor((Math.min(x0, x1) - range - minX) / cellSize));
+        int lastColumn = Math.min(columns - 1, (int) Math.floor((Math.max(x0, x1) + range - minX) / cellSize));
+        int firstRow = Math.max(0, (int) Math.floor((Math.min(y0, y1) - range - minY) / cellSize));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((Math.max(y0, y1) + range - minY) / cellSize));
+        numOfCandidates = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = r * columns + c;
+                for (int e = cellOffsets[cell]; e < cellOffsets[cell + 1]; e++) {
+                    int i = cellEntries[e];
+                    double f = Math.max(0, Math.min(1, ((xs[i] - x0) * dx + (ys[i] - y0) * dy) / lengthSquare));
+                    if (distanceSquare(i, x0 + f * dx, y0 + f * dy) <= rangeSquare) {
+                        candidates[numOfCandidates++] = i;
+                    }
+                }
+            }
+        }
+    }
+
+    private int getCandidateWlanId(double x, double y) {
+        int best = -1;
+        double bestDistance = rangeSquare;
+        for (int k = 0; k < numOfCandidates; k++) {
+            int i = candidates[k];
+            double distance = distanceSquare(i, x, y);
+            if (isBetter(i, distance, best, bestDistance)) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best == -1 ? MobilityModel.NO_WLAN : wlanIds[best];
+    }
+
+    private int addBreakpoint(int numOfBreakpoints, double fraction) {
+        if (fraction <= 0 || fraction >= 1) {
+            return numOfBreakpoints;
+        }
+        if (numOfBreakpoints == breakpoints.length) {
+            breakpoints = Arrays.copyOf(breakpoints, numOfBreakpoints * 2);
+        }
+        breakpoints[numOfBreakpoints] = fraction;
+        return numOfBreakpoints + 1;
+    }
+
+    /**
+     * the access point within the range is better if it is nearer, ties are broken by the lower wlan id
+     */
+    private boolean isBetter(int i, double distance, int best, double bestDistance) {
+        if (distance > rangeSquare) {
+            return false;
+        }
+        return best == -1 || distance < bestDistance || (distance == bestDistance && wlanIds[i] < wlanIds[best]);
+    }
+
+    private double distanceSquare(int i, double x, double y) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int getCell(int i) {
+        int column = (int) ((xs[i] - minX) / cellSize);
+        int row = (int) ((ys[i] - minY) / cellSize);
+        return row * columns + column;
+    }
+}
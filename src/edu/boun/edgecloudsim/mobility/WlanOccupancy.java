@@ -0,0 +1,123 @@
+package edu.boun.edgecloudsim.mobility;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+/**
+ * Number of devices served by each WLAN, kept up to date while the simulation time advances.
+ * Devices are kept in a binary min-heap ordered by the time of their next handover,
+ * so advancing the time only visits the devices which are handed over
+ * instead of locating all devices. The time can only move forward.
+ * The registered listener is notified about each handover found while advancing.
+ */
+class WlanOccupancy {
+
+    private final VehicularMobility mobility;
+    private final int[] numOfDevices; //wlan id -> number of devices
+    private final int[] servingWlanIds; //device id -> wlan id
+    private final double[] nextChangeTimes; //device id -> time of its next handover
+    private final int[] heap; //device ids ordered by next change time
+    private int size;
+    private double time;
+    private HandoverListener listener;
+
+    WlanOccupancy(VehicularMobility mobility, int numOfDevices, int numOfWlans, double time) {
+        this.mobility = mobility;
+        this.numOfDevices = new int[numOfWlans];
+        this.servingWlanIds = new int[numOfDevices];
+        this.nextChangeTimes = new double[numOfDevices];
+        this.heap = new int[numOfDevices];
+        this.time = time;
+
+        for (int deviceId = 0; deviceId < numOfDevices; deviceId++) {
+            servingWlanIds[deviceId] = mobility.getServingWlanId(deviceId, time);
+            if (servingWlanIds[deviceId] != MobilityModel.NO_WLAN) {
+                this.numOfDevices[servingWlanIds[deviceId]]++;
+            }
+            nextChangeTimes[deviceId] = mobility.getNextHandoverTime(deviceId, time);
+            heap[size++] = deviceId;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * updates the counters to the given time, which must not be less than the current time
+     */
+    void advanceTo(double newTime) {
+        if (newTime < time) {
+            SimLogger.printLine("WLAN occupancy cannot go back from " + time + " to " + newTime + "! Terminating simulation...");
+            System.exit(1);
+        }
+        time = newTime;
+        while (size > 0 && nextChangeTimes[heap[0]] <= newTime) {
+            int deviceId = heap[0];
+            int wlanId = mobility.getServingWlanId(deviceId, newTime);
+            int previousWlanId = servingWlanIds[deviceId];
+            if (wlanId != previousWlanId) {
+                if (previousWlanId != MobilityModel.NO_WLAN) {
+                    numOfDevices[previousWlanId]--;
+                }
+                if (wlanId != MobilityModel.NO_WLAN) {
+                    numOfDevices[wlanId]++;
+                }
+                servingWlanIds[deviceId] = wlanId;
+                if (listener != null) {
+                    listener.handoverOccurred(deviceId, previousWlanId, wlanId);
+                }
+            }
+            nextChangeTimes[deviceId] = mobility.getNextHandoverTime(deviceId, newTime);
+            if (nextChangeTimes[deviceId] == Double.POSITIVE_INFINITY) {
+                //the device does not move any more
+                heap[0] = heap[--size];
+            }
+            siftDown(0);
+        }
+    }
+
+    void setListener(HandoverListener listener) {
+        this.listener = listener;
+    }
+
+    double getTime() {
+        return time;
+    }
+
+    /**
+     * returns the time of the next handover among all devices
+     */
+    double getNextHandoverTime() {
+        return size == 0 ? Double.POSITIVE_INFINITY : nextChangeTimes[heap[0]];
+    }
+
+    int getNumOfDevices(int wlanId) {
+        return numOfDevices[wlanId];
+    }
+
+    int getServingWlanId(int deviceId) {
+        return servingWlanIds[deviceId];
+    }
+
+    private void siftDown(int index) {
+        if (size == 0) {
+            return;
+        }
+        int deviceId = heap[index];
+        double key = nextChangeTimes[deviceId];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && nextChangeTimes[heap[child + 1]] < nextChangeTimes[heap[child]]) {
+                child++;
+            }
+            if (nextChangeTimes[heap[child]] >= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = deviceId;
+    }
+}
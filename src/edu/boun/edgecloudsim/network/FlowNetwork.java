@@ -0,0 +1,136 @@
+/*
+ * Title:        EdgeCloudSim - Flow Network
+ *
+ * Description:
+ * FlowNetwork simulates the WLAN of each access point and the WAN uplink
+ * behind it as ProcessorSharingLinks. The transfers are started as flows
+ * and the related event is sent to the given entity when a flow finishes,
+ * so the transfers in progress are slowed down by the later ones and the
+ * bandwidth is never exhausted, the flows just get slower.
+ *
+ * A single event is pending for each link at the time its next flow
+ * finishes. An arrival only schedules an earlier event if the new flow
+ * finishes first, the events which are no longer valid check the link
+ * and schedule the next one.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.network;
+
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import edu.boun.edgecloudsim.utils.EventProfiler;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class FlowNetwork extends SimEntity {
+	private static final int BASE = 100000; //start from base in order not to conflict cloudsim tag!
+
+	private static final int CHECK_LINK = BASE + 1;
+
+	//the sections of the event profiler are indexed by (tag - CHECK_LINK)
+	private static final int[] PROFILED_EVENTS = EventProfiler.registerEvents("FlowNetwork", "CHECK_LINK");
+
+	private final int numOfAccessPoints;
+	private final ProcessorSharingLink[] links; //WLAN links of the access points followed by their WAN links
+	private final Integer[] linkIds; //event data of the links
+	private final double[] scheduledTimes; //time of the earliest pending event of each link
+
+	/**
+	 * creates the links of the access points, the rates (Kbps) of each flow
+	 * are indexed by the number of flows sharing the link minus one
+	 */
+	public FlowNetwork(int _numOfAccessPoints, double[] wlanRates, double[] wanRates) {
+		super("FlowNetwork");
+		numOfAccessPoints = _numOfAccessPoints;
+		links = new ProcessorSharingLink[numOfAccessPoints * 2];
+		linkIds = new Integer[links.length];
+		scheduledTimes = new double[links.length];
+		for(int i=0; i<links.length; i++) {
+			links[i] = new ProcessorSharingLink(i < numOfAccessPoints ? wlanRates : wanRates);
+			linkIds[i] = i;
+		}
+		Arrays.fill(scheduledTimes, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * starts a flow of the given size (KB) over the WLAN or the WAN of the access point,
+	 * the event having the given tag and data is sent to the destination when it finishes
+	 */
+	public void startFlow(boolean overWan, int accessPointId, double dataSize, int destination, int tag, Object data) {
+		int linkId = getLinkId(overWan, accessPointId);
+		links[linkId].add(CloudSim.clock(), dataSize * (double)8, destination, tag, data); //KB to Kb
+		scheduleCheck(linkId);
+	}
+
+	/**
+	 * returns the number of the flows transferred over the WLAN or the WAN of the access point
+	 */
+	public int getNumOfFlows(boolean overWan, int accessPointId) {
+		return links[getLinkId(overWan, accessPointId)].size();
+	}
+
+	/**
+	 * returns the rate (Kbps) of each flow transferred over the WLAN or the WAN of the access point
+	 */
+	public double getRate(boolean overWan, int accessPointId) {
+		return links[getLinkId(overWan, accessPointId)].getRate();
+	}
+
+	@Override
+	public void startEntity() {
+	}
+
+	@Override
+	public void processEvent(SimEvent ev) {
+		EventProfiler.begin();
+		switch (ev.getTag()) {
+			case CHECK_LINK:
+			{
+				int linkId = (Integer) ev.getData();
+				if(CloudSim.clock() >= scheduledTimes[linkId])
+					scheduledTimes[linkId] = Double.POSITIVE_INFINITY;
+
+				ProcessorSharingLink link = links[linkId];
+				int slot;
+				while((slot = link.poll(CloudSim.clock())) != -1)
+					schedule(link.getDestination(slot), 0, link.getTag(slot), link.getData(slot));
+
+				scheduleCheck(linkId);
+				break;
+			}
+			default:
+				SimLogger.printLine(getName() + ".processEvent(): " + "Error - event unknown by this FlowNetwork. Terminating simulation...");
+				System.exit(0);
+				break;
+		}
+		EventProfiler.end(PROFILED_EVENTS, ev.getTag() - CHECK_LINK);
+	}
+
+	@Override
+	public void shutdownEntity() {
+	}
+
+	/**
+	 * schedules an event at the time the next flow of the link finishes
+	 * unless an earlier event is already pending
+	 */
+	private void scheduleCheck(int linkId) {
+		double finishTime = links[linkId].getNextFinishTime();
+		if(finishTime < scheduledTimes[linkId]) {
+			double delay = Math.max(0, finishTime - CloudSim.clock());
+			//the time is calculated as CloudSim does to compare it with the clock exactly
+			scheduledTimes[linkId] = CloudSim.clock() + delay;
+			schedule(getId(), delay, CHECK_LINK, linkIds[linkId]);
+		}
+	}
+
+	private int getLinkId(boolean overWan, int accessPointId) {
+		return overWan ? numOfAccessPoints + accessPointId : accessPointId;
+	}
+}
@@ -14,9 +14,10 @@
 package edu.boun.edgecloudsim.network;
 
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.mobility.HandoverListener;
 import edu.boun.edgecloudsim.utils.Location;
 
-public abstract class NetworkModel {
+public abstract class NetworkModel implements HandoverListener {
 	protected int numberOfMobileDevices;
 	protected String simScenario;
 
@@ -48,4 +49,16 @@ public abstract class NetworkModel {
 	public abstract void uploadFinished(Location accessPointLocation, int destDeviceId);
 	public abstract void downloadStarted(Location accessPointLocation, int sourceDeviceId);
 	public abstract void downloadFinished(Location accessPointLocation, int sourceDeviceId);
+
+	/**
+	 * network models which keep per access point state should return true
+	 * to be informed about the handovers of the devices while the simulation runs
+	 */
+	public boolean needsHandoverEvents(){
+		return false;
+	}
+
+	@Override
+	public void handoverOccurred(int deviceId, int previousWlanId, int wlanId){
+	}
 }
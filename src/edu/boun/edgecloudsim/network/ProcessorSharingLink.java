@@ -0,0 +1,193 @@
+/*
+ * Title:        EdgeCloudSim - Processor Sharing Link
+ *
+ * Description:
+ * ProcessorSharingLink shares the bandwidth of a link (e.g. the WLAN of an
+ * access point) equally between the flows transferred over it. The rate of
+ * each flow depends on the number of flows and is given by a table, the
+ * flows beyond the table share the total bandwidth of its last entry.
+ *
+ * The link keeps a virtual time which is the amount of data (Kb) served to
+ * each flow since the link is created. A flow finishes when the virtual
+ * time reaches its finish tag (virtual time at the arrival + size of the
+ * flow), so the tags do not change when the other flows arrive or depart,
+ * only the speed of the virtual time does. The slots of the flows are kept
+ * in a binary min-heap ordered by the finish tags, so the next finishing
+ * flow is found in O(1) and the flows are added and removed in O(log n)
+ * while thousands of flows share the link.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.network;
+
+import java.util.Arrays;
+
+public class ProcessorSharingLink {
+	//the flows finishing within this time are finished together to avoid the rounding errors
+	private static final double TIME_TOLERANCE = 1e-9; //seconds
+
+	private final double[] rates; //rate of each flow (Kbps) when (index + 1) flows share the link
+	private final double maxBandwidth; //bandwidth (Kbps) shared by the flows beyond the table
+
+	private double virtualTime; //Kb
+	private double lastUpdateTime;
+	private long arrivalCounter;
+
+	private double[] finishTags; //finish tag of each slot
+	private long[] arrivalOrders; //arrival order of each slot, orders the flows having the same tag
+	private int[] destinations; //entity id to be informed when the flow of each slot finishes
+	private int[] tags; //event tag sent when the flow of each slot finishes
+	private Object[] data; //event data sent when the flow of each slot finishes
+	private int[] heap; //slots ordered as a binary min-heap
+	private int[] freeSlots;
+	private int numOfFreeSlots;
+	private int size;
+
+	public ProcessorSharingLink(double[] _rates) {
+		rates = _rates.clone();
+		maxBandwidth = rates[rates.length - 1] * rates.length;
+
+		finishTags = new double[16];
+		arrivalOrders = new long[16];
+		destinations = new int[16];
+		tags = new int[16];
+		data = new Object[16];
+		heap = new int[16];
+		freeSlots = new int[16];
+		numOfFreeSlots = 0;
+		size = 0;
+	}
+
+	/**
+	 * adds a flow of the given size (Kb) at the given time and returns its slot,
+	 * the event having the given tag and data is sent to the destination when it finishes
+	 */
+	public int add(double time, double sizeInKb, int destination, int tag, Object _data) {
+		advance(time);
+
+		int slot;
+		if(numOfFreeSlots > 0) {
+			slot = freeSlots[--numOfFreeSlots];
+		}
+		else {
+			slot = size;
+			if(slot == heap.length) {
+				finishTags = Arrays.copyOf(finishTags, slot * 2);
+				arrivalOrders = Arrays.copyOf(arrivalOrders, slot * 2);
+				destinations = Arrays.copyOf(destinations, slot * 2);
+				tags = Arrays.copyOf(tags, slot * 2);
+				data = Arrays.copyOf(data, slot * 2);
+				heap = Arrays.copyOf(heap, slot * 2);
+				freeSlots = Arrays.copyOf(freeSlots, slot * 2);
+			}
+		}
+
+		finishTags[slot] = virtualTime + sizeInKb;
+		arrivalOrders[slot] = arrivalCounter++;
+		destinations[slot] = destination;
+		tags[slot] = tag;
+		data[slot] = _data;
+
+		heap[size] = slot;
+		size++;
+		siftUp(size - 1);
+		return slot;
+	}
+
+	/**
+	 * removes the flow which is finished at the given time and returns its slot, -1 if there is no
+	 * such flow, the destination, tag and data of the slot can be read until the next flow is added
+	 */
+	public int poll(double time) {
+		advance(time);
+		if(size == 0 || finishTags[heap[0]] - virtualTime > getRate() * TIME_TOLERANCE)
+			return -1;
+
+		int slot = heap[0];
+		size--;
+		if(size > 0) {
+			heap[0] = heap[size];
+			siftDown(0);
+		}
+		freeSlots[numOfFreeSlots++] = slot;
+		return slot;
+	}
+
+	/**
+	 * returns the time when the next flow finishes if no other flow arrives, infinity if the link is idle
+	 */
+	public double getNextFinishTime() {
+		if(size == 0)
+			return Double.POSITIVE_INFINITY;
+		return lastUpdateTime + Math.max(0, finishTags[heap[0]] - virtualTime) / getRate();
+	}
+
+	/**
+	 * returns the rate of each flow (Kbps) with the current number of flows
+	 */
+	public double getRate() {
+		if(size == 0)
+			return 0;
+		return size <= rates.length ? rates[size - 1] : maxBandwidth / size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getDestination(int slot) {
+		return destinations[slot];
+	}
+
+	public int getTag(int slot) {
+		return tags[slot];
+	}
+
+	public Object getData(int slot) {
+		return data[slot];
+	}
+
+	/**
+	 * serves the flows until the given time with the current rate
+	 */
+	private void advance(double time) {
+		if(size > 0)
+			virtualTime += getRate() * (time - lastUpdateTime);
+		lastUpdateTime = time;
+	}
+
+	private boolean isBefore(int slotA, int slotB) {
+		return finishTags[slotA] < finishTags[slotB] ||
+				(finishTags[slotA] == finishTags[slotB] && arrivalOrders[slotA] < arrivalOrders[slotB]);
+	}
+
+	private void siftUp(int index) {
+		int slot = heap[index];
+		while(index > 0) {
+			int parent = (index - 1) >>> 1;
+			if(!isBefore(slot, heap[parent]))
+				break;
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = slot;
+	}
+
+	private void siftDown(int index) {
+		int slot = heap[index];
+		while(true) {
+			int child = 2 * index + 1;
+			if(child >= size)
+				break;
+			if(child + 1 < size && isBefore(heap[child + 1], heap[child]))
+				child++;
+			if(!isBefore(heap[child], slot))
+				break;
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = slot;
+	}
+}
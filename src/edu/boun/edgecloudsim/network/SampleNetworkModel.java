@@ -11,15 +11,21 @@
  * MAN delay is observed via a single server queue model with
  * Markov-modulated Poisson process (MMPP) arrivals.
  *   
+ * If the flow level network is enabled, the WLAN and WAN transfers are
+ * simulated by a FlowNetwork instead, so the bandwidth of each link is
+ * shared by the transfers in progress rather than being fixed when a
+ * transfer starts.
+ *   
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
  */
 
 package edu.boun.edgecloudsim.network;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -34,6 +40,10 @@ public class SampleNetworkModel extends NetworkModel {
 	private int[] wanClients;
 	private int[] wlanClients;
 	
+	private final SimulationContext context;
+	private final SimSettings settings;
+	private FlowNetwork flowNetwork;
+
 	private double lastMM1QueueUpdateTime;
 	private double ManPoissonMeanForDownload; //seconds
 	private double ManPoissonMeanForUpload; //seconds
@@ -179,17 +189,19 @@ public class SampleNetworkModel extends NetworkModel {
 		/*25 Clients*/ 1311.131 /*(Kbps)*/
 	};
 	
-	public SampleNetworkModel(int _numberOfMobileDevices, String _simScenario) {
+	public SampleNetworkModel(int _numberOfMobileDevices, String _simScenario, SimulationContext _context) {
 		super(_numberOfMobileDevices, _simScenario);
+		context = _context;
+		settings = context.getSettings();
 	}
 
 	@Override
 	public void initialize() {
-		wanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
-		wlanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
+		wanClients = new int[settings.getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
+		wlanClients = new int[settings.getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
 
-		int numOfApp = SimSettings.getInstance().getTaskLookUpTable().length;
-		SimSettings SS = SimSettings.getInstance();
+		int numOfApp = settings.getTaskLookUpTable().length;
+		SimSettings SS = settings;
 		for(int taskIndex=0; taskIndex<numOfApp; taskIndex++) {
 			if(SS.getTaskLookUpTable()[taskIndex][0] == 0) {
 				SimLogger.printLine("Usage percentage of task " + taskIndex + " is 0! Terminating simulation...");
@@ -217,6 +229,21 @@ public class SampleNetworkModel extends NetworkModel {
 		numOfManTaskForDownload = 0;
 		totalManTaskInputSize = 0;
 		numOfManTaskForUpload = 0;
+
+		if(settings.getFlowLevelNetworkEnabled()) {
+			double[] wlanRates = new double[experimentalWlanDelay.length];
+			for(int i=0; i<wlanRates.length; i++)
+				wlanRates[i] = experimentalWlanDelay[i] * (double) 3; //802.11ac is around 3 times faster than 802.11n
+			flowNetwork = new FlowNetwork(wlanClients.length, wlanRates, experimentalWanDelay);
+		}
+	}
+
+	/**
+	 * returns the flow network simulating the WLAN and WAN transfers,
+	 * null if the flow level network is disabled
+	 */
+	public FlowNetwork getFlowNetwork() {
+		return flowNetwork;
 	}
 
     /**
@@ -231,15 +258,15 @@ public class SampleNetworkModel extends NetworkModel {
 			return delay = getManUploadDelay();
 		}
 		
-		Location accessPointLocation = SimManager.getInstance().getMobilityModel().getLocation(sourceDeviceId,CloudSim.clock());
+		int accessPointId = context.getMobilityModel().getServingWlanId(sourceDeviceId,CloudSim.clock());
 
 		//mobile device to cloud server
 		if(destDeviceId == SimSettings.CLOUD_DATACENTER_ID){
-			delay = getWanUploadDelay(accessPointLocation, task.getCloudletFileSize());
+			delay = getWanUploadDelay(accessPointId, task.getCloudletFileSize());
 		}
 		//mobile device to edge device (wifi access point)
 		else if (destDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID) {
-			delay = getWlanUploadDelay(accessPointLocation, task.getCloudletFileSize());
+			delay = getWlanUploadDelay(accessPointId, task.getCloudletFileSize());
 		}
 		
 		return delay;
@@ -257,15 +284,19 @@ public class SampleNetworkModel extends NetworkModel {
 			return delay = getManDownloadDelay();
 		}
 		
-		Location accessPointLocation = SimManager.getInstance().getMobilityModel().getLocation(destDeviceId,CloudSim.clock());
+		int accessPointId = context.getMobilityModel().getServingWlanId(destDeviceId,CloudSim.clock());
+		//the device left the coverage, the response is sent over the access point of the request
+		//and the mobile device manager checks whether the device is on that access point when it arrives
+		if(accessPointId == MobilityModel.NO_WLAN)
+			accessPointId = task.getSubmittedLocation().getServingWlanId();
 		
 		//cloud server to mobile device
 		if(sourceDeviceId == SimSettings.CLOUD_DATACENTER_ID){
-			delay = getWanDownloadDelay(accessPointLocation, task.getCloudletOutputSize());
+			delay = getWanDownloadDelay(accessPointId, task.getCloudletOutputSize());
 		}
 		//edge device (wifi access point) to mobile device
 		else{
-			delay = getWlanDownloadDelay(accessPointLocation, task.getCloudletOutputSize());
+			delay = getWlanDownloadDelay(accessPointId, task.getCloudletOutputSize());
 		}
 		
 		return delay;
@@ -327,8 +358,8 @@ public class SampleNetworkModel extends NetworkModel {
 		}
 	}
 
-	private double getWlanDownloadDelay(Location accessPointLocation, double dataSize) {
-		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
+	private double getWlanDownloadDelay(int accessPointId, double dataSize) {
+		int numOfWlanUser = wlanClients[accessPointId];
 		double taskSizeInKb = dataSize * (double)8; //KB to Kb
 		double result=0;
 		
@@ -340,12 +371,12 @@ public class SampleNetworkModel extends NetworkModel {
 	}
 	
 	//wlan upload and download delay is symmetric in this model
-	private double getWlanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWlanDownloadDelay(accessPointLocation, dataSize);
+	private double getWlanUploadDelay(int accessPointId, double dataSize) {
+		return getWlanDownloadDelay(accessPointId, dataSize);
 	}
 	
-	private double getWanDownloadDelay(Location accessPointLocation, double dataSize) {
-		int numOfWanUser = wanClients[accessPointLocation.getServingWlanId()];
+	private double getWanDownloadDelay(int accessPointId, double dataSize) {
+		int numOfWanUser = wanClients[accessPointId];
 		double taskSizeInKb = dataSize * (double)8; //KB to Kb
 		double result=0;
 		
@@ -358,8 +389,8 @@ public class SampleNetworkModel extends NetworkModel {
 	}
 	
 	//wan upload and download delay is symmetric in this model
-	private double getWanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWanDownloadDelay(accessPointLocation, dataSize);
+	private double getWanUploadDelay(int accessPointId, double dataSize) {
+		return getWanDownloadDelay(accessPointId, dataSize);
 	}
 	
 	private double calculateMM1(double propagationDelay, double bandwidth /*Kbps*/, double PoissonMean, double avgTaskSize /*KB*/, int deviceCount){
@@ -380,7 +411,7 @@ public class SampleNetworkModel extends NetworkModel {
 	}
 	
 	private double getManDownloadDelay() {
-		double result = calculateMM1(SimSettings.getInstance().getInternalLanDelay(),
+		double result = calculateMM1(settings.getInternalLanDelay(),
 				MAN_BW,
 				ManPoissonMeanForDownload,
 				avgManTaskOutputSize,
@@ -395,7 +426,7 @@ public class SampleNetworkModel extends NetworkModel {
 	}
 	
 	private double getManUploadDelay() {
-		double result = calculateMM1(SimSettings.getInstance().getInternalLanDelay(),
+		double result = calculateMM1(settings.getInternalLanDelay(),
 				MAN_BW,
 				ManPoissonMeanForUpload,
 				avgManTaskInputSize,
@@ -7,6 +7,14 @@
  * Task interarrival time (load generation period), Idle and active periods
  * are defined in the configuration file.
  * 
+ * In streaming mode the tasks are not collected in the task list; the
+ * next task of a device is generated when its previous task is created.
+ * Each device draws its random numbers from its own stream, so the tasks
+ * of a device are the same in both modes for the same random seed.
+ * 
+ * In parallel mode the tasks of the devices are generated on the common
+ * ForkJoin pool and the task lists of the devices are merged by start time.
+ * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
  */
@@ -14,85 +22,134 @@
 package edu.boun.edgecloudsim.task_generator;
 
 import java.util.ArrayList;
-
-import org.apache.commons.math3.distribution.ExponentialDistribution;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class IdleActiveLoadGenerator extends LoadGeneratorModel{
 	int taskTypeOfDevices[];
-	public IdleActiveLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
+	private final SimSettings settings;
+	private final boolean streaming;
+	private final boolean parallel;
+	private final RandomStreams randomStreams;
+	
+	//state of the task generation of each device
+	private SplittableRandom[] deviceRandoms;
+	private double[] activePeriodStartTimes;
+	private double[] virtualTimes;
+	
+	public IdleActiveLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario, SimulationContext context) {
 		super(_numberOfMobileDevices, _simulationTime, _simScenario);
+		settings = context.getSettings();
+		streaming = settings.getTaskStreamingEnabled();
+		parallel = settings.getParallelGenerationEnabled();
+		randomStreams = context.getRandomStreams();
 	}
 
 	@Override
 	public void initializeModel() {
 		taskList = new ArrayList<TaskProperty>();
-		
-		//exponential number generator for file input size, file output size and task length
-		ExponentialDistribution[][] expRngList = new ExponentialDistribution[SimSettings.getInstance().getTaskLookUpTable().length][3];
-		
-		//create random number generator for each place
-		for(int i=0; i<SimSettings.getInstance().getTaskLookUpTable().length; i++) {
-			if(SimSettings.getInstance().getTaskLookUpTable()[i][0] ==0)
-				continue;
-			
-			expRngList[i][0] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][5]);
-			expRngList[i][1] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][6]);
-			expRngList[i][2] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][7]);
-		}
+		double[][] taskLookUpTable = settings.getTaskLookUpTable();
 		
 		//Each mobile device utilizes an app type (task type)
 		taskTypeOfDevices = new int[numberOfMobileDevices];
-		for(int i=0; i<numberOfMobileDevices; i++) {
-			int randomTaskType = -1;
-			double taskTypeSelector = SimUtils.getRandomDoubleNumber(0,100);
-			double taskTypePercentage = 0;
-			for (int j=0; j<SimSettings.getInstance().getTaskLookUpTable().length; j++) {
-				taskTypePercentage += SimSettings.getInstance().getTaskLookUpTable()[j][0];
-				if(taskTypeSelector <= taskTypePercentage){
-					randomTaskType = j;
-					break;
-				}
+		deviceRandoms = new SplittableRandom[numberOfMobileDevices];
+		activePeriodStartTimes = new double[numberOfMobileDevices];
+		virtualTimes = new double[numberOfMobileDevices];
+		if(streaming) {
+			for(int i=0; i<numberOfMobileDevices; i++)
+				initializeDevice(i, taskLookUpTable);
+		}
+		else if(parallel) {
+			taskList = ForkJoinPool.commonPool().invoke(new DeviceTaskGeneration(0, numberOfMobileDevices));
+		}
+		else {
+			for(int i=0; i<numberOfMobileDevices; i++) {
+				initializeDevice(i, taskLookUpTable);
+				TaskProperty task;
+				while((task = getNextTask(i)) != null)
+					taskList.add(task);
 			}
-			if(randomTaskType == -1){
-				SimLogger.printLine("Impossible is occurred! no random task type!");
-				continue;
+		}
+	}
+
+	/**
+	 * selects the task type and the first active period of the device
+	 */
+	private void initializeDevice(int i, double[][] taskLookUpTable) {
+		deviceRandoms[i] = randomStreams.getStream("load_generator", i);
+		int randomTaskType = -1;
+		double taskTypeSelector = SimUtils.getRandomDoubleNumber(deviceRandoms[i], 0,100);
+		double taskTypePercentage = 0;
+		for (int j=0; j<taskLookUpTable.length; j++) {
+			taskTypePercentage += taskLookUpTable[j][0];
+			if(taskTypeSelector <= taskTypePercentage){
+				randomTaskType = j;
+				break;
 			}
-			
-			taskTypeOfDevices[i] = randomTaskType;
-			
-			double poissonMean = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2];
-			double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
-			double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
-			double activePeriodStartTime = SimUtils.getRandomDoubleNumber(
-					SimSettings.CLIENT_ACTIVITY_START_TIME, 
-					SimSettings.CLIENT_ACTIVITY_START_TIME + activePeriod);  //active period starts shortly after the simulation started (e.g. 10 seconds)
-			double virtualTime = activePeriodStartTime;
+		}
+		if(randomTaskType == -1){
+			SimLogger.printLine("Impossible is occurred! no random task type!");
+			deviceRandoms[i] = null;
+			return;
+		}
+		
+		taskTypeOfDevices[i] = randomTaskType;
+		
+		double activePeriod = taskLookUpTable[randomTaskType][3];
+		activePeriodStartTimes[i] = SimUtils.getRandomDoubleNumber(deviceRandoms[i],
+				SimSettings.CLIENT_ACTIVITY_START_TIME, 
+				SimSettings.CLIENT_ACTIVITY_START_TIME + activePeriod);  //active period starts shortly after the simulation started (e.g. 10 seconds)
+		virtualTimes[i] = activePeriodStartTimes[i];
+	}
 
-			ExponentialDistribution rng = new ExponentialDistribution(poissonMean);
-			while(virtualTime < simulationTime) {
-				double interval = rng.sample();
+	@Override
+	public boolean isStreaming() {
+		return streaming;
+	}
 
-				if(interval <= 0){
-					SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + i + " time " + virtualTime);
-					continue;
-				}
-				//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + i + " time ");
-				virtualTime += interval;
-				
-				if(virtualTime > activePeriodStartTime + activePeriod){
-					activePeriodStartTime = activePeriodStartTime + activePeriod + idlePeriod;
-					virtualTime = activePeriodStartTime;
-					continue;
-				}
-				
-				taskList.add(new TaskProperty(i,randomTaskType, virtualTime, expRngList));
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		//devices without a task type do not generate tasks
+		SplittableRandom rng = deviceRandoms[deviceId];
+		if(rng == null)
+			return null;
+		
+		int taskType = taskTypeOfDevices[deviceId];
+		double[] taskProperties = settings.getTaskLookUpTable()[taskType];
+		double poissonMean = taskProperties[2];
+		double activePeriod = taskProperties[3];
+		double idlePeriod = taskProperties[4];
+		while(virtualTimes[deviceId] < simulationTime) {
+			double interval = RandomStreams.nextExponential(rng, poissonMean);
+
+			if(interval <= 0){
+				SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + deviceId + " time " + virtualTimes[deviceId]);
+				continue;
 			}
+			virtualTimes[deviceId] += interval;
+			
+			if(virtualTimes[deviceId] > activePeriodStartTimes[deviceId] + activePeriod){
+				activePeriodStartTimes[deviceId] = activePeriodStartTimes[deviceId] + activePeriod + idlePeriod;
+				virtualTimes[deviceId] = activePeriodStartTimes[deviceId];
+				continue;
+			}
+			
+			long inputFileSize = (long)RandomStreams.nextExponential(rng, taskProperties[5]);
+			long outputFileSize = (long)RandomStreams.nextExponential(rng, taskProperties[6]);
+			long length = (long)RandomStreams.nextExponential(rng, taskProperties[7]);
+			return new TaskProperty(virtualTimes[deviceId], deviceId, taskType, (int)taskProperties[8],
+					length, inputFileSize, outputFileSize);
 		}
+		return null;
 	}
 
 	@Override
@@ -101,4 +158,55 @@ public class IdleActiveLoadGenerator extends LoadGeneratorModel{
 		return taskTypeOfDevices[deviceId];
 	}
 
+	/**
+	 * returns the tasks of the devices in [from, to) sorted by start time,
+	 * the two halves are generated in parallel and merged
+	 */
+	private class DeviceTaskGeneration extends RecursiveTask<List<TaskProperty>> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+
+		DeviceTaskGeneration(int _from, int _to) {
+			from = _from;
+			to = _to;
+		}
+
+		@Override
+		protected List<TaskProperty> compute() {
+			if(to - from <= 1) {
+				List<TaskProperty> tasks = new ArrayList<TaskProperty>();
+				if(from < to) {
+					initializeDevice(from, settings.getTaskLookUpTable());
+					TaskProperty task;
+					while((task = getNextTask(from)) != null)
+						tasks.add(task);
+				}
+				return tasks;
+			}
+			int middle = (from + to) >>> 1;
+			DeviceTaskGeneration left = new DeviceTaskGeneration(from, middle);
+			left.fork();
+			List<TaskProperty> right = new DeviceTaskGeneration(middle, to).compute();
+			return merge(left.join(), right);
+		}
+	}
+
+	/**
+	 * merges the task lists sorted by start time, the task of the first list comes first on a tie
+	 */
+	private static List<TaskProperty> merge(List<TaskProperty> first, List<TaskProperty> second) {
+		List<TaskProperty> result = new ArrayList<TaskProperty>(first.size() + second.size());
+		int i = 0, j = 0;
+		while(i < first.size() && j < second.size()) {
+			if(second.get(j).getStartTime() < first.get(i).getStartTime())
+				result.add(second.get(j++));
+			else
+				result.add(first.get(i++));
+		}
+		result.addAll(first.subList(i, first.size()));
+		result.addAll(second.subList(j, second.size()));
+		return result;
+	}
+
 }
@@ -48,6 +48,22 @@ public abstract class LoadGeneratorModel {
 	 */
 	public abstract void initializeModel();
 	
+	/*
+	 * returns true if the tasks are not kept in the task list
+	 * but generated one by one via getNextTask while the simulation runs
+	 */
+	public boolean isStreaming() {
+		return false;
+	}
+	
+	/*
+	 * returns the task of the device following the previously returned one,
+	 * null if the device has no more tasks, used in streaming mode
+	 */
+	public TaskProperty getNextTask(int deviceId) {
+		return null;
+	}
+	
 	/*
 	 * returns the task type (index) that the mobile device uses
 	 */
@@ -0,0 +1,75 @@
+/*
+ * Title:        EdgeCloudSim - Task Trace Recorder
+ *
+ * Description:
+ * TaskTraceRecorder writes the tasks of a load generator model to a
+ * binary result file which can be replayed by TraceLoadGenerator.
+ * There is one fixed width record per task; the records are grouped
+ * by mobile device and sorted by start time for each device.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.boun.edgecloudsim.utils.ResultFileReader;
+import edu.boun.edgecloudsim.utils.ResultFileWriter;
+import edu.boun.edgecloudsim.utils.TaskProperty;
+
+public class TaskTraceRecorder {
+	static final String DEVICE_ID = "device_id";
+	static final String TASK_TYPE = "task_type";
+	static final String PES_NUMBER = "pes_number";
+	static final String START_TIME = "start_time";
+	static final String LENGTH = "length";
+	static final String INPUT_FILE_SIZE = "input_file_size";
+	static final String OUTPUT_FILE_SIZE = "output_file_size";
+
+	private static final String[] COLUMN_NAMES = {DEVICE_ID, TASK_TYPE, PES_NUMBER, START_TIME,
+			LENGTH, INPUT_FILE_SIZE, OUTPUT_FILE_SIZE};
+	private static final byte[] COLUMN_TYPES = {ResultFileReader.INT32, ResultFileReader.INT32, ResultFileReader.INT32,
+			ResultFileReader.FLOAT64, ResultFileReader.INT64, ResultFileReader.INT64, ResultFileReader.INT64};
+
+	/**
+	 * writes the tasks of the initialized model to the file,
+	 * the tasks of a streaming model are consumed while they are written
+	 */
+	public static void record(LoadGeneratorModel model, int numberOfMobileDevices, File file) throws IOException {
+		ResultFileWriter writer = new ResultFileWriter(file, COLUMN_NAMES, COLUMN_TYPES);
+		try {
+			if(model.isStreaming()) {
+				for(int i=0; i<numberOfMobileDevices; i++) {
+					TaskProperty task;
+					while((task = model.getNextTask(i)) != null)
+						write(writer, task);
+				}
+			}
+			else {
+				List<TaskProperty> tasks = new ArrayList<TaskProperty>(model.getTaskList());
+				tasks.sort(Comparator.comparingInt(TaskProperty::getMobileDeviceId)
+						.thenComparingDouble(TaskProperty::getStartTime));
+				for(TaskProperty task : tasks)
+					write(writer, task);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void write(ResultFileWriter writer, TaskProperty task) throws IOException {
+		writer.putInt(task.getMobileDeviceId());
+		writer.putInt(task.getTaskType());
+		writer.putInt(task.getPesNumber());
+		writer.putDouble(task.getStartTime());
+		writer.putLong(task.getLength());
+		writer.putLong(task.getInputFileSize());
+		writer.putLong(task.getOutputFileSize());
+	}
+}
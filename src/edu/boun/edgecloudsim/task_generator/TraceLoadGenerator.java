@@ -0,0 +1,168 @@
+/*
+ * Title:        EdgeCloudSim - Trace Load Generator
+ *
+ * Description:
+ * TraceLoadGenerator replays the tasks of a binary trace file written by
+ * TaskTraceRecorder. The file is memory mapped and the tasks are read
+ * while the simulation runs, so only the position of the next task of
+ * each device is kept in memory.
+ *
+ * If the trace file does not exist, it is recorded from the given load
+ * generator model first. The file is published atomically, so the runs
+ * which are executed at the same time replay the same workload.
+ *
+ * The trace does not store the settings it is recorded with, therefore the
+ * scenario factory names it by the settings which shape the workload. The
+ * task types are checked against the applications of the current settings
+ * before the trace is replayed.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.task_generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import edu.boun.edgecloudsim.core.SimulationContext;
+import edu.boun.edgecloudsim.utils.ResultFileReader;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.TaskProperty;
+
+public class TraceLoadGenerator extends LoadGeneratorModel {
+	private final File traceFile;
+	private final LoadGeneratorModel recordedModel;
+	private final int numOfTaskTypes;
+
+	private ResultFileReader reader;
+	private int deviceIdColumn, taskTypeColumn, pesNumberColumn, startTimeColumn;
+	private int lengthColumn, inputFileSizeColumn, outputFileSizeColumn;
+
+	//records of device i are in [nextRecords[i], endRecords[i])
+	private long[] nextRecords;
+	private long[] endRecords;
+	private int[] taskTypeOfDevices;
+
+	/**
+	 * recordedModel is used to record the trace if the trace file does not exist
+	 */
+	public TraceLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario,
+			File _traceFile, LoadGeneratorModel _recordedModel, SimulationContext context) {
+		super(_numberOfMobileDevices, _simulationTime, _simScenario);
+		traceFile = _traceFile;
+		recordedModel = _recordedModel;
+		numOfTaskTypes = context.getSettings().getTaskLookUpTable().length;
+	}
+
+	@Override
+	public void initializeModel() {
+		taskList = new ArrayList<TaskProperty>();
+		try {
+			if(!traceFile.exists())
+				recordTrace();
+			reader = new ResultFileReader(traceFile);
+			//the mapped records stay readable after the file is closed
+			reader.close();
+		} catch (IOException e) {
+			SimLogger.printLine("Task trace " + traceFile + " cannot be used! " + e.getMessage() + " Terminating simulation...");
+			System.exit(1);
+		}
+
+		deviceIdColumn = getColumn(TaskTraceRecorder.DEVICE_ID);
+		taskTypeColumn = getColumn(TaskTraceRecorder.TASK_TYPE);
+		pesNumberColumn = getColumn(TaskTraceRecorder.PES_NUMBER);
+		startTimeColumn = getColumn(TaskTraceRecorder.START_TIME);
+		lengthColumn = getColumn(TaskTraceRecorder.LENGTH);
+		inputFileSizeColumn = getColumn(TaskTraceRecorder.INPUT_FILE_SIZE);
+		outputFileSizeColumn = getColumn(TaskTraceRecorder.OUTPUT_FILE_SIZE);
+
+		//find the records of each device, the tasks of the devices which are not simulated are skipped
+		nextRecords = new long[numberOfMobileDevices];
+		endRecords = new long[numberOfMobileDevices];
+		taskTypeOfDevices = new int[numberOfMobileDevices];
+		int lastDeviceId = -1;
+		double lastStartTime = 0;
+		for(long record=0; record<reader.getNumOfRecords(); record++) {
+			reader.seek(record);
+			int deviceId = reader.getInt(deviceIdColumn);
+			int taskType = reader.getInt(taskTypeColumn);
+			double startTime = reader.getDouble(startTimeColumn);
+			if(deviceId < lastDeviceId || (deviceId == lastDeviceId && startTime < lastStartTime)) {
+				SimLogger.printLine("Task trace " + traceFile + " is not sorted by device and start time at record " + record + "! Terminating simulation...");
+				System.exit(1);
+			}
+			if(taskType < 0 || taskType >= numOfTaskTypes) {
+				SimLogger.printLine("Task trace " + traceFile + " has task type " + taskType + " at record " + record + " but " + numOfTaskTypes + " applications are defined! Terminating simulation...");
+				System.exit(1);
+			}
+			if(deviceId != lastDeviceId && deviceId >= 0 && deviceId < numberOfMobileDevices) {
+				nextRecords[deviceId] = record;
+				taskTypeOfDevices[deviceId] = taskType;
+			}
+			if(deviceId >= 0 && deviceId < numberOfMobileDevices)
+				endRecords[deviceId] = record + 1;
+			lastDeviceId = deviceId;
+			lastStartTime = startTime;
+		}
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return true;
+	}
+
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		if(nextRecords[deviceId] >= endRecords[deviceId])
+			return null;
+		reader.seek(nextRecords[deviceId]++);
+		return new TaskProperty(reader.getDouble(startTimeColumn),
+				deviceId,
+				reader.getInt(taskTypeColumn),
+				reader.getInt(pesNumberColumn),
+				reader.getLong(lengthColumn),
+				reader.getLong(inputFileSizeColumn),
+				reader.getLong(outputFileSizeColumn));
+	}
+
+	/**
+	 * returns the task type of the first task of the device
+	 */
+	@Override
+	public int getTaskTypeOfDevice(int deviceId) {
+		return taskTypeOfDevices[deviceId];
+	}
+
+	/*
+	 * the trace is written to a temporary file which is linked to the trace file
+	 * only if no other run has created the trace file in the meantime
+	 */
+	private void recordTrace() throws IOException {
+		Path folder = traceFile.getAbsoluteFile().toPath().getParent();
+		Files.createDirectories(folder);
+		Path temporaryFile = Files.createTempFile(folder, traceFile.getName(), ".tmp");
+		try {
+			recordedModel.initializeModel();
+			TaskTraceRecorder.record(recordedModel, numberOfMobileDevices, temporaryFile.toFile());
+			Files.createLink(traceFile.toPath(), temporaryFile);
+		} catch (FileAlreadyExistsException e) {
+			//another run recorded the trace first, it is replayed instead
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private int getColumn(String name) {
+		int column = reader.getColumnIndex(name);
+		if(column == -1) {
+			SimLogger.printLine("Task trace " + traceFile + " has no " + name + " column! Terminating simulation...");
+			System.exit(1);
+		}
+		return column;
+	}
+}
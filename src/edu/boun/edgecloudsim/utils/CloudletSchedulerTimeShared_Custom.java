@@ -0,0 +1,124 @@
+/*
+ * Title:        EdgeCloudSim - Custom Time Shared Cloudlet Scheduler
+ *
+ * Description:
+ * CloudletSchedulerTimeShared_Custom keeps the CPU utilization of the VM
+ * as a running sum which is updated when a cloudlet is submitted to or
+ * finished on the VM. CloudSim computes the same value by walking all
+ * running cloudlets whenever getTotalUtilizationOfCpu is called.
+ * The registered listener is notified about every change, so that the
+ * server managers can keep their indexes up to date without scanning VMs.
+ *
+ * The utilization of a cloudlet is assumed to be constant while it is
+ * running, which is the case for CpuUtilizationModel_Custom.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+public class CloudletSchedulerTimeShared_Custom extends CloudletSchedulerTimeShared {
+	public interface UtilizationListener {
+		/*
+		 * called after the utilization of the VM at the given slot is changed
+		 */
+		public void utilizationChanged(int slot, double previousUtilization, double utilization);
+	}
+
+	private double utilization;
+	private int numOfRunningCloudlets;
+	private UtilizationListener listener;
+	private int slot;
+
+	public CloudletSchedulerTimeShared_Custom() {
+		super();
+		utilization = 0;
+		numOfRunningCloudlets = 0;
+		slot = -1;
+	}
+
+	/**
+	 * registers the listener which is notified with the given slot
+	 * whenever the utilization of this scheduler changes
+	 */
+	public void setListener(UtilizationListener _listener, int _slot) {
+		listener = _listener;
+		slot = _slot;
+	}
+
+	/**
+	 * returns the total CPU utilization of the running cloudlets
+	 */
+	public double getUtilization() {
+		return utilization;
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		double result = super.cloudletSubmit(cloudlet, fileTransferTime);
+		numOfRunningCloudlets++;
+		setUtilization(utilization + cloudlet.getUtilizationOfCpu(CloudSim.clock()));
+		return result;
+	}
+
+	@Override
+	public void cloudletFinish(ResCloudlet rcl) {
+		super.cloudletFinish(rcl);
+		numOfRunningCloudlets--;
+		//reset the sum when the VM becomes idle in order not to accumulate rounding errors
+		if(numOfRunningCloudlets == 0)
+			setUtilization(0);
+		else
+			setUtilization(utilization - rcl.getCloudlet().getUtilizationOfCpu(CloudSim.clock()));
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		Cloudlet result = super.cloudletCancel(cloudletId);
+		synchronizeUtilization();
+		return result;
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		boolean result = super.cloudletPause(cloudletId);
+		synchronizeUtilization();
+		return result;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		double result = super.cloudletResume(cloudletId);
+		synchronizeUtilization();
+		return result;
+	}
+
+	@Override
+	public Cloudlet migrateCloudlet() {
+		Cloudlet result = super.migrateCloudlet();
+		synchronizeUtilization();
+		return result;
+	}
+
+	/*
+	 * recalculates the running sum from the cloudlet list,
+	 * used by the operations which are not on the hot path
+	 */
+	private void synchronizeUtilization() {
+		numOfRunningCloudlets = getCloudletExecList().size();
+		setUtilization(super.getTotalUtilizationOfCpu(CloudSim.clock()));
+	}
+
+	private void setUtilization(double _utilization) {
+		double previousUtilization = utilization;
+		utilization = _utilization;
+		if(listener != null && previousUtilization != utilization)
+			listener.utilizationChanged(slot, previousUtilization, utilization);
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Title:        EdgeCloudSim - Deep Log Writer
+ *
+ * Description:
+ * DeepLogWriter writes the result of every finished task to the _SUCCESS.log
+ * and _FAIL.log files without blocking the simulation thread on file IO.
+ * The simulation thread copies the fields of the task into a bounded ring
+ * buffer of primitive records; a background thread formats the records and
+ * writes them to the files in large batches through FileChannels.
+ *
+ * If the ring buffer is full, the simulation thread waits for the background
+ * thread to free some space, so no record is dropped. The lines are written
+ * in the same format and order as they were written by SimLogger before.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.SimLogger.TASK_STATUS;
+
+class DeepLogWriter {
+	private static final int CAPACITY = 1 << 16; //number of records in the ring buffer
+	private static final int BATCH_SIZE = 1 << 20; //size of the write buffers in bytes
+	private static final int MAX_LINE_LENGTH = 1024;
+	private static final long IDLE_WAIT = 1000000; //1 ms in nanoseconds
+
+	//integer fields of a record
+	private static final int TASK_ID = 0, DEVICE_ID = 1, DATACENTER_ID = 2, HOST_ID = 3, VM_ID = 4,
+			VM_TYPE = 5, TASK_TYPE = 6, TASK_LENGTH = 7, TASK_INPUT_TYPE = 8, TASK_OUTPUT_SIZE = 9, STATUS = 10;
+	private static final int INT_STRIDE = 11;
+
+	//double fields of a record
+	private static final int START_TIME = 0, END_TIME = 1, NETWORK_DELAY = 2, WLAN_DELAY = 3,
+			MAN_DELAY = 4, WAN_DELAY = 5, GSM_DELAY = 6;
+	private static final int DOUBLE_STRIDE = 7;
+
+	private static final TASK_STATUS[] STATUS_VALUES = TASK_STATUS.values();
+
+	private final int[] ints = new int[CAPACITY * INT_STRIDE];
+	private final double[] doubles = new double[CAPACITY * DOUBLE_STRIDE];
+
+	//sequence numbers of the next record to be written and to be added
+	private volatile long head = 0;
+	private volatile long tail = 0;
+	private volatile boolean closed = false;
+	private volatile IOException failure = null;
+
+	private final FileChannel successChannel;
+	private final FileChannel failChannel;
+	private final ByteBuffer successBuffer = ByteBuffer.allocateDirect(BATCH_SIZE);
+	private final ByteBuffer failBuffer = ByteBuffer.allocateDirect(BATCH_SIZE);
+	private final StringBuilder line = new StringBuilder(MAX_LINE_LENGTH);
+	private final String lineSeparator = System.lineSeparator();
+
+	private final Thread producer;
+	private final Thread consumer;
+
+	/**
+	 * opens the files in append mode and writes their headers
+	 */
+	DeepLogWriter(File successFile, File failFile) throws IOException {
+		successChannel = FileChannel.open(successFile.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		failChannel = FileChannel.open(failFile.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+		appendLine(successBuffer, "#auto generated file!");
+		appendLine(failBuffer, "#auto generated file!");
+
+		producer = Thread.currentThread();
+		consumer = new Thread(this::run, "DeepLogWriter-" + successFile.getName());
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+
+	/**
+	 * copies the result of the task at the given slot of the store into the
+	 * ring buffer, waits for the background thread if the buffer is full
+	 */
+	void append(TaskLogStore taskLog, int slot) throws IOException {
+		long sequence = tail;
+		while(sequence - head >= CAPACITY) {
+			checkFailure();
+			LockSupport.unpark(consumer);
+			LockSupport.parkNanos(this, IDLE_WAIT);
+		}
+		checkFailure();
+
+		int i = (int)(sequence & (CAPACITY - 1)) * INT_STRIDE;
+		ints[i + TASK_ID] = taskLog.getTaskId(slot);
+		ints[i + DEVICE_ID] = taskLog.getDeviceId(slot);
+		ints[i + DATACENTER_ID] = taskLog.getDatacenterId(slot);
+		ints[i + HOST_ID] = taskLog.getHostId(slot);
+		ints[i + VM_ID] = taskLog.getVmId(slot);
+		ints[i + VM_TYPE] = taskLog.getVmType(slot);
+		ints[i + TASK_TYPE] = taskLog.getTaskType(slot);
+		ints[i + TASK_LENGTH] = taskLog.getTaskLength(slot);
+		ints[i + TASK_INPUT_TYPE] = taskLog.getTaskInputType(slot);
+		ints[i + TASK_OUTPUT_SIZE] = taskLog.getTaskOutputSize(slot);
+		ints[i + STATUS] = taskLog.getStatus(slot).ordinal();
+
+		int d = (int)(sequence & (CAPACITY - 1)) * DOUBLE_STRIDE;
+		doubles[d + START_TIME] = taskLog.getStartTime(slot);
+		doubles[d + END_TIME] = taskLog.getEndTime(slot);
+		doubles[d + NETWORK_DELAY] = taskLog.getNetworkDelay(slot);
+		doubles[d + WLAN_DELAY] = taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WLAN_DELAY);
+		doubles[d + MAN_DELAY] = taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.MAN_DELAY);
+		doubles[d + WAN_DELAY] = taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WAN_DELAY);
+		doubles[d + GSM_DELAY] = taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.GSM_DELAY);
+
+		//publish the record, wake the background thread up once a batch is ready
+		tail = sequence + 1;
+		if(sequence - head == CAPACITY / 4)
+			LockSupport.unpark(consumer);
+	}
+
+	/**
+	 * writes the remaining records, closes the files and
+	 * throws the first IO error of the background thread if any
+	 */
+	void close() throws IOException {
+		closed = true;
+		LockSupport.unpark(consumer);
+		try {
+			consumer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while closing the deep log files", e);
+		}
+		checkFailure();
+	}
+
+	private void checkFailure() throws IOException {
+		if(failure != null)
+			throw failure;
+	}
+
+	private void run() {
+		try {
+			while(true) {
+				boolean finished = closed;
+				long available = tail;
+				long sequence = head;
+				if(sequence == available) {
+					//write the collected lines before waiting for new records
+					flush(successChannel, successBuffer);
+					flush(failChannel, failBuffer);
+					if(finished)
+						break;
+					LockSupport.parkNanos(this, IDLE_WAIT);
+					continue;
+				}
+
+				for(; sequence < available; sequence++) {
+					format(sequence);
+					//the record can be reused as soon as it is formatted
+					head = sequence + 1;
+				}
+				LockSupport.unpark(producer);
+			}
+		} catch (IOException e) {
+			failure = e;
+		} finally {
+			try {
+				successChannel.close();
+				failChannel.close();
+			} catch (IOException e) {
+				if(failure == null)
+					failure = e;
+			}
+		}
+	}
+
+	private void format(long sequence) throws IOException {
+		int i = (int)(sequence & (CAPACITY - 1)) * INT_STRIDE;
+		int d = (int)(sequence & (CAPACITY - 1)) * DOUBLE_STRIDE;
+		TASK_STATUS status = STATUS_VALUES[ints[i + STATUS]];
+
+		line.setLength(0);
+		line.append(ints[i + TASK_ID]).append(SimSettings.DELIMITER)
+			.append(ints[i + DEVICE_ID]).append(SimSettings.DELIMITER)
+			.append(ints[i + DATACENTER_ID]).append(SimSettings.DELIMITER)
+			.append(ints[i + HOST_ID]).append(SimSettings.DELIMITER)
+			.append(ints[i + VM_ID]).append(SimSettings.DELIMITER)
+			.append(ints[i + VM_TYPE]).append(SimSettings.DELIMITER)
+			.append(ints[i + TASK_TYPE]).append(SimSettings.DELIMITER)
+			.append(ints[i + TASK_LENGTH]).append(SimSettings.DELIMITER)
+			.append(ints[i + TASK_INPUT_TYPE]).append(SimSettings.DELIMITER)
+			.append(ints[i + TASK_OUTPUT_SIZE]).append(SimSettings.DELIMITER)
+			.append(doubles[d + START_TIME]).append(SimSettings.DELIMITER)
+			.append(doubles[d + END_TIME]).append(SimSettings.DELIMITER);
+
+		if (status == TASK_STATUS.COMLETED){
+			line.append(doubles[d + NETWORK_DELAY]).append(SimSettings.DELIMITER)
+				.append(doubles[d + WLAN_DELAY]).append(SimSettings.DELIMITER)
+				.append(doubles[d + MAN_DELAY]).append(SimSettings.DELIMITER)
+				.append(doubles[d + WAN_DELAY]).append(SimSettings.DELIMITER)
+				.append(doubles[d + GSM_DELAY]);
+		}
+		else if (status == TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
+			line.append("1"); // failure reason 1
+		else if (status == TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
+			line.append("2"); // failure reason 2
+		else if (status == TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
+			line.append("3"); // failure reason 3
+		else if (status == TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
+			line.append("4"); // failure reason 4
+		else if (status == TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE)
+			line.append("5"); // failure reason 5
+		else
+			line.append("0"); // default failure reason
+
+		if (status == TASK_STATUS.COMLETED) {
+			if(successBuffer.remaining() < MAX_LINE_LENGTH)
+				flush(successChannel, successBuffer);
+			appendLine(successBuffer, line);
+		}
+		else {
+			if(failBuffer.remaining() < MAX_LINE_LENGTH)
+				flush(failChannel, failBuffer);
+			appendLine(failBuffer, line);
+		}
+	}
+
+	/*
+	 * the lines only contain ASCII characters
+	 */
+	private void appendLine(ByteBuffer buffer, CharSequence text) {
+		for(int i=0; i<text.length(); i++)
+			buffer.put((byte)text.charAt(i));
+		for(int i=0; i<lineSeparator.length(); i++)
+			buffer.put((byte)lineSeparator.charAt(i));
+	}
+
+	private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Title:        EdgeCloudSim - Event Profiler
+ *
+ * Description:
+ * EventProfiler measures where the wall clock time of a simulation goes.
+ * The event handlers of the entities and the calls of the handlers to the
+ * subsystems (mobility, network, orchestrator, logger etc.) are enclosed
+ * in begin()/end(section) pairs. For each section the number of calls,
+ * the inclusive and the exclusive (self) nanoTime, a histogram of the
+ * inclusive time and the bytes allocated by the thread are collected.
+ * The time spent outside of the profiled event handlers is reported as
+ * CloudSim internals and the other entities (datacenters, VM scheduling,
+ * the event queue).
+ *
+ * The profiler is enabled by -Dedgecloudsim.profiler=true. Since ENABLED
+ * is a static final field, the JIT compiler removes the calls when it is
+ * disabled and only the check of the constant remains.
+ *
+ * The sections are supposed to be entered by the thread running the event
+ * loop only. The state is static, so each SimulationClassLoader has its own.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class EventProfiler {
+	public static final boolean ENABLED = Boolean.getBoolean("edgecloudsim.profiler");
+
+	private static final int MAX_DEPTH = 16;
+	private static final int HISTOGRAM_SUB_BUCKET_BITS = 5;
+
+	private static final List<String> names = new ArrayList<String>();
+	private static long[] counts = new long[0];
+	private static long[] totalNanos = new long[0];
+	private static long[] selfNanos = new long[0];
+	private static long[] totalBytes = new long[0];
+	private static long[] selfBytes = new long[0];
+	private static LogHistogram[] histograms = new LogHistogram[0];
+
+	//the sections entered but not ended yet
+	private static int depth;
+	private static final long[] startNanos = new long[MAX_DEPTH];
+	private static final long[] startBytes = new long[MAX_DEPTH];
+	private static final long[] childNanos = new long[MAX_DEPTH];
+	private static final long[] childBytes = new long[MAX_DEPTH];
+
+	private static long profileStartNanos;
+	private static long profileStartBytes;
+	private static long topLevelNanos;
+	private static long topLevelBytes;
+
+	private static final com.sun.management.ThreadMXBean allocationBean = ENABLED ? getAllocationBean() : null;
+
+	public static final int MOBILITY = registerSection("[mobility]");
+	public static final int NETWORK = registerSection("[network]");
+	public static final int ORCHESTRATOR = registerSection("[orchestrator]");
+	public static final int LOGGER = registerSection("[logger]");
+	public static final int LOAD_GENERATOR = registerSection("[load generator]");
+	public static final int SERVER_MANAGERS = registerSection("[server managers]");
+	public static final int UNKNOWN_EVENT = registerSection("unknown event");
+
+	/**
+	 * returns the id of a new section having the given name
+	 */
+	public static synchronized int registerSection(String name) {
+		int section = names.size();
+		names.add(name);
+		counts = grow(counts);
+		totalNanos = grow(totalNanos);
+		selfNanos = grow(selfNanos);
+		totalBytes = grow(totalBytes);
+		selfBytes = grow(selfBytes);
+		histograms = Arrays.copyOf(histograms, section + 1);
+		histograms[section] = new LogHistogram(HISTOGRAM_SUB_BUCKET_BITS);
+		return section;
+	}
+
+	/**
+	 * registers a section for each event tag of the owner entity,
+	 * the section of the i-th tag is the i-th element of the returned array
+	 */
+	public static int[] registerEvents(String owner, String... tagNames) {
+		int[] sections = new int[tagNames.length];
+		for(int i=0; i<tagNames.length; i++)
+			sections[i] = registerSection(owner + "." + tagNames[i]);
+		return sections;
+	}
+
+	/**
+	 * clears the collected values, the wall clock time of the report starts here
+	 */
+	public static void reset() {
+		if(!ENABLED)
+			return;
+
+		for(int i=0; i<names.size(); i++) {
+			counts[i] = totalNanos[i] = selfNanos[i] = totalBytes[i] = selfBytes[i] = 0;
+			histograms[i] = new LogHistogram(HISTOGRAM_SUB_BUCKET_BITS);
+		}
+		depth = 0;
+		topLevelNanos = topLevelBytes = 0;
+		profileStartBytes = getAllocatedBytes();
+		profileStartNanos = System.nanoTime();
+	}
+
+	/**
+	 * enters a section, the section is given when it is ended
+	 */
+	public static void begin() {
+		if(!ENABLED)
+			return;
+
+		startBytes[depth] = getAllocatedBytes();
+		childNanos[depth] = 0;
+		childBytes[depth] = 0;
+		startNanos[depth++] = System.nanoTime();
+	}
+
+	/**
+	 * ends the last section entered by begin()
+	 */
+	public static void end(int section) {
+		if(!ENABLED)
+			return;
+
+		long elapsed = System.nanoTime() - startNanos[--depth];
+		long allocated = getAllocatedBytes() - startBytes[depth];
+		counts[section]++;
+		totalNanos[section] += elapsed;
+		selfNanos[section] += elapsed - childNanos[depth];
+		totalBytes[section] += allocated;
+		selfBytes[section] += allocated - childBytes[depth];
+		histograms[section].record(elapsed);
+
+		if(depth > 0) {
+			childNanos[depth-1] += elapsed;
+			childBytes[depth-1] += allocated;
+		}
+		else {
+			topLevelNanos += elapsed;
+			topLevelBytes += allocated;
+		}
+	}
+
+	/**
+	 * ends the section of the event handler, the index is the position of the
+	 * tag in the array returned by registerEvents()
+	 */
+	public static void end(int[] eventSections, int index) {
+		if(!ENABLED)
+			return;
+
+		end(index >= 0 && index < eventSections.length ? eventSections[index] : UNKNOWN_EVENT);
+	}
+
+	/**
+	 * prints the breakdown of the wall clock time since reset(), the sections
+	 * which are not ended yet (e.g. the event handler calling this method)
+	 * are not included
+	 */
+	public static void printReport() {
+		if(!ENABLED)
+			return;
+
+		long endNanos = depth > 0 ? startNanos[0] : System.nanoTime();
+		long endBytes = depth > 0 ? startBytes[0] : getAllocatedBytes();
+		long wallNanos = Math.max(1, endNanos - profileStartNanos);
+		long otherNanos = wallNanos - topLevelNanos;
+		long otherBytes = endBytes - profileStartBytes - topLevelBytes;
+
+		List<Integer> sections = new ArrayList<Integer>();
+		for(int i=0; i<names.size(); i++)
+			if(counts[i] > 0)
+				sections.add(i);
+		sections.sort(Comparator.comparingLong((Integer i) -> selfNanos[i]).reversed());
+
+		String otherName = "CloudSim internals and other entities";
+		int nameWidth = otherName.length();
+		for(int i : sections)
+			nameWidth = Math.max(nameWidth, names.get(i).length());
+		String nameFormat = "%-" + nameWidth + "s";
+
+		SimLogger.printLine("Event profile (" + String.format("%.1f", wallNanos / 1e6) + " ms wall clock time, "
+				+ (allocationBean == null ? "allocation is not measured" : "self allocation is given in MB, B/op is inclusive") + ")");
+		SimLogger.printLine(String.format(nameFormat + " %10s %10s %10s %6s %9s %9s %9s %9s %10s %9s %9s",
+				"section", "count", "total ms", "self ms", "self %", "mean us", "p50 us", "p90 us", "p99 us", "max us", "alloc MB", "B/op"));
+		for(int i : sections) {
+			LogHistogram histogram = histograms[i];
+			SimLogger.printLine(String.format(nameFormat + " %10d %10.1f %10.1f %6.2f %9.2f %9.2f %9.2f %9.2f %10.2f %9.1f %9.0f",
+					names.get(i), counts[i], totalNanos[i] / 1e6, selfNanos[i] / 1e6, 100.0 * selfNanos[i] / wallNanos,
+					histogram.getMean() / 1e3, histogram.getPercentile(50) / 1e3, histogram.getPercentile(90) / 1e3,
+					histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3,
+					selfBytes[i] / (1024.0 * 1024.0), (double)totalBytes[i] / counts[i]));
+		}
+		SimLogger.printLine(String.format(nameFormat + " %10s %10.1f %10.1f %6.2f %9s %9s %9s %9s %10s %9.1f %9s",
+				otherName, "-", otherNanos / 1e6, otherNanos / 1e6, 100.0 * otherNanos / wallNanos,
+				"-", "-", "-", "-", "-", otherBytes / (1024.0 * 1024.0), "-"));
+	}
+
+	private static long getAllocatedBytes() {
+		return allocationBean == null ? 0 : allocationBean.getCurrentThreadAllocatedBytes();
+	}
+
+	private static com.sun.management.ThreadMXBean getAllocationBean() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if(!(threadBean instanceof com.sun.management.ThreadMXBean))
+			return null;
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)threadBean;
+		if(!bean.isThreadAllocatedMemorySupported())
+			return null;
+		bean.setThreadAllocatedMemoryEnabled(true);
+		return bean;
+	}
+
+	private static long[] grow(long[] array) {
+		return Arrays.copyOf(array, array.length + 1);
+	}
+}
@@ -0,0 +1,285 @@
+/*
+ * Title:        EdgeCloudSim - KPI Time Series
+ *
+ * Description:
+ * KpiTimeSeries divides the simulated time into tumbling windows and keeps
+ * the following values of the tasks finished in each window for all tiers,
+ * edge, cloud and mobile: number of completed tasks, number of failed
+ * tasks, mean service time and the WINDOW_PERCENTILES of the service time.
+ * The number of completed tasks using the MAN and the WAN and their mean
+ * delays are kept for each window as well.
+ *
+ * The values are updated when a task finishes. The service times of the
+ * open window are counted in LogHistograms which are reset when the next
+ * window starts, so the closed windows only keep primitive values in ring
+ * buffers. The memory depends on the number of windows, not on the number
+ * of tasks. If more windows than the capacity are recorded, the oldest
+ * windows are overwritten.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class KpiTimeSeries {
+	//percentiles of the service time kept for each window
+	public static final double[] WINDOW_PERCENTILES = {50, 90, 99};
+
+	//tiers in the order of the columns
+	private static final String[] TIERS = {"all", "edge", "cloud", "mobile"};
+	private static final int ALL_TIERS = 0, EDGE_TIER = 1, CLOUD_TIER = 2, MOBILE_TIER = 3;
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final long HIGHEST_TRACKABLE_VALUE = 1L << 36; //microseconds, about 19 hours
+
+	private final double windowSize;
+	private final int capacity;
+
+	//ring buffers indexed by (window % capacity) and tier
+	private final int[] completedTasks;
+	private final int[] failedTasks;
+	private final double[] serviceTimes;
+	private final double[] serviceTimePercentiles; //WINDOW_PERCENTILES.length values per window and tier
+
+	//ring buffers indexed by (window % capacity)
+	private final int[] manUsage;
+	private final double[] manDelays;
+	private final int[] wanUsage;
+	private final double[] wanDelays;
+
+	//service times of the open window for each tier
+	private final LogHistogram[] openWindowServiceTimes;
+
+	private long firstWindow = 0;
+	private long openWindow = 0;
+
+	/**
+	 * creates the time series for the windows of the given size (in seconds),
+	 * the capacity is the number of windows kept in memory
+	 */
+	public KpiTimeSeries(double _windowSize, int _capacity) {
+		if(_windowSize <= 0 || _capacity <= 0)
+			throw new IllegalArgumentException("window size and capacity of the time series must be positive");
+
+		windowSize = _windowSize;
+		capacity = _capacity;
+
+		completedTasks = new int[capacity * TIERS.length];
+		failedTasks = new int[capacity * TIERS.length];
+		serviceTimes = new double[capacity * TIERS.length];
+		serviceTimePercentiles = new double[capacity * TIERS.length * WINDOW_PERCENTILES.length];
+
+		manUsage = new int[capacity];
+		manDelays = new double[capacity];
+		wanUsage = new int[capacity];
+		wanDelays = new double[capacity];
+
+		openWindowServiceTimes = new LogHistogram[TIERS.length];
+		for(int i=0; i<TIERS.length; i++)
+			openWindowServiceTimes[i] = new LogHistogram(SUB_BUCKET_BITS, HIGHEST_TRACKABLE_VALUE);
+	}
+
+	public double getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * records a task finished at the given time, the service time and the network
+	 * delays (in seconds) are only used for the completed tasks, a zero delay means
+	 * that the related network is not used
+	 */
+	public void record(double time, int vmType, boolean completed, double serviceTime, double manDelay, double wanDelay) {
+		//the tasks finish in the order of the simulation time, a late task is counted in the open window
+		long window = Math.max(openWindow, (long)(time / windowSize));
+		if(window > openWindow)
+			moveTo(window);
+
+		int tier = EDGE_TIER;
+		if(vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+			tier = CLOUD_TIER;
+		else if(vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+			tier = MOBILE_TIER;
+
+		int slot = (int)(window % capacity);
+		int allIndex = slot * TIERS.length + ALL_TIERS;
+		int tierIndex = slot * TIERS.length + tier;
+
+		if(!completed) {
+			failedTasks[allIndex]++;
+			failedTasks[tierIndex]++;
+			return;
+		}
+
+		completedTasks[allIndex]++;
+		completedTasks[tierIndex]++;
+		serviceTimes[allIndex] += serviceTime;
+		serviceTimes[tierIndex] += serviceTime;
+		long value = Math.round(serviceTime * 1e6);
+		openWindowServiceTimes[ALL_TIERS].record(value);
+		openWindowServiceTimes[tier].record(value);
+
+		if(manDelay != 0) {
+			manUsage[slot]++;
+			manDelays[slot] += manDelay;
+		}
+		if(wanDelay != 0) {
+			wanUsage[slot]++;
+			wanDelays[slot] += wanDelay;
+		}
+	}
+
+	/**
+	 * writes a line for each window: start time of the window;completed tasks;failed tasks;
+	 * mean service time;service time percentiles for each tier;MAN usage;mean MAN delay;
+	 * WAN usage;mean WAN delay
+	 */
+	public void write(File file) throws IOException {
+		closeOpenWindow();
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+			writer.write("#auto generated file!");
+			writer.newLine();
+			StringBuilder line = new StringBuilder();
+			for(long window = firstWindow; window <= openWindow; window++) {
+				int slot = (int)(window % capacity);
+				line.setLength(0);
+				line.append(window * windowSize);
+				for(int tier=0; tier<TIERS.length; tier++) {
+					int index = slot * TIERS.length + tier;
+					line.append(SimSettings.DELIMITER).append(completedTasks[index])
+						.append(SimSettings.DELIMITER).append(failedTasks[index])
+						.append(SimSettings.DELIMITER).append(getMean(serviceTimes[index], completedTasks[index]));
+					for(int p=0; p<WINDOW_PERCENTILES.length; p++)
+						line.append(SimSettings.DELIMITER).append(serviceTimePercentiles[index * WINDOW_PERCENTILES.length + p]);
+				}
+				line.append(SimSettings.DELIMITER).append(manUsage[slot])
+					.append(SimSettings.DELIMITER).append(getMean(manDelays[slot], manUsage[slot]))
+					.append(SimSettings.DELIMITER).append(wanUsage[slot])
+					.append(SimSettings.DELIMITER).append(getMean(wanDelays[slot], wanUsage[slot]));
+				writer.write(line.toString());
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * writes the windows as a binary result file, see write(File) for the columns
+	 */
+	public void write(ResultFileWriter writer) throws IOException {
+		closeOpenWindow();
+		for(long window = firstWindow; window <= openWindow; window++) {
+			int slot = (int)(window % capacity);
+			writer.putDouble(window * windowSize);
+			for(int tier=0; tier<TIERS.length; tier++) {
+				int index = slot * TIERS.length + tier;
+				writer.putInt(completedTasks[index]);
+				writer.putInt(failedTasks[index]);
+				writer.putDouble(getMean(serviceTimes[index], completedTasks[index]));
+				for(int p=0; p<WINDOW_PERCENTILES.length; p++)
+					writer.putDouble(serviceTimePercentiles[index * WINDOW_PERCENTILES.length + p]);
+			}
+			writer.putInt(manUsage[slot]);
+			writer.putDouble(getMean(manDelays[slot], manUsage[slot]));
+			writer.putInt(wanUsage[slot]);
+			writer.putDouble(getMean(wanDelays[slot], wanUsage[slot]));
+		}
+	}
+
+	/**
+	 * returns the column names of the binary result file
+	 */
+	public static String[] getColumnNames() {
+		String[] names = new String[getNumOfColumns()];
+		int column = 0;
+		names[column++] = "time";
+		for(String tier : TIERS) {
+			names[column++] = tier + "_completed";
+			names[column++] = tier + "_failed";
+			names[column++] = tier + "_service_time";
+			for(double percentile : WINDOW_PERCENTILES)
+				names[column++] = tier + "_service_time_p" + (int)percentile;
+		}
+		names[column++] = "man_usage";
+		names[column++] = "man_delay";
+		names[column++] = "wan_usage";
+		names[column++] = "wan_delay";
+		return names;
+	}
+
+	/**
+	 * returns the column types of the binary result file
+	 */
+	public static byte[] getColumnTypes() {
+		byte[] types = new byte[getNumOfColumns()];
+		int column = 0;
+		types[column++] = ResultFileReader.FLOAT64;
+		for(int tier=0; tier<TIERS.length; tier++) {
+			types[column++] = ResultFileReader.INT32;
+			types[column++] = ResultFileReader.INT32;
+			for(int i=0; i<=WINDOW_PERCENTILES.length; i++)
+				types[column++] = ResultFileReader.FLOAT64;
+		}
+		types[column++] = ResultFileReader.INT32;
+		types[column++] = ResultFileReader.FLOAT64;
+		types[column++] = ResultFileReader.INT32;
+		types[column++] = ResultFileReader.FLOAT64;
+		return types;
+	}
+
+	private static int getNumOfColumns() {
+		return 1 + TIERS.length * (3 + WINDOW_PERCENTILES.length) + 4;
+	}
+
+	private static double getMean(double sum, int count) {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * closes the open window and clears the slots of the windows up to the given one
+	 */
+	private void moveTo(long window) {
+		closeOpenWindow();
+		for(long w = Math.max(openWindow + 1, window - capacity + 1); w <= window; w++)
+			clear((int)(w % capacity));
+		openWindow = window;
+		firstWindow = Math.max(firstWindow, window - capacity + 1);
+	}
+
+	/**
+	 * keeps the percentiles of the open window and resets its histograms
+	 */
+	private void closeOpenWindow() {
+		int slot = (int)(openWindow % capacity);
+		for(int tier=0; tier<TIERS.length; tier++) {
+			LogHistogram histogram = openWindowServiceTimes[tier];
+			if(histogram.getCount() == 0)
+				continue;
+			int index = (slot * TIERS.length + tier) * WINDOW_PERCENTILES.length;
+			for(int p=0; p<WINDOW_PERCENTILES.length; p++)
+				serviceTimePercentiles[index + p] = histogram.getPercentile(WINDOW_PERCENTILES[p]) / 1e6;
+			histogram.reset();
+		}
+	}
+
+	private void clear(int slot) {
+		for(int tier=0; tier<TIERS.length; tier++) {
+			int index = slot * TIERS.length + tier;
+			completedTasks[index] = 0;
+			failedTasks[index] = 0;
+			serviceTimes[index] = 0;
+			for(int p=0; p<WINDOW_PERCENTILES.length; p++)
+				serviceTimePercentiles[index * WINDOW_PERCENTILES.length + p] = 0;
+		}
+		manUsage[slot] = 0;
+		manDelays[slot] = 0;
+		wanUsage[slot] = 0;
+		wanDelays[slot] = 0;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Title:        EdgeCloudSim - Latency Histograms
+ *
+ * Description:
+ * LatencyHistograms keeps a LogHistogram of the service time, processing
+ * time, upload delay and download delay of the completed tasks for each
+ * app type and each tier (mobile, edge, cloud). The values are recorded
+ * in microseconds with a relative error less than 2^-SUB_BUCKET_BITS, so
+ * the tail latencies can be reported without keeping the task results.
+ * The memory is allocated when the object is created, recording a value
+ * does not allocate.
+ *
+ * The histograms of different runs (e.g. the iterations of a scenario)
+ * can be merged by add(), the histograms of a run are saved and loaded
+ * by write() and read() for this purpose.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.VM_TYPES;
+
+public class LatencyHistograms {
+	public static enum LATENCY_TYPES { SERVICE_TIME, PROCESSING_TIME, UPLOAD_DELAY, DOWNLOAD_DELAY }
+
+	//percentiles written to the generic results
+	public static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final long HIGHEST_TRACKABLE_VALUE = 1L << 36; //microseconds, about 19 hours
+	private static final int NUM_OF_LATENCY_TYPES = LATENCY_TYPES.values().length;
+	private static final int NUM_OF_VM_TYPES = VM_TYPES.values().length;
+
+	private final int numOfAppTypes;
+	private final LogHistogram[] histograms; //indexed by (latency type, vm type, app type)
+
+	public LatencyHistograms(int _numOfAppTypes) {
+		numOfAppTypes = _numOfAppTypes;
+		histograms = new LogHistogram[NUM_OF_LATENCY_TYPES * NUM_OF_VM_TYPES * numOfAppTypes];
+		for(int i=0; i<histograms.length; i++)
+			histograms[i] = new LogHistogram(SUB_BUCKET_BITS, HIGHEST_TRACKABLE_VALUE);
+	}
+
+	public int getNumOfAppTypes() {
+		return numOfAppTypes;
+	}
+
+	/**
+	 * records the latency given in seconds
+	 */
+	public void record(LATENCY_TYPES latencyType, int vmType, int appType, double latency) {
+		histograms[getIndex(latencyType, vmType, appType)].record(Math.round(latency * 1e6));
+	}
+
+	/**
+	 * returns the histogram of the values recorded in microseconds, a negative vm type
+	 * means all tiers and an app type equal to the number of app types means all apps
+	 * (like the last index of the arrays in SimLogger), the merged histograms are copies
+	 */
+	public LogHistogram getHistogram(LATENCY_TYPES latencyType, int vmType, int appType) {
+		if(vmType >= 0 && appType < numOfAppTypes)
+			return histograms[getIndex(latencyType, vmType, appType)];
+
+		LogHistogram result = new LogHistogram(SUB_BUCKET_BITS, HIGHEST_TRACKABLE_VALUE);
+		for(int v=0; v<NUM_OF_VM_TYPES; v++) {
+			if(vmType >= 0 && v != vmType)
+				continue;
+			for(int a=0; a<numOfAppTypes; a++) {
+				if(appType < numOfAppTypes && a != appType)
+					continue;
+				result.add(histograms[getIndex(latencyType, v, a)]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * returns the given percentile (0-100) in seconds, see getHistogram() for the arguments
+	 */
+	public double getPercentile(LATENCY_TYPES latencyType, int vmType, int appType, double percentile) {
+		return getHistogram(latencyType, vmType, appType).getPercentile(percentile) / 1e6;
+	}
+
+	/**
+	 * adds the values of the other histograms, e.g. of another iteration
+	 */
+	public void add(LatencyHistograms other) {
+		if(other.numOfAppTypes != numOfAppTypes)
+			throw new IllegalArgumentException("histograms of different app types cannot be added");
+		for(int i=0; i<histograms.length; i++)
+			histograms[i].add(other.histograms[i]);
+	}
+
+	/**
+	 * writes a line for each histogram: latency type;vm type;app type;encoded histogram
+	 */
+	public void write(File file) throws IOException {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+			writer.write("#auto generated file!");
+			writer.newLine();
+			for(LATENCY_TYPES latencyType : LATENCY_TYPES.values()) {
+				for(int v=0; v<NUM_OF_VM_TYPES; v++) {
+					for(int a=0; a<numOfAppTypes; a++) {
+						LogHistogram histogram = histograms[getIndex(latencyType, v, a)];
+						if(histogram.getCount() == 0)
+							continue;
+						writer.write(latencyType + SimSettings.DELIMITER + VM_TYPES.values()[v] + SimSettings.DELIMITER
+								+ a + SimSettings.DELIMITER + histogram.encode());
+						writer.newLine();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * reads the histograms written by write()
+	 */
+	public static LatencyHistograms read(File file, int numOfAppTypes) throws IOException {
+		LatencyHistograms result = new LatencyHistograms(numOfAppTypes);
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(line.isEmpty() || line.startsWith("#"))
+					continue;
+				String[] values = line.split(SimSettings.DELIMITER);
+				int index = result.getIndex(LATENCY_TYPES.valueOf(values[0]),
+						VM_TYPES.valueOf(values[1]).ordinal(), Integer.parseInt(values[2]));
+				result.histograms[index].add(LogHistogram.decode(values[3]));
+			}
+		}
+		return result;
+	}
+
+	private int getIndex(LATENCY_TYPES latencyType, int vmType, int appType) {
+		return (latencyType.ordinal() * NUM_OF_VM_TYPES + vmType) * numOfAppTypes + appType;
+	}
+}
@@ -16,9 +16,18 @@ public class Location {
 	private int yPos;
 	private int placeTypeIndex;
 	private RoadNode connectedRoadNode;
+	private int servingWlanId;
 	public Location(int _placeTypeIndex, RoadNode connectedRoadNode, int _xPos, int _yPos){
+		this(_placeTypeIndex, connectedRoadNode, connectedRoadNode.getServingWlanId(), _xPos, _yPos);
+	}
+
+	/*
+	 * Creates a Location served by an access point other than the one of the road node
+	 */
+	public Location(int _placeTypeIndex, RoadNode connectedRoadNode, int _servingWlanId, int _xPos, int _yPos){
 		this.connectedRoadNode = connectedRoadNode;
 		placeTypeIndex=_placeTypeIndex;
+		servingWlanId = _servingWlanId;
 		xPos = _xPos;
 		yPos = _yPos;
 	}
@@ -44,7 +53,7 @@ public class Location {
 	}
 
 	public int getServingWlanId(){
-		return connectedRoadNode.getServingWlanId();
+		return servingWlanId;
 	}
 	
 	public int getPlaceTypeIndex(){
@@ -0,0 +1,156 @@
+/*
+ * Title:        EdgeCloudSim - Log Histogram
+ *
+ * Description:
+ * LogHistogram counts non-negative long values in logarithmic buckets.
+ * Each power of two range is divided into 2^subBucketBits buckets, so the
+ * relative error of a percentile is at most 2^-subBucketBits while the
+ * memory does not depend on the number or the range of the values.
+ * The values less than 2^(subBucketBits+1) are counted exactly. The values
+ * above the highest trackable value are counted in the last bucket, only
+ * the maximum keeps their exact value.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.util.Arrays;
+
+public class LogHistogram {
+	private final int subBucketBits;
+	private final int subBucketCount;
+	private long[] counts;
+	private long totalCount;
+	private long min = Long.MAX_VALUE;
+	private long max;
+	private double sum;
+
+	public LogHistogram(int _subBucketBits) {
+		this(_subBucketBits, Long.MAX_VALUE);
+	}
+
+	public LogHistogram(int _subBucketBits, long highestTrackableValue) {
+		subBucketBits = _subBucketBits;
+		subBucketCount = 1 << subBucketBits;
+		counts = new long[getIndex(highestTrackableValue) + 1];
+	}
+
+	/**
+	 * counts the value, negative values are counted as 0
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		counts[Math.min(getIndex(value), counts.length - 1)]++;
+		totalCount++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * adds the values of the other histogram which must have the same number of sub-buckets
+	 */
+	public void add(LogHistogram other) {
+		if(other.subBucketBits != subBucketBits || other.counts.length != counts.length)
+			throw new IllegalArgumentException("histograms having different resolutions cannot be added");
+		for(int i=0; i<counts.length; i++)
+			counts[i] += other.counts[i];
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * removes all values, the memory is reused
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+		sum = 0;
+	}
+
+	public long getCount() {
+		return totalCount;
+	}
+
+	public long getMin() {
+		return totalCount == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return totalCount == 0 ? 0 : sum / totalCount;
+	}
+
+	/**
+	 * returns the highest value of the bucket containing the given percentile (0-100)
+	 */
+	public long getPercentile(double percentile) {
+		if(totalCount == 0)
+			return 0;
+		long rank = Math.max(1, (long)Math.ceil(percentile / 100 * totalCount));
+		long cumulative = 0;
+		for(int i=0; i<counts.length; i++) {
+			cumulative += counts[i];
+			if(cumulative >= rank)
+				return Math.min(getHighestValue(i), max);
+		}
+		return max;
+	}
+
+	/**
+	 * returns the histogram as a single line of comma separated values,
+	 * only the non-empty buckets are written as index:count pairs
+	 */
+	public String encode() {
+		StringBuilder text = new StringBuilder();
+		text.append(subBucketBits).append(',').append(counts.length).append(',').append(totalCount)
+			.append(',').append(getMin()).append(',').append(max).append(',').append(sum);
+		for(int i=0; i<counts.length; i++)
+			if(counts[i] != 0)
+				text.append(',').append(i).append(':').append(counts[i]);
+		return text.toString();
+	}
+
+	/**
+	 * creates the histogram written by encode()
+	 */
+	public static LogHistogram decode(String text) {
+		String[] values = text.split(",");
+		LogHistogram histogram = new LogHistogram(Integer.parseInt(values[0]), 0);
+		histogram.counts = new long[Integer.parseInt(values[1])];
+		histogram.totalCount = Long.parseLong(values[2]);
+		histogram.min = histogram.totalCount == 0 ? Long.MAX_VALUE : Long.parseLong(values[3]);
+		histogram.max = Long.parseLong(values[4]);
+		histogram.sum = Double.parseDouble(values[5]);
+		for(int i=6; i<values.length; i++) {
+			int separator = values[i].indexOf(':');
+			histogram.counts[Integer.parseInt(values[i].substring(0, separator))] = Long.parseLong(values[i].substring(separator + 1));
+		}
+		return histogram;
+	}
+
+	private int getIndex(long value) {
+		if(value < subBucketCount)
+			return (int)value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+		return ((shift + 1) << subBucketBits) + (int)((value >>> shift) & (subBucketCount - 1));
+	}
+
+	private long getHighestValue(int index) {
+		int block = index >>> subBucketBits;
+		if(block == 0)
+			return index;
+		int shift = block - 1;
+		long lowest = (long)((index & (subBucketCount - 1)) | subBucketCount) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
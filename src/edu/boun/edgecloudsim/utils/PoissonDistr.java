@@ -1,7 +1,7 @@
 /*
  * Title:        EdgeCloudSim - Poisson Distribution
  * 
- * Description:  Wrapper class for colt Poisson Distribution
+ * Description:  Poisson number generator working on a random stream
  * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -9,34 +9,31 @@
 
 package edu.boun.edgecloudsim.utils;
 
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
-import cern.jet.random.Poisson;
-import cern.jet.random.engine.MersenneTwister;
-import cern.jet.random.engine.RandomEngine;
+import java.util.SplittableRandom;
 
 public class PoissonDistr {
-	Poisson poisson;
-	RandomEngine engine;
+	private final double mean;
+	private final SplittableRandom rng;
 
 	/**
-	 * Creates a new exponential number generator.
+	 * Creates a new Poisson number generator having its own unseeded stream.
 	 * 
 	 * @param mean the mean for the distribution.
  	 */
 	public PoissonDistr(double mean) {
-		engine = new MersenneTwister(new Date());
-		poisson = new Poisson(mean, engine);
-		
-		//always sleep for some milliseconds in order not to have same seed for iterative PoissonDistr construction
-		try {
-			TimeUnit.MILLISECONDS.sleep(10);
-		} catch (InterruptedException e) {
-			SimLogger.printLine("impossible is occurred! Poisson random number cannot be created!");
-			e.printStackTrace();
-			System.exit(1);
-		}
+		this(mean, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a new Poisson number generator on the given stream,
+	 * see RandomStreams for the reproducible streams.
+	 * 
+	 * @param mean the mean for the distribution.
+	 * @param rng the random stream to draw the numbers from.
+ 	 */
+	public PoissonDistr(double mean, SplittableRandom rng) {
+		this.mean = mean;
+		this.rng = rng;
 	}
 
 	/**
@@ -45,6 +42,6 @@ public class PoissonDistr {
 	 * @return the next random number in the sequence
 	 */
 	public double sample() {
-		return poisson.nextDouble();
+		return RandomStreams.nextPoisson(rng, mean);
 	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Title:        EdgeCloudSim - Random Streams
+ *
+ * Description:
+ * RandomStreams hands out independent and reproducible random number
+ * streams to the components of a simulation run. The seed of a stream is
+ * derived from the seed of the run and the name (and index) of the stream
+ * by a SplitMix64 hash, so a stream does not depend on the order in which
+ * the streams are created or used. Therefore each device can generate its
+ * workload and trajectory on its own, even in parallel, and the same seed
+ * always produces the same results.
+ *
+ * Exponential and Poisson samplers working on the streams are provided,
+ * the Poisson sampler uses inversion for small means and the transformed
+ * rejection method (PTRS) of Hormann for large means.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.util.SplittableRandom;
+
+import org.apache.commons.math3.special.Gamma;
+
+public class RandomStreams {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final double PTRS_MIN_MEAN = 10;
+
+	private final long seed;
+
+	public RandomStreams(long _seed) {
+		seed = _seed;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * returns the streams of a part of the simulation, e.g. an iteration
+	 */
+	public RandomStreams split(long key) {
+		return new RandomStreams(mix(seed, key));
+	}
+
+	/**
+	 * returns the stream of a component which is shared by all devices
+	 */
+	public SplittableRandom getStream(String component) {
+		return new SplittableRandom(mix(seed, component.hashCode()));
+	}
+
+	/**
+	 * returns the stream of a component for the device (or any other index)
+	 */
+	public SplittableRandom getStream(String component, int index) {
+		return new SplittableRandom(mix(mix(seed, component.hashCode()), index));
+	}
+
+	/**
+	 * returns an exponentially distributed number with the given mean
+	 */
+	public static double nextExponential(SplittableRandom rng, double mean) {
+		//1 - u is in (0, 1], so the logarithm is finite
+		return -mean * Math.log(1.0 - rng.nextDouble());
+	}
+
+	/**
+	 * returns a Poisson distributed number with the given mean
+	 */
+	public static int nextPoisson(SplittableRandom rng, double mean) {
+		if(mean < PTRS_MIN_MEAN) {
+			//inversion by sequential search
+			double u = rng.nextDouble();
+			double p = Math.exp(-mean);
+			double cumulative = p;
+			int k = 0;
+			while(u > cumulative && p > 0) {
+				k++;
+				p *= mean / k;
+				cumulative += p;
+			}
+			return k;
+		}
+
+		double sqrtMean = Math.sqrt(mean);
+		double logMean = Math.log(mean);
+		double b = 0.931 + 2.53 * sqrtMean;
+		double a = -0.059 + 0.02483 * b;
+		double inverseAlpha = 1.1239 + 1.1328 / (b - 3.4);
+		double vr = 0.9277 - 3.6224 / (b - 2);
+		while(true) {
+			double u = rng.nextDouble() - 0.5;
+			double v = rng.nextDouble();
+			double us = 0.5 - Math.abs(u);
+			long k = (long)Math.floor((2 * a / us + b) * u + mean + 0.43);
+			if(us >= 0.07 && v <= vr)
+				return (int)k;
+			if(k < 0 || (us < 0.013 && v > us))
+				continue;
+			if(Math.log(v * inverseAlpha / (a / (us * us) + b)) <= -mean + k * logMean - Gamma.logGamma(k + 1))
+				return (int)k;
+		}
+	}
+
+	private static long mix(long seed, long key) {
+		return mix64(seed ^ mix64(key + GOLDEN_GAMMA));
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
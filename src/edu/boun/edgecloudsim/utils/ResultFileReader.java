@@ -0,0 +1,207 @@
+/*
+ * Title:        EdgeCloudSim - Result File Reader
+ *
+ * Description:
+ * ResultFileReader memory maps a binary result file written by
+ * ResultFileWriter and reads its records without creating objects.
+ * All values are little endian. The layout of the file is:
+ *
+ *   int32  magic number ("ECSR")
+ *   int32  version
+ *   int32  header size, offset of the first record (multiple of 8)
+ *   int32  record size in bytes
+ *   int32  number of columns
+ *   for each column: int8 type, uint8 name length, ASCII name
+ *   zero padding up to the header size
+ *   fixed width records, the columns are stored in order without padding
+ *
+ * The number of records is derived from the file size. Files larger than
+ * 2 GB are mapped in several segments, a record never spans two segments.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+public class ResultFileReader implements AutoCloseable {
+	public static final byte INT32 = 1;
+	public static final byte FLOAT64 = 2;
+	public static final byte INT64 = 3;
+
+	static final int MAGIC = 0x52534345; //"ECSR" in little endian
+	static final int VERSION = 1;
+	static final int COLUMNS_OFFSET = 20;
+
+	private final FileChannel channel;
+	private final String[] columnNames;
+	private final byte[] columnTypes;
+	private final int[] columnOffsets;
+	private final int recordSize;
+	private final long numOfRecords;
+	private final int recordsPerSegment;
+	private final MappedByteBuffer[] segments;
+
+	//position of the iterator
+	private long record = -1;
+	private ByteBuffer segment;
+	private int offset;
+
+	public ResultFileReader(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(COLUMNS_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(header, 0);
+			if(header.getInt(0) != MAGIC)
+				throw new IOException(file + " is not a result file!");
+			if(header.getInt(4) != VERSION)
+				throw new IOException("unsupported result file version " + header.getInt(4) + " in " + file);
+			int headerSize = header.getInt(8);
+			recordSize = header.getInt(12);
+			int numOfColumns = header.getInt(16);
+
+			header = ByteBuffer.allocate(headerSize - COLUMNS_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(header, COLUMNS_OFFSET);
+			header.flip();
+			columnNames = new String[numOfColumns];
+			columnTypes = new byte[numOfColumns];
+			columnOffsets = new int[numOfColumns];
+			int columnOffset = 0;
+			for(int i=0; i<numOfColumns; i++) {
+				columnTypes[i] = header.get();
+				byte[] name = new byte[header.get() & 0xFF];
+				header.get(name);
+				columnNames[i] = new String(name, StandardCharsets.US_ASCII);
+				columnOffsets[i] = columnOffset;
+				columnOffset += getColumnSize(columnTypes[i]);
+			}
+			if(columnOffset != recordSize)
+				throw new IOException("record size does not match the columns in " + file);
+
+			numOfRecords = recordSize == 0 ? 0 : (channel.size() - headerSize) / recordSize;
+			recordsPerSegment = recordSize == 0 ? 1 : Integer.MAX_VALUE / recordSize;
+			int numOfSegments = (int)((numOfRecords + recordsPerSegment - 1) / recordsPerSegment);
+			segments = new MappedByteBuffer[numOfSegments];
+			for(int i=0; i<numOfSegments; i++) {
+				long first = (long)i * recordsPerSegment;
+				long count = Math.min(recordsPerSegment, numOfRecords - first);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, headerSize + first * recordSize, count * recordSize);
+				segments[i].order(ByteOrder.LITTLE_ENDIAN);
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public long getNumOfRecords() {
+		return numOfRecords;
+	}
+
+	public int getNumOfColumns() {
+		return columnNames.length;
+	}
+
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+
+	public byte getColumnType(int column) {
+		return columnTypes[column];
+	}
+
+	/**
+	 * returns the index of the column having the given name, -1 if there is no such column
+	 */
+	public int getColumnIndex(String name) {
+		for(int i=0; i<columnNames.length; i++)
+			if(columnNames[i].equals(name))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * moves the iterator to the next record, returns false after the last record
+	 */
+	public boolean next() {
+		if(record + 1 >= numOfRecords)
+			return false;
+		seek(record + 1);
+		return true;
+	}
+
+	/**
+	 * moves the iterator to the given record
+	 */
+	public void seek(long _record) {
+		if(_record < 0 || _record >= numOfRecords)
+			throw new IndexOutOfBoundsException("record " + _record + " of " + numOfRecords);
+		record = _record;
+		segment = segments[(int)(record / recordsPerSegment)];
+		offset = (int)(record % recordsPerSegment) * recordSize;
+	}
+
+	/**
+	 * returns the value of the INT32 column of the current record
+	 */
+	public int getInt(int column) {
+		return segment.getInt(offset + columnOffsets[column]);
+	}
+
+	/**
+	 * returns the value of the INT64 column of the current record
+	 */
+	public long getLong(int column) {
+		return segment.getLong(offset + columnOffsets[column]);
+	}
+
+	/**
+	 * returns the value of the FLOAT64 column of the current record
+	 */
+	public double getDouble(int column) {
+		return segment.getDouble(offset + columnOffsets[column]);
+	}
+
+	/**
+	 * returns the value of the column of the current record as double
+	 */
+	public double getValue(int column) {
+		if(columnTypes[column] == INT32)
+			return getInt(column);
+		else if(columnTypes[column] == INT64)
+			return getLong(column);
+		return getDouble(column);
+	}
+
+	/**
+	 * closes the file, the records can still be read since they are already mapped
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	static int getColumnSize(byte type) {
+		if(type == INT32)
+			return 4;
+		else if(type == FLOAT64 || type == INT64)
+			return 8;
+		throw new IllegalArgumentException("unknown column type " + type);
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("unexpected end of result file!");
+		}
+	}
+}
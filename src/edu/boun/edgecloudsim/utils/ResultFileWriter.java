@@ -0,0 +1,121 @@
+/*
+ * Title:        EdgeCloudSim - Result File Writer
+ *
+ * Description:
+ * ResultFileWriter writes the simulation results as fixed width little
+ * endian records, so that they can be memory mapped and read without
+ * parsing text. The file starts with a small header describing the
+ * columns, see ResultFileReader for the layout. The records are appended
+ * column by column and written in batches through a FileChannel.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+public class ResultFileWriter {
+	private static final int BATCH_SIZE = 1 << 16; //size of the write buffer in bytes
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final byte[] columnTypes;
+	private final int recordSize;
+	private int column;
+
+	/**
+	 * creates the file and writes its header, columnTypes are
+	 * ResultFileReader.INT32, ResultFileReader.INT64 or ResultFileReader.FLOAT64
+	 */
+	public ResultFileWriter(File file, String[] columnNames, byte[] columnTypes) throws IOException {
+		if(columnNames.length != columnTypes.length)
+			throw new IllegalArgumentException("number of column names and types are different!");
+
+		this.columnTypes = columnTypes.clone();
+		int size = 0;
+		int headerSize = ResultFileReader.COLUMNS_OFFSET;
+		for(int i=0; i<columnTypes.length; i++) {
+			size += ResultFileReader.getColumnSize(columnTypes[i]);
+			headerSize += 2 + columnNames[i].getBytes(StandardCharsets.US_ASCII).length;
+		}
+		recordSize = size;
+		headerSize = (headerSize + 7) & ~7;
+
+		buffer = ByteBuffer.allocate(Math.max(BATCH_SIZE, Math.max(headerSize, recordSize))).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(ResultFileReader.MAGIC);
+		buffer.putInt(ResultFileReader.VERSION);
+		buffer.putInt(headerSize);
+		buffer.putInt(recordSize);
+		buffer.putInt(columnTypes.length);
+		for(int i=0; i<columnTypes.length; i++) {
+			byte[] name = columnNames[i].getBytes(StandardCharsets.US_ASCII);
+			if(name.length > 255)
+				throw new IllegalArgumentException("column name is too long: " + columnNames[i]);
+			buffer.put(columnTypes[i]);
+			buffer.put((byte)name.length);
+			buffer.put(name);
+		}
+		while(buffer.position() < headerSize)
+			buffer.put((byte)0);
+
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * appends the value of the next column which must be an INT32 column
+	 */
+	public void putInt(int value) throws IOException {
+		nextColumn(ResultFileReader.INT32);
+		buffer.putInt(value);
+	}
+
+	/**
+	 * appends the value of the next column which must be an INT64 column
+	 */
+	public void putLong(long value) throws IOException {
+		nextColumn(ResultFileReader.INT64);
+		buffer.putLong(value);
+	}
+
+	/**
+	 * appends the value of the next column which must be a FLOAT64 column
+	 */
+	public void putDouble(double value) throws IOException {
+		nextColumn(ResultFileReader.FLOAT64);
+		buffer.putDouble(value);
+	}
+
+	/**
+	 * writes the buffered records and closes the file
+	 */
+	public void close() throws IOException {
+		if(column != 0)
+			throw new IllegalStateException("the last record is not completed!");
+		flush();
+		channel.close();
+	}
+
+	private void nextColumn(byte type) throws IOException {
+		if(columnTypes[column] != type)
+			throw new IllegalStateException("column " + column + " is not of type " + type);
+		if(column == 0 && buffer.remaining() < recordSize)
+			flush();
+		column = (column + 1) % columnTypes.length;
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
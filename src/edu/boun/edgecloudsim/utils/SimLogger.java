@@ -11,8 +11,9 @@
  * IMPORTANT NOTES:
  * EdgeCloudSim is designed to perform file logging operations with
  * a low memory consumption. Deep file logging is performed whenever
- * a task is completed. This may cause too many file IO operation and
- * increase the time consumption!
+ * a task is completed. The task results are handed to DeepLogWriter,
+ * which writes them in batches on a background thread, so that the
+ * file IO operations do not block the simulation.
  * 
  * The basic results are kept in the memory, and saved to the files
  * at the end of the simulation. So, basic file logging does
@@ -33,15 +34,14 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
+import java.io.PrintStream;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimulationContext;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.LatencyHistograms.LATENCY_TYPES;
 import edu.boun.edgecloudsim.utils.SimLogger.NETWORK_ERRORS;
 
 public class SimLogger {
@@ -60,19 +60,24 @@ public class SimLogger {
 	private long endTime;
 	private static boolean fileLogEnabled;
 	private static boolean printLogEnabled;
+	private static PrintStream printStream = System.out;
 	private String filePrefix;
 	private String outputFolder;
-	private Map<Integer, LogItem> taskMap;
-	private LinkedList<VmLoadLogItem> vmLoadList;
-	private LinkedList<ApDelayLogItem> apDelayList;
+	private SimulationContext context;
+	private SimSettings settings;
+	private TaskLogStore taskLog;
+	private TimeSeriesStore vmLoadStore;
+	private TimeSeriesStore apUploadDelayStore;
+	private TimeSeriesStore apDownloadDelayStore;
+	private TimeSeriesStore locationStore;
+	private final double[] vmLoadSample = new double[3];
 
 	private static SimLogger singleton = new SimLogger();
 	
 	private int numOfAppTypes;
 	
 	private File successFile = null, failFile = null;
-	private FileWriter successFW = null, failFW = null;
-	private BufferedWriter successBW = null, failBW = null;
+	private DeepLogWriter deepLogWriter = null;
 
 	// extract following values for each app type.
 	// last index is average of all app types
@@ -129,12 +134,25 @@ public class SimLogger {
 	
 	private double[] orchestratorOverhead = null;
 
+	// latency distributions of the completed tasks for each app type and tier
+	private LatencyHistograms latencyHistograms = null;
+
+	// KPIs of the finished tasks in the windows of the simulated time, null if disabled
+	private KpiTimeSeries kpiTimeSeries = null;
+
+	// number of the tasks finished after the warm up period for each status
+	private int[] numOfTasksByStatus = null;
+
+	// results of the last VM utilization sample
+	private double lastLoadOnEdge;
+	private double lastLoadOnCloud;
+	private double lastLoadOnMobile;
+
 	/*
-	 * A private Constructor prevents any other class from instantiating.
+	 * getInstance() provides the shared logger, separate loggers
+	 * can be created for the simulations having their own context
 	 */
-	private SimLogger() {
-		fileLogEnabled = false;
-		printLogEnabled = false;
+	public SimLogger() {
 	}
 
 	/* Static 'instance' method */
@@ -162,10 +180,56 @@ public class SimLogger {
 		printLogEnabled = false;
 	}
 	
+	/**
+	 * redirects the console output of the simulation to the given stream
+	 * it is used to keep the outputs of concurrently running scenarios apart
+	 */
+	public static void setPrintStream(PrintStream stream) {
+		printStream = stream;
+	}
+
 	public String getOutputFolder() {
 		return outputFolder;
 	}
 
+	public String getFilePrefix() {
+		return filePrefix;
+	}
+
+	/**
+	 * returns the number of the tasks which are created but not finished yet
+	 */
+	public int getNumOfInFlightTasks() {
+		return taskLog.size();
+	}
+
+	/**
+	 * returns the number of the tasks finished with the given status after the warm up period
+	 */
+	public int getNumOfTasks(TASK_STATUS status) {
+		return numOfTasksByStatus[status.ordinal()];
+	}
+
+	/**
+	 * returns the latency histograms of the completed tasks, they can be merged with
+	 * the histograms of the other iterations after the simulation is stopped
+	 */
+	public LatencyHistograms getLatencyHistograms() {
+		return latencyHistograms;
+	}
+
+	public double getLastLoadOnEdge() {
+		return lastLoadOnEdge;
+	}
+
+	public double getLastLoadOnCloud() {
+		return lastLoadOnCloud;
+	}
+
+	public double getLastLoadOnMobile() {
+		return lastLoadOnMobile;
+	}
+
 	private void appendToFile(BufferedWriter bw, String line) throws IOException {
 		bw.write(line);
 		bw.newLine();
@@ -173,36 +237,70 @@ public class SimLogger {
 
 	public static void printLine(String msg) {
 		if (printLogEnabled)
-			System.out.println(msg);
+			printStream.println(msg);
 	}
 
 	public static void print(String msg) {
 		if (printLogEnabled)
-			System.out.print(msg);
+			printStream.print(msg);
 	}
 
 	public void simStarted(String outFolder, String fileName) {
+		simStarted(new SimulationContext(SimSettings.getInstance(), this), outFolder, fileName);
+	}
+
+	public void simStarted(SimulationContext _context, String outFolder, String fileName) {
+		context = _context;
+		settings = context.getSettings();
 		startTime = System.currentTimeMillis();
 		filePrefix = fileName;
 		outputFolder = outFolder;
-		taskMap = new HashMap<Integer, LogItem>();
-		vmLoadList = new LinkedList<VmLoadLogItem>();
-		apDelayList = new LinkedList<ApDelayLogItem>();
+		taskLog = new TaskLogStore(1024);
+		
+		numOfAppTypes = settings.getTaskLookUpTable().length;
+		
+		// the periodic samples are streamed to the result files while the simulation runs
+		int numOfAccessPoints = settings.getNumOfEdgeDatacenters();
+		String[] apColumns = new String[numOfAccessPoints];
+		byte[] apIntTypes = new byte[numOfAccessPoints];
+		byte[] apDoubleTypes = new byte[numOfAccessPoints];
+		for (int i = 0; i < numOfAccessPoints; i++) {
+			apColumns[i] = "ap" + i;
+			apIntTypes[i] = ResultFileReader.INT32;
+			apDoubleTypes[i] = ResultFileReader.FLOAT64;
+		}
+		double downsamplingInterval = settings.getLogDownsamplingInterval();
+		vmLoadStore = new TimeSeriesStore(new String[] {"edge_load", "cloud_load", "mobile_load"},
+				new byte[] {ResultFileReader.FLOAT64, ResultFileReader.FLOAT64, ResultFileReader.FLOAT64}, downsamplingInterval);
+		locationStore = new TimeSeriesStore(apColumns, apIntTypes, downsamplingInterval);
+		apUploadDelayStore = new TimeSeriesStore(apColumns, apDoubleTypes, downsamplingInterval);
+		apDownloadDelayStore = new TimeSeriesStore(apColumns, apDoubleTypes, downsamplingInterval);
 		
-		numOfAppTypes = SimSettings.getInstance().getTaskLookUpTable().length;
+		if (fileLogEnabled) {
+			try {
+				if (settings.getBinaryFileLoggingEnabled()) {
+					vmLoadStore.openBinaryFile(new File(outputFolder, filePrefix + "_VM_LOAD.bin"));
+					locationStore.openBinaryFile(new File(outputFolder, filePrefix + "_LOCATION.bin"));
+					apUploadDelayStore.openBinaryFile(new File(outputFolder, filePrefix + "_AP_UPLOAD_DELAY.bin"));
+					apDownloadDelayStore.openBinaryFile(new File(outputFolder, filePrefix + "_AP_DOWNLOAD_DELAY.bin"));
+				}
+				else {
+					vmLoadStore.openTextFile(new File(outputFolder, filePrefix + "_VM_LOAD.log"));
+					locationStore.openTextFile(new File(outputFolder, filePrefix + "_LOCATION.log"));
+					apUploadDelayStore.openTextFile(new File(outputFolder, filePrefix + "_AP_UPLOAD_DELAY.log"));
+					apDownloadDelayStore.openTextFile(new File(outputFolder, filePrefix + "_AP_DOWNLOAD_DELAY.log"));
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
 		
-		if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
+		if (settings.getDeepFileLoggingEnabled()) {
 			try {
 				successFile = new File(outputFolder, filePrefix + "_SUCCESS.log");
-				successFW = new FileWriter(successFile, true);
-				successBW = new BufferedWriter(successFW);
-
 				failFile = new File(outputFolder, filePrefix + "_FAIL.log");
-				failFW = new FileWriter(failFile, true);
-				failBW = new BufferedWriter(failFW);
-				
-				appendToFile(successBW, "#auto generated file!");
-				appendToFile(failBW, "#auto generated file!");
+				deepLogWriter = new DeepLogWriter(successFile, failFile);
 			} catch (IOException e) {
 				e.printStackTrace();
 				System.exit(1);
@@ -263,87 +361,157 @@ public class SimLogger {
 		refectedTaskDuetoWlanRange = new int[numOfAppTypes + 1];
 
 		orchestratorOverhead = new double[numOfAppTypes + 1];
+
+		latencyHistograms = new LatencyHistograms(numOfAppTypes);
+		kpiTimeSeries = null;
+		if (settings.getKpiWindowSize() > 0) {
+			int numOfWindows = (int) Math.ceil(settings.getSimulationTime() / settings.getKpiWindowSize()) + 1;
+			kpiTimeSeries = new KpiTimeSeries(settings.getKpiWindowSize(), numOfWindows);
+		}
+		numOfTasksByStatus = new int[TASK_STATUS.values().length];
+		lastLoadOnEdge = lastLoadOnCloud = lastLoadOnMobile = 0;
 	}
 
 	public void addLog(int deviceId, int taskId, int taskType,
 			int taskLenght, int taskInputType, int taskOutputSize) {
 		// printLine(taskId+"->"+taskStartTime);
-		taskMap.put(taskId, new LogItem(deviceId, taskType, taskLenght, taskInputType, taskOutputSize));
+		EventProfiler.begin();
+		taskLog.add(taskId, deviceId, taskType, taskLenght, taskInputType, taskOutputSize);
+		EventProfiler.end(EventProfiler.LOGGER);
 	}
 
 	public void taskStarted(int taskId, double time) {
-		taskMap.get(taskId).taskStarted(time);
+		taskLog.taskStarted(taskLog.slotOf(taskId), time, settings.getWarmUpPeriod());
 	}
 
 	public void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setUploadDelay(delay, delayType);
+		taskLog.setUploadDelay(taskLog.slotOf(taskId), delay, delayType);
 	}
 
 	public void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setDownloadDelay(delay, delayType);
+		taskLog.setDownloadDelay(taskLog.slotOf(taskId), delay, delayType);
 	}
 	
 	public void taskAssigned(int taskId, int datacenterId, int hostId, int vmId, int vmType) {
-		taskMap.get(taskId).taskAssigned(datacenterId, hostId, vmId, vmType);
+		taskLog.taskAssigned(taskLog.slotOf(taskId), datacenterId, hostId, vmId, vmType);
 	}
 
 	public void taskExecuted(int taskId) {
-		taskMap.get(taskId).taskExecuted();
+		taskLog.setStatus(taskLog.slotOf(taskId), TASK_STATUS.DOWNLOADING);
 	}
 
 	public void taskEnded(int taskId, double time) {
-		taskMap.get(taskId).taskEnded(time);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.taskFinished(slot, time, TASK_STATUS.COMLETED);
+		recordLog(slot);
 	}
 
 	public void rejectedDueToVMCapacity(int taskId, double time, int vmType) {
-		taskMap.get(taskId).taskRejectedDueToVMCapacity(time, vmType);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.setVmType(slot, vmType);
+		taskLog.taskFinished(slot, time, TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY);
+		recordLog(slot);
 	}
 
     public void rejectedDueToWlanCoverage(int taskId, double time, int vmType) {
-    	taskMap.get(taskId).taskRejectedDueToWlanCoverage(time, vmType);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.setVmType(slot, vmType);
+		taskLog.taskFinished(slot, time, TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE);
+		recordLog(slot);
     }
     
 	public void rejectedDueToBandwidth(int taskId, double time, int vmType, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskRejectedDueToBandwidth(time, vmType, delayType);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.setVmType(slot, vmType);
+		taskLog.setNetworkError(slot, delayType);
+		taskLog.taskFinished(slot, time, TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH);
+		recordLog(slot);
 	}
 
 	public void failedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskFailedDueToBandwidth(time, delayType);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.setNetworkError(slot, delayType);
+		taskLog.taskFinished(slot, time, TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH);
+		recordLog(slot);
 	}
 
 	public void failedDueToMobility(int taskId, double time) {
-		taskMap.get(taskId).taskFailedDueToMobility(time);
-		recordLog(taskId);
+		int slot = taskLog.slotOf(taskId);
+		taskLog.taskFinished(slot, time, TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY);
+		recordLog(slot);
 	}
 
 	public void setQoE(int taskId, double QoE){
-		taskMap.get(taskId).setQoE(QoE);
+		taskLog.setQoE(taskLog.slotOf(taskId), QoE);
 	}
 	
 	public void setOrchestratorOverhead(int taskId, double overhead){
-		taskMap.get(taskId).setOrchestratorOverhead(overhead);
+		taskLog.setOrchestratorOverhead(taskLog.slotOf(taskId), overhead);
 	}
 
 	public void addVmUtilizationLog(double time, double loadOnEdge, double loadOnCloud, double loadOnMobile) {
-		if(SimSettings.getInstance().getLocationLogInterval() != 0)
-			vmLoadList.add(new VmLoadLogItem(time, loadOnEdge, loadOnCloud, loadOnMobile));
+		EventProfiler.begin();
+		lastLoadOnEdge = loadOnEdge;
+		lastLoadOnCloud = loadOnCloud;
+		lastLoadOnMobile = loadOnMobile;
+		if(settings.getLocationLogInterval() != 0) {
+			vmLoadSample[0] = loadOnEdge;
+			vmLoadSample[1] = loadOnCloud;
+			vmLoadSample[2] = loadOnMobile;
+			try {
+				vmLoadStore.add(time, vmLoadSample);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+		EventProfiler.end(EventProfiler.LOGGER);
 	}
 
 	public void addApDelayLog(double time, double[] apUploadDelays, double[] apDownloadDelays) {
-		if(SimSettings.getInstance().getApDelayLogInterval() != 0)
-			apDelayList.add(new ApDelayLogItem(time, apUploadDelays, apDownloadDelays));
+		EventProfiler.begin();
+		if(settings.getApDelayLogInterval() != 0) {
+			try {
+				apUploadDelayStore.add(time, apUploadDelays);
+				apDownloadDelayStore.add(time, apDownloadDelays);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+		EventProfiler.end(EventProfiler.LOGGER);
+	}
+
+	/**
+	 * records the number of devices served by each access point at the given time
+	 */
+	public void addLocationLog(double time, int[] numOfDevicesOnAp) {
+		EventProfiler.begin();
+		if(settings.getLocationLogInterval() != 0) {
+			try {
+				locationStore.add(time, numOfDevicesOnAp);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+		EventProfiler.end(EventProfiler.LOGGER);
 	}
 	
 	public void simStopped() throws IOException {
 		endTime = System.currentTimeMillis();
-		File vmLoadFile = null, locationFile = null, apUploadDelayFile = null, apDownloadDelayFile = null;
-		FileWriter vmLoadFW = null, locationFW = null, apUploadDelayFW = null, apDownloadDelayFW = null;
-		BufferedWriter vmLoadBW = null, locationBW = null, apUploadDelayBW = null, apDownloadDelayBW = null;
+
+		// wait for the pending task results to be written
+		if (deepLogWriter != null) {
+			deepLogWriter.close();
+			deepLogWriter = null;
+		}
+
+		// write the remaining samples
+		vmLoadStore.close();
+		locationStore.close();
+		apUploadDelayStore.close();
+		apDownloadDelayStore.close();
 
 		// Save generic results to file for each app type. last index is average
 		// of all app types
@@ -351,33 +519,16 @@ public class SimLogger {
 		FileWriter[] genericFWs = new FileWriter[numOfAppTypes + 1];
 		BufferedWriter[] genericBWs = new BufferedWriter[numOfAppTypes + 1];
 
-		// open all files and prepare them for write
 		if (fileLogEnabled) {
-			vmLoadFile = new File(outputFolder, filePrefix + "_VM_LOAD.log");
-			vmLoadFW = new FileWriter(vmLoadFile, true);
-			vmLoadBW = new BufferedWriter(vmLoadFW);
-
-			locationFile = new File(outputFolder, filePrefix + "_LOCATION.log");
-			locationFW = new FileWriter(locationFile, true);
-			locationBW = new BufferedWriter(locationFW);
-
-			apUploadDelayFile = new File(outputFolder, filePrefix + "_AP_UPLOAD_DELAY.log");
-			apUploadDelayFW = new FileWriter(apUploadDelayFile, true);
-			apUploadDelayBW = new BufferedWriter(apUploadDelayFW);
-
-			apDownloadDelayFile = new File(outputFolder, filePrefix + "_AP_DOWNLOAD_DELAY.log");
-			apDownloadDelayFW = new FileWriter(apDownloadDelayFile, true);
-			apDownloadDelayBW = new BufferedWriter(apDownloadDelayFW);
-
 			for (int i = 0; i < numOfAppTypes + 1; i++) {
 				String fileName = "ALL_APPS_GENERIC.log";
 
 				if (i < numOfAppTypes) {
 					// if related app is not used in this simulation, just discard it
-					if (SimSettings.getInstance().getTaskLookUpTable()[i][0] == 0)
+					if (settings.getTaskLookUpTable()[i][0] == 0)
 						continue;
 
-					fileName = SimSettings.getInstance().getTaskName(i) + "_GENERIC.log";
+					fileName = settings.getTaskName(i) + "_GENERIC.log";
 				}
 
 				genericFiles[i] = new File(outputFolder, filePrefix + "_" + fileName);
@@ -385,24 +536,21 @@ public class SimLogger {
 				genericBWs[i] = new BufferedWriter(genericFWs[i]);
 				appendToFile(genericBWs[i], "#auto generated file!");
 			}
-
-			appendToFile(vmLoadBW, "#auto generated file!");
-			appendToFile(locationBW, "#auto generated file!");
-			appendToFile(apUploadDelayBW, "#auto generated file!");
-			appendToFile(apDownloadDelayBW, "#auto generated file!");
 		}
 
-		//the tasks in the map is not completed yet!
-		for (Map.Entry<Integer, LogItem> entry : taskMap.entrySet()) {
-			LogItem value = entry.getValue();
-
-			uncompletedTask[value.getTaskType()]++;
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				uncompletedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				uncompletedTaskOnMobile[value.getTaskType()]++;
+		//the tasks in the log store is not completed yet!
+		for (int slot = 0; slot < taskLog.capacity(); slot++) {
+			if (!taskLog.isUsed(slot))
+				continue;
+
+			int taskType = taskLog.getTaskType(slot);
+			uncompletedTask[taskType]++;
+			if (taskLog.getVmType(slot) == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				uncompletedTaskOnCloud[taskType]++;
+			else if (taskLog.getVmType(slot) == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				uncompletedTaskOnMobile[taskType]++;
 			else
-				uncompletedTaskOnEdge[value.getTaskType()]++;
+				uncompletedTaskOnEdge[taskType]++;
 		}
 
 		// calculate total values
@@ -460,55 +608,17 @@ public class SimLogger {
 		orchestratorOverhead[numOfAppTypes] = DoubleStream.of(orchestratorOverhead).sum();
 		
 		// calculate server load
-		double totalVmLoadOnEdge = 0;
-		double totalVmLoadOnCloud = 0;
-		double totalVmLoadOnMobile = 0;
-		for (VmLoadLogItem entry : vmLoadList) {
-			totalVmLoadOnEdge += entry.getEdgeLoad();
-			totalVmLoadOnCloud += entry.getCloudLoad();
-			totalVmLoadOnMobile += entry.getMobileLoad();
-			if (fileLogEnabled && SimSettings.getInstance().getVmLoadLogInterval() != 0)
-				appendToFile(vmLoadBW, entry.toString());
-		}
+		double totalVmLoadOnEdge = vmLoadStore.getSum(0);
+		double totalVmLoadOnCloud = vmLoadStore.getSum(1);
+		double totalVmLoadOnMobile = vmLoadStore.getSum(2);
+		long numOfVmLoadSamples = vmLoadStore.getNumOfSamples();
 
 		if (fileLogEnabled) {
-			// write location info to file for each location
-			// assuming each location has only one access point
-			double locationLogInterval = SimSettings.getInstance().getLocationLogInterval();
-			if(locationLogInterval != 0) {
-				for (int t = 1; t < (SimSettings.getInstance().getSimulationTime() / locationLogInterval); t++) {
-					int[] locationInfo = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];
-					Double time = t * SimSettings.getInstance().getLocationLogInterval();
-					
-					if (time < SimSettings.CLIENT_ACTIVITY_START_TIME)
-						continue;
-
-					for (int i = 0; i < SimManager.getInstance().getNumOfMobileDevice(); i++) {
-						Location loc = SimManager.getInstance().getMobilityModel().getLocation(i, time);
-						locationInfo[loc.getServingWlanId()]++;
-					}
-
-					locationBW.write(time.toString());
-					for (int i = 0; i < locationInfo.length; i++)
-						locationBW.write(SimSettings.DELIMITER + locationInfo[i]);
-
-					locationBW.newLine();
-				}
-			}
-			
-			// write delay info to file for each access point
-			if(SimSettings.getInstance().getApDelayLogInterval() != 0) {
-				for (ApDelayLogItem entry : apDelayList) {
-					appendToFile(apUploadDelayBW, entry.getUploadStat());
-					appendToFile(apDownloadDelayBW, entry.getDownloadStat());
-				}
-			}
-
 			for (int i = 0; i < numOfAppTypes + 1; i++) {
 
 				if (i < numOfAppTypes) {
 					// if related app is not used in this simulation, just discard it
-					if (SimSettings.getInstance().getTaskLookUpTable()[i][0] == 0)
+					if (settings.getTaskLookUpTable()[i][0] == 0)
 						continue;
 				}
 
@@ -517,9 +627,9 @@ public class SimLogger {
 				double _serviceTime = (completedTask[i] == 0) ? 0.0 : (serviceTime[i] / (double) completedTask[i]);
 				double _networkDelay = (completedTask[i] == 0) ? 0.0 : (networkDelay[i] / ((double) completedTask[i] - (double)completedTaskOnMobile[i]));
 				double _processingTime = (completedTask[i] == 0) ? 0.0 : (processingTime[i] / (double) completedTask[i]);
-				double _vmLoadOnEdge = (vmLoadList.size() == 0) ? 0.0 : (totalVmLoadOnEdge / (double) vmLoadList.size());
-				double _vmLoadOnClould = (vmLoadList.size() == 0) ? 0.0 : (totalVmLoadOnCloud / (double) vmLoadList.size());
-				double _vmLoadOnMobile = (vmLoadList.size() == 0) ? 0.0 : (totalVmLoadOnMobile / (double) vmLoadList.size());
+				double _vmLoadOnEdge = (numOfVmLoadSamples == 0) ? 0.0 : (totalVmLoadOnEdge / (double) numOfVmLoadSamples);
+				double _vmLoadOnClould = (numOfVmLoadSamples == 0) ? 0.0 : (totalVmLoadOnCloud / (double) numOfVmLoadSamples);
+				double _vmLoadOnMobile = (numOfVmLoadSamples == 0) ? 0.0 : (totalVmLoadOnMobile / (double) numOfVmLoadSamples);
 				double _cost = (completedTask[i] == 0) ? 0.0 : (cost[i] / (double) completedTask[i]);
 				double _QoE1 = (completedTask[i] == 0) ? 0.0 : (QoE[i] / (double) completedTask[i]);
 				double _QoE2 = (completedTask[i] == 0) ? 0.0 : (QoE[i] / (double) (failedTask[i] + completedTask[i]));
@@ -621,7 +731,7 @@ public class SimLogger {
 					appendToFile(genericBWs[i], genericResult6);
 				}
 				else {
-					printLine(SimSettings.getInstance().getTaskName(i));
+					printLine(settings.getTaskName(i));
 					printLine("# of tasks (Edge/Cloud): "
 							+ (failedTask[i] + completedTask[i]) + "("
 							+ (failedTaskOnEdge[i] + completedTaskOnEdge[i]) + "/" 
@@ -639,27 +749,37 @@ public class SimLogger {
 					
 					printLine("---------------------------------------");
 				}
+				
+				//percentiles of the latencies are appended after the other values
+				for (LATENCY_TYPES latencyType : LATENCY_TYPES.values())
+					appendToFile(genericBWs[i], getPercentileResult(latencyType, i));
 			}
 
 			// close open files
-			if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
-				successBW.close();
-				failBW.close();
-			}
-			vmLoadBW.close();
-			locationBW.close();
-			apUploadDelayBW.close();
-			apDownloadDelayBW.close();
 			for (int i = 0; i < numOfAppTypes + 1; i++) {
 				if (i < numOfAppTypes) {
 					// if related app is not used in this simulation, just
 					// discard it
-					if (SimSettings.getInstance().getTaskLookUpTable()[i][0] == 0)
+					if (settings.getTaskLookUpTable()[i][0] == 0)
 						continue;
 				}
 				genericBWs[i].close();
 			}
 			
+			// the histograms are saved to be merged with the other iterations
+			latencyHistograms.write(new File(outputFolder, filePrefix + "_LATENCY_HISTOGRAMS.log"));
+
+			if (kpiTimeSeries != null) {
+				if (settings.getBinaryFileLoggingEnabled()) {
+					ResultFileWriter kpiRF = new ResultFileWriter(new File(outputFolder, filePrefix + "_KPI_TIMESERIES.bin"),
+							KpiTimeSeries.getColumnNames(), KpiTimeSeries.getColumnTypes());
+					kpiTimeSeries.write(kpiRF);
+					kpiRF.close();
+				}
+				else {
+					kpiTimeSeries.write(new File(outputFolder, filePrefix + "_KPI_TIMESERIES.log"));
+				}
+			}
 		}
 
 		// printout important results
@@ -739,9 +859,9 @@ public class SimLogger {
 				+ String.format("%.6f", gsmDelay[numOfAppTypes] / (double) gsmUsage[numOfAppTypes]) + ")");
 
 		printLine("average server utilization Edge/Cloud/Mobile: " 
-				+ String.format("%.6f", totalVmLoadOnEdge / (double) vmLoadList.size()) + "/"
-				+ String.format("%.6f", totalVmLoadOnCloud / (double) vmLoadList.size()) + "/"
-				+ String.format("%.6f", totalVmLoadOnMobile / (double) vmLoadList.size()));
+				+ String.format("%.6f", totalVmLoadOnEdge / (double) numOfVmLoadSamples) + "/"
+				+ String.format("%.6f", totalVmLoadOnCloud / (double) numOfVmLoadSamples) + "/"
+				+ String.format("%.6f", totalVmLoadOnMobile / (double) numOfVmLoadSamples));
 
 		printLine("average cost: " + cost[numOfAppTypes] / completedTask[numOfAppTypes] + "$");
 		printLine("average overhead: " + orchestratorOverhead[numOfAppTypes] / (failedTask[numOfAppTypes] + completedTask[numOfAppTypes]) + " ns");
@@ -749,439 +869,160 @@ public class SimLogger {
 		printLine("average QoE (for executed): " + QoE[numOfAppTypes] / completedTask[numOfAppTypes] + "%");
 
 		// clear related collections (map list etc.)
-		taskMap.clear();
-		vmLoadList.clear();
-		apDelayList.clear();
+		taskLog.clear();
 	}
 	
-	private void recordLog(int taskId){
-		LogItem value = taskMap.remove(taskId);
-		
-		if (value.isInWarmUpPeriod())
+	/**
+	 * returns the percentiles of the latency for all tiers, edge, cloud and mobile in order
+	 */
+	private String getPercentileResult(LATENCY_TYPES latencyType, int appType) {
+		int[] vmTypes = {-1, SimSettings.VM_TYPES.EDGE_VM.ordinal(),
+				SimSettings.VM_TYPES.CLOUD_VM.ordinal(), SimSettings.VM_TYPES.MOBILE_VM.ordinal()};
+		StringBuilder result = new StringBuilder();
+		for (int vmType : vmTypes) {
+			LogHistogram histogram = latencyHistograms.getHistogram(latencyType, vmType, appType);
+			for (double percentile : LatencyHistograms.PERCENTILES) {
+				if (result.length() > 0)
+					result.append(SimSettings.DELIMITER);
+				result.append(Double.toString(histogram.getPercentile(percentile) / 1e6));
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * records the finished task within the logger section of the event profiler
+	 */
+	private void recordLog(int slot){
+		EventProfiler.begin();
+		recordFinishedTask(slot);
+		EventProfiler.end(EventProfiler.LOGGER);
+	}
+
+	private void recordFinishedTask(int slot){
+		// the time series covers the warm up period to show how the load ramps up
+		if (kpiTimeSeries != null) {
+			boolean completed = taskLog.getStatus(slot) == SimLogger.TASK_STATUS.COMLETED;
+			kpiTimeSeries.record(taskLog.getEndTime(slot), taskLog.getVmType(slot), completed,
+					completed ? taskLog.getServiceTime(slot) : 0,
+					taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.MAN_DELAY),
+					taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WAN_DELAY));
+		}
+
+		if (taskLog.isInWarmUpPeriod(slot)) {
+			taskLog.remove(slot);
 			return;
+		}
+
+		int taskType = taskLog.getTaskType(slot);
+		int vmType = taskLog.getVmType(slot);
+		TASK_STATUS status = taskLog.getStatus(slot);
+		numOfTasksByStatus[status.ordinal()]++;
 
-		if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED) {
-			completedTask[value.getTaskType()]++;
+		if (status == SimLogger.TASK_STATUS.COMLETED) {
+			completedTask[taskType]++;
 
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				completedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				completedTaskOnMobile[value.getTaskType()]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				completedTaskOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				completedTaskOnMobile[taskType]++;
 			else
-				completedTaskOnEdge[value.getTaskType()]++;
+				completedTaskOnEdge[taskType]++;
 		}
 		else {
-			failedTask[value.getTaskType()]++;
+			failedTask[taskType]++;
 
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				failedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				failedTaskOnMobile[value.getTaskType()]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				failedTaskOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				failedTaskOnMobile[taskType]++;
 			else
-				failedTaskOnEdge[value.getTaskType()]++;
+				failedTaskOnEdge[taskType]++;
 		}
 
-		if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED) {
-			cost[value.getTaskType()] += value.getCost();
-			QoE[value.getTaskType()] += value.getQoE();
-			serviceTime[value.getTaskType()] += value.getServiceTime();
-			networkDelay[value.getTaskType()] += value.getNetworkDelay();
-			processingTime[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
-			orchestratorOverhead[value.getTaskType()] += value.getOrchestratorOverhead();
+		if (status == SimLogger.TASK_STATUS.COMLETED) {
+			cost[taskType] += taskLog.getCost(slot);
+			QoE[taskType] += taskLog.getQoE(slot);
+			serviceTime[taskType] += taskLog.getServiceTime(slot);
+			networkDelay[taskType] += taskLog.getNetworkDelay(slot);
+			processingTime[taskType] += (taskLog.getServiceTime(slot) - taskLog.getNetworkDelay(slot));
+			orchestratorOverhead[taskType] += taskLog.getOrchestratorOverhead(slot);
 			
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY) != 0) {
-				lanUsage[value.getTaskType()]++;
-				lanDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY);
+			latencyHistograms.record(LATENCY_TYPES.SERVICE_TIME, vmType, taskType, taskLog.getServiceTime(slot));
+			if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal()) {
+				latencyHistograms.record(LATENCY_TYPES.PROCESSING_TIME, vmType, taskType, taskLog.getServiceTime(slot));
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY) != 0) {
-				manUsage[value.getTaskType()]++;
-				manDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY);
+			else {
+				latencyHistograms.record(LATENCY_TYPES.PROCESSING_TIME, vmType, taskType, taskLog.getServiceTime(slot) - taskLog.getNetworkDelay(slot));
+				latencyHistograms.record(LATENCY_TYPES.UPLOAD_DELAY, vmType, taskType, taskLog.getUploadDelay(slot));
+				latencyHistograms.record(LATENCY_TYPES.DOWNLOAD_DELAY, vmType, taskType, taskLog.getDownloadDelay(slot));
+			}
+			
+			if(taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WLAN_DELAY) != 0) {
+				lanUsage[taskType]++;
+				lanDelay[taskType] += taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WLAN_DELAY);
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY) != 0) {
-				wanUsage[value.getTaskType()]++;
-				wanDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY);
+			if(taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.MAN_DELAY) != 0) {
+				manUsage[taskType]++;
+				manDelay[taskType] += taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.MAN_DELAY);
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY) != 0) {
-				gsmUsage[value.getTaskType()]++;
-				gsmDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
+			if(taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WAN_DELAY) != 0) {
+				wanUsage[taskType]++;
+				wanDelay[taskType] += taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.WAN_DELAY);
+			}
+			if(taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.GSM_DELAY) != 0) {
+				gsmUsage[taskType]++;
+				gsmDelay[taskType] += taskLog.getNetworkDelay(slot, NETWORK_DELAY_TYPES.GSM_DELAY);
 			}
 			
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal()) {
-				serviceTimeOnCloud[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnCloud[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal()) {
+				serviceTimeOnCloud[taskType] += taskLog.getServiceTime(slot);
+				processingTimeOnCloud[taskType] += (taskLog.getServiceTime(slot) - taskLog.getNetworkDelay(slot));
 			}
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal()) {
-				serviceTimeOnMobile[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnMobile[value.getTaskType()] += value.getServiceTime();
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal()) {
+				serviceTimeOnMobile[taskType] += taskLog.getServiceTime(slot);
+				processingTimeOnMobile[taskType] += taskLog.getServiceTime(slot);
 			}
 			else {
-				serviceTimeOnEdge[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnEdge[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
+				serviceTimeOnEdge[taskType] += taskLog.getServiceTime(slot);
+				processingTimeOnEdge[taskType] += (taskLog.getServiceTime(slot) - taskLog.getNetworkDelay(slot));
 			}
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
-			failedTaskDueToVmCapacity[value.getTaskType()]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
+			failedTaskDueToVmCapacity[taskType]++;
 			
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				failedTaskDueToVmCapacityOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				failedTaskDueToVmCapacityOnMobile[value.getTaskType()]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				failedTaskDueToVmCapacityOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				failedTaskDueToVmCapacityOnMobile[taskType]++;
 			else
-				failedTaskDueToVmCapacityOnEdge[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
-				|| value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
-			failedTaskDuetoBw[value.getTaskType()]++;
-			if (value.getNetworkError() == NETWORK_ERRORS.LAN_ERROR)
-				failedTaskDuetoLanBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.MAN_ERROR)
-				failedTaskDuetoManBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.WAN_ERROR)
-				failedTaskDuetoWanBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.GSM_ERROR)
-				failedTaskDuetoGsmBw[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
-			failedTaskDuetoMobility[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE) {
-			refectedTaskDuetoWlanRange[value.getTaskType()]++;;
+				failedTaskDueToVmCapacityOnEdge[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
+				|| status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
+			failedTaskDuetoBw[taskType]++;
+			if (taskLog.getNetworkError(slot) == NETWORK_ERRORS.LAN_ERROR)
+				failedTaskDuetoLanBw[taskType]++;
+			else if (taskLog.getNetworkError(slot) == NETWORK_ERRORS.MAN_ERROR)
+				failedTaskDuetoManBw[taskType]++;
+			else if (taskLog.getNetworkError(slot) == NETWORK_ERRORS.WAN_ERROR)
+				failedTaskDuetoWanBw[taskType]++;
+			else if (taskLog.getNetworkError(slot) == NETWORK_ERRORS.GSM_ERROR)
+				failedTaskDuetoGsmBw[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
+			failedTaskDuetoMobility[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE) {
+			refectedTaskDuetoWlanRange[taskType]++;;
         }
 		
 		//if deep file logging is enabled, record every task result
-		if (SimSettings.getInstance().getDeepFileLoggingEnabled()){
+		if (settings.getDeepFileLoggingEnabled()){
 			try {
-				if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED)
-					appendToFile(successBW, value.toString(taskId));
-				else
-					appendToFile(failBW, value.toString(taskId));
+				deepLogWriter.append(taskLog, slot);
 			} catch (IOException e) {
 				e.printStackTrace();
 				System.exit(1);
 			}
 		}
-	}
-}
-
-class VmLoadLogItem {
-	private double time;
-	private double vmLoadOnEdge;
-	private double vmLoadOnCloud;
-	private double vmLoadOnMobile;
-
-	VmLoadLogItem(double _time, double _vmLoadOnEdge, double _vmLoadOnCloud, double _vmLoadOnMobile) {
-		time = _time;
-		vmLoadOnEdge = _vmLoadOnEdge;
-		vmLoadOnCloud = _vmLoadOnCloud;
-		vmLoadOnMobile = _vmLoadOnMobile;
-	}
-
-	public double getEdgeLoad() {
-		return vmLoadOnEdge;
-	}
-
-	public double getCloudLoad() {
-		return vmLoadOnCloud;
-	}
-	
-	public double getMobileLoad() {
-		return vmLoadOnMobile;
-	}
-	
-	public String toString() {
-		return time + 
-				SimSettings.DELIMITER + vmLoadOnEdge +
-				SimSettings.DELIMITER + vmLoadOnCloud +
-				SimSettings.DELIMITER + vmLoadOnMobile;
-	}
-}
-
-class ApDelayLogItem {
-	private double time;
-	private double apUploadDelays[];
-	double[] apDownloadDelays;
-	
-	ApDelayLogItem(double _time, double[] _apUploadDelays, double[] _apDownloadDelays){
-		time = _time;
-		apUploadDelays = _apUploadDelays;
-		apDownloadDelays = _apDownloadDelays;
-	}
-	
-	public String getUploadStat() {
-		String result = Double.toString(time);
-		for(int i=0; i<apUploadDelays.length; i++)
-			result += SimSettings.DELIMITER + apUploadDelays[i];
-		
-		return result;
-	}
-
-	public String getDownloadStat() {
-		String result = Double.toString(time);
-		for(int i=0; i<apDownloadDelays.length; i++)
-			result += SimSettings.DELIMITER + apDownloadDelays[i];
-		
-		return result;
-	}
-}
-
-class LogItem {
-	private SimLogger.TASK_STATUS status;
-	private SimLogger.NETWORK_ERRORS networkError;
-	private int deviceId;
-	private int datacenterId;
-	private int hostId;
-	private int vmId;
-	private int vmType;
-	private int taskType;
-	private int taskLenght;
-	private int taskInputType;
-	private int taskOutputSize;
-	private double taskStartTime;
-	private double taskEndTime;
-	private double lanUploadDelay;
-	private double manUploadDelay;
-	private double wanUploadDelay;
-	private double gsmUploadDelay;
-	private double lanDownloadDelay;
-	private double manDownloadDelay;
-	private double wanDownloadDelay;
-	private double gsmDownloadDelay;
-	private double bwCost;
-	private double cpuCost;
-	private double QoE;
-	private double orchestratorOverhead;
-	private boolean isInWarmUpPeriod;
-
-	LogItem(int _deviceId, int _taskType, int _taskLenght, int _taskInputType, int _taskOutputSize) {
-		deviceId = _deviceId;
-		taskType = _taskType;
-		taskLenght = _taskLenght;
-		taskInputType = _taskInputType;
-		taskOutputSize = _taskOutputSize;
-		networkError = NETWORK_ERRORS.NONE;
-		status = SimLogger.TASK_STATUS.CREATED;
-		taskEndTime = 0;
-	}
-	
-	public void taskStarted(double time) {
-		taskStartTime = time;
-		status = SimLogger.TASK_STATUS.UPLOADING;
-		
-		if (time < SimSettings.getInstance().getWarmUpPeriod())
-			isInWarmUpPeriod = true;
-		else
-			isInWarmUpPeriod = false;
-	}
-	
-	public void setUploadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			lanUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			manUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			wanUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			gsmUploadDelay = delay;
-	}
-	
-	public void setDownloadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			lanDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			manDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			wanDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			gsmDownloadDelay = delay;
-	}
-	
-	public void taskAssigned(int _datacenterId, int _hostId, int _vmId, int _vmType) {
-		status = SimLogger.TASK_STATUS.PROCESSING;
-		datacenterId = _datacenterId;
-		hostId = _hostId;
-		vmId = _vmId;
-		vmType = _vmType;
-	}
-
-	public void taskExecuted() {
-		status = SimLogger.TASK_STATUS.DOWNLOADING;
-	}
-
-	public void taskEnded(double time) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.COMLETED;
-	}
 
-	public void taskRejectedDueToVMCapacity(double time, int _vmType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY;
-	}
-	
-	public void taskRejectedDueToWlanCoverage(double time, int _vmType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE;
-	}
-
-	public void taskRejectedDueToBandwidth(double time, int _vmType, NETWORK_DELAY_TYPES delayType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH;
-		
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			networkError = NETWORK_ERRORS.LAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			networkError = NETWORK_ERRORS.MAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			networkError = NETWORK_ERRORS.WAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			networkError = NETWORK_ERRORS.GSM_ERROR;
-	}
-
-	public void taskFailedDueToBandwidth(double time, NETWORK_DELAY_TYPES delayType) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH;
-		
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			networkError = NETWORK_ERRORS.LAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			networkError = NETWORK_ERRORS.MAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			networkError = NETWORK_ERRORS.WAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			networkError = NETWORK_ERRORS.GSM_ERROR;
-	}
-
-	public void taskFailedDueToMobility(double time) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY;
-	}
-
-	public void setCost(double _bwCost, double _cpuCos) {
-		bwCost = _bwCost;
-		cpuCost = _cpuCos;
-	}
-	
-	public void setQoE(double qoe){
-		QoE = qoe;
-	}
-	
-	public void setOrchestratorOverhead(double overhead){
-		orchestratorOverhead = overhead;
-	}
-
-	public boolean isInWarmUpPeriod() {
-		return isInWarmUpPeriod;
-	}
-
-	public double getCost() {
-		return bwCost + cpuCost;
-	}
-
-	public double getQoE() {
-		return QoE;
-	}
-
-	public double getOrchestratorOverhead() {
-		return orchestratorOverhead;
-	}
-	
-	public double getNetworkUploadDelay(NETWORK_DELAY_TYPES delayType) {
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmUploadDelay;
-		
-		return result;
-	}
-
-	public double getNetworkDownloadDelay(NETWORK_DELAY_TYPES delayType) {
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmDownloadDelay;
-		
-		return result;
-	}
-	
-	public double getNetworkDelay(NETWORK_DELAY_TYPES delayType){
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanDownloadDelay + lanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manDownloadDelay + manUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanDownloadDelay + wanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmDownloadDelay + gsmUploadDelay;
-		
-		return result;
-	}
-	
-	public double getNetworkDelay(){
-		return  lanUploadDelay +
-				manUploadDelay +
-				wanUploadDelay +
-				gsmUploadDelay +
-				lanDownloadDelay +
-				manDownloadDelay +
-				wanDownloadDelay +
-				gsmDownloadDelay;
-	}
-	
-	public double getServiceTime() {
-		return taskEndTime - taskStartTime;
-	}
-
-	public SimLogger.TASK_STATUS getStatus() {
-		return status;
-	}
-
-	public SimLogger.NETWORK_ERRORS getNetworkError() {
-		return networkError;
-	}
-	
-	public int getVmType() {
-		return vmType;
-	}
-
-	public int getTaskType() {
-		return taskType;
-	}
-
-	public String toString(int taskId) {
-		String result = taskId + SimSettings.DELIMITER + deviceId + SimSettings.DELIMITER + datacenterId + SimSettings.DELIMITER + hostId
-				+ SimSettings.DELIMITER + vmId + SimSettings.DELIMITER + vmType + SimSettings.DELIMITER + taskType
-				+ SimSettings.DELIMITER + taskLenght + SimSettings.DELIMITER + taskInputType + SimSettings.DELIMITER
-				+ taskOutputSize + SimSettings.DELIMITER + taskStartTime + SimSettings.DELIMITER + taskEndTime
-				+ SimSettings.DELIMITER;
-
-		if (status == SimLogger.TASK_STATUS.COMLETED){
-			result += getNetworkDelay() + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
-		}
-		else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
-			result += "1"; // failure reason 1
-		else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
-			result += "2"; // failure reason 2
-		else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
-			result += "3"; // failure reason 3
-		else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
-			result += "4"; // failure reason 4
-        else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE)
-            result += "5"; // failure reason 5
-		else
-			result += "0"; // default failure reason
-		return result;
+		taskLog.remove(slot);
 	}
 }
@@ -11,32 +11,31 @@ package edu.boun.edgecloudsim.utils;
 
 import java.io.File;
 import java.util.Date;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
 
 public class SimUtils {
 
-	public static final Random RNG = new Random(System.currentTimeMillis());
-
-	public static int getRandomNumber(int start, int end) {
-		//return pd.sample();
+	/*
+	 * the random numbers are drawn from the stream of the caller,
+	 * see RandomStreams
+	 */
+	public static int getRandomNumber(SplittableRandom rng, int start, int end) {
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * rng.nextDouble());
 		return (int)(fraction + start);
 	}
 
 
-	public static double getRandomDoubleNumber(double start, double end) {
-		//return pd.sample();
+	public static double getRandomDoubleNumber(SplittableRandom rng, double start, double end) {
 		double range = end - start;
-		double fraction = (range * RNG.nextDouble());
+		double fraction = (range * rng.nextDouble());
 		return (fraction + start); 
 	}
 
-	public static long getRandomLongNumber(long start, long end) {
-		//return pd.sample();
+	public static long getRandomLongNumber(SplittableRandom rng, long start, long end) {
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * rng.nextDouble());
 		return (fraction + start); 
 	}
 
@@ -0,0 +1,370 @@
+/*
+ * Title:        EdgeCloudSim - Task Log Store
+ *
+ * Description:
+ * TaskLogStore keeps the log records of the tasks which are not finished
+ * yet in parallel primitive arrays. The record of a task is stored in the
+ * slot (taskId & mask), since the task ids are assigned sequentially the
+ * tasks in flight occupy different slots and no per-task object is created.
+ * A slot is reused after its task is removed. If the slot of a new task is
+ * still occupied by an older task, the arrays are doubled until every task
+ * in flight gets a different slot.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.SimLogger.NETWORK_ERRORS;
+import edu.boun.edgecloudsim.utils.SimLogger.TASK_STATUS;
+
+class TaskLogStore {
+	private static final int EMPTY = -1;
+	private static final int NUM_OF_DELAY_TYPES = NETWORK_DELAY_TYPES.values().length;
+	private static final TASK_STATUS[] STATUS_VALUES = TASK_STATUS.values();
+	private static final NETWORK_ERRORS[] ERROR_VALUES = NETWORK_ERRORS.values();
+
+	private int mask;
+	private int size;
+
+	private int[] taskIds;
+	private int[] deviceIds;
+	private int[] datacenterIds;
+	private int[] hostIds;
+	private int[] vmIds;
+	private int[] vmTypes;
+	private int[] taskTypes;
+	private int[] taskLengths;
+	private int[] taskInputTypes;
+	private int[] taskOutputSizes;
+	private byte[] statuses;
+	private byte[] networkErrors;
+	private boolean[] inWarmUpPeriod;
+	private double[] taskStartTimes;
+	private double[] taskEndTimes;
+	private double[] uploadDelays; //NUM_OF_DELAY_TYPES values per slot
+	private double[] downloadDelays; //NUM_OF_DELAY_TYPES values per slot
+	private double[] costs;
+	private double[] QoEs;
+	private double[] orchestratorOverheads;
+
+	TaskLogStore(int initialCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+		allocate(capacity);
+	}
+
+	/**
+	 * creates the record of the task and returns its slot
+	 */
+	int add(int taskId, int deviceId, int taskType, int taskLength, int taskInputType, int taskOutputSize) {
+		while(taskIds[taskId & mask] != EMPTY)
+			grow();
+
+		int slot = taskId & mask;
+		taskIds[slot] = taskId;
+		deviceIds[slot] = deviceId;
+		datacenterIds[slot] = 0;
+		hostIds[slot] = 0;
+		vmIds[slot] = 0;
+		vmTypes[slot] = 0;
+		taskTypes[slot] = taskType;
+		taskLengths[slot] = taskLength;
+		taskInputTypes[slot] = taskInputType;
+		taskOutputSizes[slot] = taskOutputSize;
+		statuses[slot] = (byte)TASK_STATUS.CREATED.ordinal();
+		networkErrors[slot] = (byte)NETWORK_ERRORS.NONE.ordinal();
+		inWarmUpPeriod[slot] = false;
+		taskStartTimes[slot] = 0;
+		taskEndTimes[slot] = 0;
+		for(int i=0; i<NUM_OF_DELAY_TYPES; i++) {
+			uploadDelays[slot * NUM_OF_DELAY_TYPES + i] = 0;
+			downloadDelays[slot * NUM_OF_DELAY_TYPES + i] = 0;
+		}
+		costs[slot] = 0;
+		QoEs[slot] = 0;
+		orchestratorOverheads[slot] = 0;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * returns the slot of the task, the task must be in the store
+	 */
+	int slotOf(int taskId) {
+		int slot = taskId & mask;
+		if(taskIds[slot] != taskId) {
+			SimLogger.printLine("Task #" + taskId + " is not found in the log! Terminating simulation...");
+			System.exit(1);
+		}
+		return slot;
+	}
+
+	void remove(int slot) {
+		taskIds[slot] = EMPTY;
+		size--;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return taskIds.length;
+	}
+
+	boolean isUsed(int slot) {
+		return taskIds[slot] != EMPTY;
+	}
+
+	void clear() {
+		for(int i=0; i<taskIds.length; i++)
+			taskIds[i] = EMPTY;
+		size = 0;
+	}
+
+	void taskStarted(int slot, double time, double warmUpPeriod) {
+		taskStartTimes[slot] = time;
+		statuses[slot] = (byte)TASK_STATUS.UPLOADING.ordinal();
+		inWarmUpPeriod[slot] = time < warmUpPeriod;
+	}
+
+	void setUploadDelay(int slot, double delay, NETWORK_DELAY_TYPES delayType) {
+		uploadDelays[slot * NUM_OF_DELAY_TYPES + delayType.ordinal()] = delay;
+	}
+
+	void setDownloadDelay(int slot, double delay, NETWORK_DELAY_TYPES delayType) {
+		downloadDelays[slot * NUM_OF_DELAY_TYPES + delayType.ordinal()] = delay;
+	}
+
+	void taskAssigned(int slot, int datacenterId, int hostId, int vmId, int vmType) {
+		statuses[slot] = (byte)TASK_STATUS.PROCESSING.ordinal();
+		datacenterIds[slot] = datacenterId;
+		hostIds[slot] = hostId;
+		vmIds[slot] = vmId;
+		vmTypes[slot] = vmType;
+	}
+
+	void setStatus(int slot, TASK_STATUS status) {
+		statuses[slot] = (byte)status.ordinal();
+	}
+
+	/**
+	 * moves the task to a terminal state at the given time
+	 */
+	void taskFinished(int slot, double time, TASK_STATUS status) {
+		taskEndTimes[slot] = time;
+		statuses[slot] = (byte)status.ordinal();
+	}
+
+	void setVmType(int slot, int vmType) {
+		vmTypes[slot] = vmType;
+	}
+
+	void setNetworkError(int slot, NETWORK_DELAY_TYPES delayType) {
+		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+			networkErrors[slot] = (byte)NETWORK_ERRORS.LAN_ERROR.ordinal();
+		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+			networkErrors[slot] = (byte)NETWORK_ERRORS.MAN_ERROR.ordinal();
+		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+			networkErrors[slot] = (byte)NETWORK_ERRORS.WAN_ERROR.ordinal();
+		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
+			networkErrors[slot] = (byte)NETWORK_ERRORS.GSM_ERROR.ordinal();
+	}
+
+	void setQoE(int slot, double QoE) {
+		QoEs[slot] = QoE;
+	}
+
+	void setOrchestratorOverhead(int slot, double overhead) {
+		orchestratorOverheads[slot] = overhead;
+	}
+
+	int getTaskId(int slot) {
+		return taskIds[slot];
+	}
+
+	int getDeviceId(int slot) {
+		return deviceIds[slot];
+	}
+
+	int getDatacenterId(int slot) {
+		return datacenterIds[slot];
+	}
+
+	int getHostId(int slot) {
+		return hostIds[slot];
+	}
+
+	int getVmId(int slot) {
+		return vmIds[slot];
+	}
+
+	int getTaskType(int slot) {
+		return taskTypes[slot];
+	}
+
+	int getTaskLength(int slot) {
+		return taskLengths[slot];
+	}
+
+	int getTaskInputType(int slot) {
+		return taskInputTypes[slot];
+	}
+
+	int getTaskOutputSize(int slot) {
+		return taskOutputSizes[slot];
+	}
+
+	int getVmType(int slot) {
+		return vmTypes[slot];
+	}
+
+	TASK_STATUS getStatus(int slot) {
+		return STATUS_VALUES[statuses[slot]];
+	}
+
+	NETWORK_ERRORS getNetworkError(int slot) {
+		return ERROR_VALUES[networkErrors[slot]];
+	}
+
+	boolean isInWarmUpPeriod(int slot) {
+		return inWarmUpPeriod[slot];
+	}
+
+	double getCost(int slot) {
+		return costs[slot];
+	}
+
+	double getQoE(int slot) {
+		return QoEs[slot];
+	}
+
+	double getOrchestratorOverhead(int slot) {
+		return orchestratorOverheads[slot];
+	}
+
+	double getStartTime(int slot) {
+		return taskStartTimes[slot];
+	}
+
+	double getEndTime(int slot) {
+		return taskEndTimes[slot];
+	}
+
+	double getServiceTime(int slot) {
+		return taskEndTimes[slot] - taskStartTimes[slot];
+	}
+
+	double getNetworkDelay(int slot, NETWORK_DELAY_TYPES delayType) {
+		int index = slot * NUM_OF_DELAY_TYPES + delayType.ordinal();
+		return downloadDelays[index] + uploadDelays[index];
+	}
+
+	double getNetworkDelay(int slot) {
+		int index = slot * NUM_OF_DELAY_TYPES;
+		double result = 0;
+		for(int i=0; i<NUM_OF_DELAY_TYPES; i++)
+			result += uploadDelays[index + i];
+		for(int i=0; i<NUM_OF_DELAY_TYPES; i++)
+			result += downloadDelays[index + i];
+		return result;
+	}
+
+	double getUploadDelay(int slot) {
+		int index = slot * NUM_OF_DELAY_TYPES;
+		double result = 0;
+		for(int i=0; i<NUM_OF_DELAY_TYPES; i++)
+			result += uploadDelays[index + i];
+		return result;
+	}
+
+	double getDownloadDelay(int slot) {
+		int index = slot * NUM_OF_DELAY_TYPES;
+		double result = 0;
+		for(int i=0; i<NUM_OF_DELAY_TYPES; i++)
+			result += downloadDelays[index + i];
+		return result;
+	}
+
+	private void allocate(int capacity) {
+		mask = capacity - 1;
+		taskIds = new int[capacity];
+		for(int i=0; i<capacity; i++)
+			taskIds[i] = EMPTY;
+		deviceIds = new int[capacity];
+		datacenterIds = new int[capacity];
+		hostIds = new int[capacity];
+		vmIds = new int[capacity];
+		vmTypes = new int[capacity];
+		taskTypes = new int[capacity];
+		taskLengths = new int[capacity];
+		taskInputTypes = new int[capacity];
+		taskOutputSizes = new int[capacity];
+		statuses = new byte[capacity];
+		networkErrors = new byte[capacity];
+		inWarmUpPeriod = new boolean[capacity];
+		taskStartTimes = new double[capacity];
+		taskEndTimes = new double[capacity];
+		uploadDelays = new double[capacity * NUM_OF_DELAY_TYPES];
+		downloadDelays = new double[capacity * NUM_OF_DELAY_TYPES];
+		costs = new double[capacity];
+		QoEs = new double[capacity];
+		orchestratorOverheads = new double[capacity];
+	}
+
+	/*
+	 * doubles the capacity, the tasks in flight keep distinct slots
+	 * since two ids sharing a slot of the new mask shared a slot before
+	 */
+	private void grow() {
+		int[] oldTaskIds = taskIds;
+		int[] oldDeviceIds = deviceIds;
+		int[] oldDatacenterIds = datacenterIds;
+		int[] oldHostIds = hostIds;
+		int[] oldVmIds = vmIds;
+		int[] oldVmTypes = vmTypes;
+		int[] oldTaskTypes = taskTypes;
+		int[] oldTaskLengths = taskLengths;
+		int[] oldTaskInputTypes = taskInputTypes;
+		int[] oldTaskOutputSizes = taskOutputSizes;
+		byte[] oldStatuses = statuses;
+		byte[] oldNetworkErrors = networkErrors;
+		boolean[] oldInWarmUpPeriod = inWarmUpPeriod;
+		double[] oldTaskStartTimes = taskStartTimes;
+		double[] oldTaskEndTimes = taskEndTimes;
+		double[] oldUploadDelays = uploadDelays;
+		double[] oldDownloadDelays = downloadDelays;
+		double[] oldCosts = costs;
+		double[] oldQoEs = QoEs;
+		double[] oldOrchestratorOverheads = orchestratorOverheads;
+
+		allocate(oldTaskIds.length * 2);
+		for(int from=0; from<oldTaskIds.length; from++) {
+			if(oldTaskIds[from] == EMPTY)
+				continue;
+			int to = oldTaskIds[from] & mask;
+			taskIds[to] = oldTaskIds[from];
+			deviceIds[to] = oldDeviceIds[from];
+			datacenterIds[to] = oldDatacenterIds[from];
+			hostIds[to] = oldHostIds[from];
+			vmIds[to] = oldVmIds[from];
+			vmTypes[to] = oldVmTypes[from];
+			taskTypes[to] = oldTaskTypes[from];
+			taskLengths[to] = oldTaskLengths[from];
+			taskInputTypes[to] = oldTaskInputTypes[from];
+			taskOutputSizes[to] = oldTaskOutputSizes[from];
+			statuses[to] = oldStatuses[from];
+			networkErrors[to] = oldNetworkErrors[from];
+			inWarmUpPeriod[to] = oldInWarmUpPeriod[from];
+			taskStartTimes[to] = oldTaskStartTimes[from];
+			taskEndTimes[to] = oldTaskEndTimes[from];
+			System.arraycopy(oldUploadDelays, from * NUM_OF_DELAY_TYPES, uploadDelays, to * NUM_OF_DELAY_TYPES, NUM_OF_DELAY_TYPES);
+			System.arraycopy(oldDownloadDelays, from * NUM_OF_DELAY_TYPES, downloadDelays, to * NUM_OF_DELAY_TYPES, NUM_OF_DELAY_TYPES);
+			costs[to] = oldCosts[from];
+			QoEs[to] = oldQoEs[from];
+			orchestratorOverheads[to] = oldOrchestratorOverheads[from];
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Title:        EdgeCloudSim - Time Series Store
+ *
+ * Description:
+ * TimeSeriesStore keeps the periodic samples of the simulation (e.g. VM
+ * load, number of devices on the access points) in columnar chunks of
+ * primitive values instead of an object per sample. The rows are buffered
+ * in a single chunk which is written to the result file when it is full,
+ * so the memory does not grow with the simulated time. If no result file
+ * is opened, only the statistics of the samples are kept.
+ *
+ * If a downsampling interval is given, the samples in each interval are
+ * merged into a single row having the start time of the interval and the
+ * mean, minimum and maximum of each column. The sum, minimum and maximum
+ * of each column over all samples are kept regardless of downsampling.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class TimeSeriesStore {
+	private static final int CHUNK_SIZE = 4096; //rows
+
+	private final int numOfColumns;
+	private final double downsamplingInterval;
+
+	//columns of the stored rows, the first one is the time
+	private final String[] rowColumnNames;
+	private final byte[] rowColumnTypes;
+
+	//rows which are not written yet, indexed by (column, row)
+	private double[][] chunk = null;
+	private int numOfRows;
+
+	//statistics of all samples
+	private long numOfSamples;
+	private final double[] sums;
+	private final double[] mins;
+	private final double[] maxs;
+
+	//samples of the open downsampling interval
+	private long openBucket;
+	private int bucketCount;
+	private final double[] bucketSums;
+	private final double[] bucketMins;
+	private final double[] bucketMaxs;
+
+	private final double[] sample;
+	private final double[] row;
+
+	private BufferedWriter textWriter = null;
+	private ResultFileWriter binaryWriter = null;
+
+	/**
+	 * creates the store for the given value columns, the column types are
+	 * ResultFileReader.INT32 or ResultFileReader.FLOAT64, the samples are
+	 * not downsampled if the interval (in seconds) is 0
+	 */
+	public TimeSeriesStore(String[] columnNames, byte[] columnTypes, double _downsamplingInterval) {
+		if(columnNames.length != columnTypes.length)
+			throw new IllegalArgumentException("number of column names and types are different!");
+
+		numOfColumns = columnNames.length;
+		downsamplingInterval = _downsamplingInterval;
+
+		int columnsPerValue = downsamplingInterval > 0 ? 3 : 1;
+		rowColumnNames = new String[1 + numOfColumns * columnsPerValue];
+		rowColumnTypes = new byte[rowColumnNames.length];
+		rowColumnNames[0] = "time";
+		rowColumnTypes[0] = ResultFileReader.FLOAT64;
+		for(int i=0; i<numOfColumns; i++) {
+			if(downsamplingInterval > 0) {
+				rowColumnNames[1 + 3*i] = columnNames[i] + "_mean";
+				rowColumnNames[2 + 3*i] = columnNames[i] + "_min";
+				rowColumnNames[3 + 3*i] = columnNames[i] + "_max";
+				rowColumnTypes[1 + 3*i] = ResultFileReader.FLOAT64;
+				rowColumnTypes[2 + 3*i] = columnTypes[i];
+				rowColumnTypes[3 + 3*i] = columnTypes[i];
+			}
+			else {
+				rowColumnNames[1 + i] = columnNames[i];
+				rowColumnTypes[1 + i] = columnTypes[i];
+			}
+		}
+
+		sums = new double[numOfColumns];
+		mins = new double[numOfColumns];
+		maxs = new double[numOfColumns];
+		bucketSums = new double[numOfColumns];
+		bucketMins = new double[numOfColumns];
+		bucketMaxs = new double[numOfColumns];
+		sample = new double[numOfColumns];
+		row = new double[rowColumnNames.length];
+	}
+
+	/**
+	 * opens the text result file, the rows are written as delimited lines
+	 */
+	public void openTextFile(File file) throws IOException {
+		textWriter = new BufferedWriter(new FileWriter(file, true));
+		textWriter.write("#auto generated file!");
+		textWriter.newLine();
+	}
+
+	/**
+	 * opens the binary result file, see ResultFileReader
+	 */
+	public void openBinaryFile(File file) throws IOException {
+		binaryWriter = new ResultFileWriter(file, rowColumnNames, rowColumnTypes);
+	}
+
+	public void add(double time, double[] values) throws IOException {
+		System.arraycopy(values, 0, sample, 0, numOfColumns);
+		addSample(time);
+	}
+
+	public void add(double time, int[] values) throws IOException {
+		for(int i=0; i<numOfColumns; i++)
+			sample[i] = values[i];
+		addSample(time);
+	}
+
+	/**
+	 * writes the remaining rows and closes the result file if it is opened
+	 */
+	public void close() throws IOException {
+		if(bucketCount > 0)
+			closeBucket();
+
+		if(textWriter != null || binaryWriter != null) {
+			flush();
+			if(textWriter != null)
+				textWriter.close();
+			if(binaryWriter != null)
+				binaryWriter.close();
+			textWriter = null;
+			binaryWriter = null;
+		}
+	}
+
+	public long getNumOfSamples() {
+		return numOfSamples;
+	}
+
+	public double getSum(int column) {
+		return sums[column];
+	}
+
+	public double getMin(int column) {
+		return numOfSamples == 0 ? 0 : mins[column];
+	}
+
+	public double getMax(int column) {
+		return numOfSamples == 0 ? 0 : maxs[column];
+	}
+
+	public double getMean(int column) {
+		return numOfSamples == 0 ? 0 : sums[column] / numOfSamples;
+	}
+
+	private void addSample(double time) throws IOException {
+		for(int i=0; i<numOfColumns; i++) {
+			sums[i] += sample[i];
+			mins[i] = numOfSamples == 0 ? sample[i] : Math.min(mins[i], sample[i]);
+			maxs[i] = numOfSamples == 0 ? sample[i] : Math.max(maxs[i], sample[i]);
+		}
+		numOfSamples++;
+
+		//the rows are not needed if they are not written
+		if(textWriter == null && binaryWriter == null)
+			return;
+
+		if(downsamplingInterval <= 0) {
+			row[0] = time;
+			System.arraycopy(sample, 0, row, 1, numOfColumns);
+			appendRow();
+			return;
+		}
+
+		long bucket = (long)(time / downsamplingInterval);
+		if(bucketCount > 0 && bucket != openBucket)
+			closeBucket();
+
+		openBucket = bucket;
+		for(int i=0; i<numOfColumns; i++) {
+			bucketSums[i] = bucketCount == 0 ? sample[i] : bucketSums[i] + sample[i];
+			bucketMins[i] = bucketCount == 0 ? sample[i] : Math.min(bucketMins[i], sample[i]);
+			bucketMaxs[i] = bucketCount == 0 ? sample[i] : Math.max(bucketMaxs[i], sample[i]);
+		}
+		bucketCount++;
+	}
+
+	private void closeBucket() throws IOException {
+		row[0] = openBucket * downsamplingInterval;
+		for(int i=0; i<numOfColumns; i++) {
+			row[1 + 3*i] = bucketSums[i] / bucketCount;
+			row[2 + 3*i] = bucketMins[i];
+			row[3 + 3*i] = bucketMaxs[i];
+		}
+		bucketCount = 0;
+		appendRow();
+	}
+
+	private void appendRow() throws IOException {
+		if(chunk == null)
+			chunk = new double[row.length][CHUNK_SIZE];
+		else if(numOfRows == CHUNK_SIZE)
+			flush();
+
+		for(int i=0; i<row.length; i++)
+			chunk[i][numOfRows] = row[i];
+		numOfRows++;
+	}
+
+	/**
+	 * writes the rows in memory to the result file, the chunk is reused
+	 */
+	private void flush() throws IOException {
+		StringBuilder line = new StringBuilder();
+		for(int index=0; index<numOfRows; index++) {
+			if(binaryWriter != null) {
+				for(int i=0; i<row.length; i++) {
+					if(rowColumnTypes[i] == ResultFileReader.INT32)
+						binaryWriter.putInt((int)chunk[i][index]);
+					else
+						binaryWriter.putDouble(chunk[i][index]);
+				}
+			}
+			if(textWriter != null) {
+				line.setLength(0);
+				for(int i=0; i<row.length; i++) {
+					if(i > 0)
+						line.append(SimSettings.DELIMITER);
+					if(rowColumnTypes[i] == ResultFileReader.INT32)
+						line.append((int)chunk[i][index]);
+					else
+						line.append(chunk[i][index]);
+				}
+				textWriter.write(line.toString());
+				textWriter.newLine();
+			}
+		}
+		numOfRows = 0;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Title:        EdgeCloudSim - VM Capacity Index
+ *
+ * Description:
+ * VmCapacityIndex keeps the VMs of a single VM type in an indexed max-heap
+ * ordered by the remaining CPU capacity (100 - utilization) of the VMs.
+ * The heap is updated by the CloudletSchedulerTimeShared_Custom of each VM
+ * when a cloudlet is submitted or finished, so the least loaded VM can be
+ * found in O(1) and kept up to date in O(log n) instead of scanning all VMs.
+ *
+ * VMs with the same remaining capacity are ordered by the order they are
+ * added to the index, which is the order the orchestrators used to scan them.
+ *
+ * The index also keeps the utilization sums of the VMs per host, per
+ * datacenter and in total, so that the average utilizations are O(1) reads.
+ * A sum is reset to zero whenever all of its VMs become idle, which
+ * prevents the rounding errors of the incremental updates to accumulate.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class VmCapacityIndex implements CloudletSchedulerTimeShared_Custom.UtilizationListener {
+	private final SimSettings.VM_TYPES vmType;
+	private final List<Vm> vms;
+	private double[] capacity; //remaining capacity of each slot
+	private int[] heap; //slots ordered as a binary max-heap
+	private int[] position; //position of each slot in the heap
+	private int size;
+
+	private int[] hostOf; //host index of each slot
+	private int[] datacenterOf; //datacenter index of each slot
+	private double[] hostUtilization;
+	private int[] hostNumOfVms;
+	private int[] hostNumOfBusyVms;
+	private double[] datacenterUtilization;
+	private int[] datacenterNumOfVms;
+	private int[] datacenterNumOfBusyVms;
+	private double totalUtilization;
+	private int numOfBusyVms;
+
+	public VmCapacityIndex(SimSettings.VM_TYPES _vmType) {
+		vmType = _vmType;
+		vms = new ArrayList<Vm>();
+		capacity = new double[16];
+		heap = new int[16];
+		position = new int[16];
+		size = 0;
+
+		hostOf = new int[16];
+		datacenterOf = new int[16];
+		hostUtilization = new double[0];
+		hostNumOfVms = new int[0];
+		hostNumOfBusyVms = new int[0];
+		datacenterUtilization = new double[0];
+		datacenterNumOfVms = new int[0];
+		datacenterNumOfBusyVms = new int[0];
+		totalUtilization = 0;
+		numOfBusyVms = 0;
+	}
+
+	/**
+	 * adds the VM running on the given host of the given datacenter to the index
+	 * and returns its slot, the VM must use CloudletSchedulerTimeShared_Custom
+	 */
+	public int add(Vm vm, int hostIndex, int datacenterIndex) {
+		if(!(vm.getCloudletScheduler() instanceof CloudletSchedulerTimeShared_Custom)) {
+			SimLogger.printLine("VM " + vm.getId() + " does not use CloudletSchedulerTimeShared_Custom! Terminating simulation...");
+			System.exit(1);
+		}
+		CloudletSchedulerTimeShared_Custom scheduler = (CloudletSchedulerTimeShared_Custom)vm.getCloudletScheduler();
+
+		if(size == heap.length) {
+			capacity = Arrays.copyOf(capacity, size * 2);
+			heap = Arrays.copyOf(heap, size * 2);
+			position = Arrays.copyOf(position, size * 2);
+			hostOf = Arrays.copyOf(hostOf, size * 2);
+			datacenterOf = Arrays.copyOf(datacenterOf, size * 2);
+		}
+		if(hostIndex >= hostUtilization.length) {
+			hostUtilization = Arrays.copyOf(hostUtilization, hostIndex + 1);
+			hostNumOfVms = Arrays.copyOf(hostNumOfVms, hostIndex + 1);
+			hostNumOfBusyVms = Arrays.copyOf(hostNumOfBusyVms, hostIndex + 1);
+		}
+		if(datacenterIndex >= datacenterUtilization.length) {
+			datacenterUtilization = Arrays.copyOf(datacenterUtilization, datacenterIndex + 1);
+			datacenterNumOfVms = Arrays.copyOf(datacenterNumOfVms, datacenterIndex + 1);
+			datacenterNumOfBusyVms = Arrays.copyOf(datacenterNumOfBusyVms, datacenterIndex + 1);
+		}
+
+		int slot = size++;
+		vms.add(vm);
+		capacity[slot] = 100 - scheduler.getUtilization();
+		heap[slot] = slot;
+		position[slot] = slot;
+		siftUp(slot);
+
+		hostOf[slot] = hostIndex;
+		datacenterOf[slot] = datacenterIndex;
+		hostNumOfVms[hostIndex]++;
+		datacenterNumOfVms[datacenterIndex]++;
+		addUtilization(slot, 0, scheduler.getUtilization());
+		scheduler.setListener(this, slot);
+		return slot;
+	}
+
+	@Override
+	public void utilizationChanged(int slot, double previousUtilization, double utilization) {
+		update(slot, 100 - utilization);
+		addUtilization(slot, previousUtilization, utilization);
+	}
+
+	/**
+	 * sets the remaining capacity of the VM at the given slot
+	 */
+	public void update(int slot, double remainingCapacity) {
+		double previousCapacity = capacity[slot];
+		capacity[slot] = remainingCapacity;
+		if(remainingCapacity > previousCapacity)
+			siftUp(position[slot]);
+		else if(remainingCapacity < previousCapacity)
+			siftDown(position[slot]);
+	}
+
+	/**
+	 * returns the VM having the largest remaining capacity, null if the index is empty
+	 */
+	public Vm peek() {
+		return size == 0 ? null : vms.get(heap[0]);
+	}
+
+	/**
+	 * returns the largest remaining capacity, 0 if the index is empty
+	 */
+	public double peekCapacity() {
+		return size == 0 ? 0 : capacity[heap[0]];
+	}
+
+	public SimSettings.VM_TYPES getVmType() {
+		return vmType;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Vm getVm(int slot) {
+		return vms.get(slot);
+	}
+
+	public double getCapacity(int slot) {
+		return capacity[slot];
+	}
+
+	/**
+	 * returns the sum of the utilizations of the VMs on the given host
+	 */
+	public double getHostUtilization(int hostIndex) {
+		return hostUtilization[hostIndex];
+	}
+
+	public int getHostNumOfVms(int hostIndex) {
+		return hostNumOfVms[hostIndex];
+	}
+
+	/**
+	 * returns the sum of the utilizations of the VMs in the given datacenter
+	 */
+	public double getDatacenterUtilization(int datacenterIndex) {
+		return datacenterUtilization[datacenterIndex];
+	}
+
+	public int getDatacenterNumOfVms(int datacenterIndex) {
+		return datacenterNumOfVms[datacenterIndex];
+	}
+
+	/**
+	 * returns the sum of the utilizations of all VMs
+	 */
+	public double getTotalUtilization() {
+		return totalUtilization;
+	}
+
+	/**
+	 * returns the average utilization of all VMs
+	 */
+	public double getAvgUtilization() {
+		return totalUtilization / size;
+	}
+
+	private void addUtilization(int slot, double previousUtilization, double utilization) {
+		int host = hostOf[slot];
+		int datacenter = datacenterOf[slot];
+		int busyDiff = 0;
+		if(previousUtilization == 0 && utilization != 0)
+			busyDiff = 1;
+		else if(previousUtilization != 0 && utilization == 0)
+			busyDiff = -1;
+
+		double diff = utilization - previousUtilization;
+
+		hostNumOfBusyVms[host] += busyDiff;
+		hostUtilization[host] = hostNumOfBusyVms[host] == 0 ? 0 : hostUtilization[host] + diff;
+
+		datacenterNumOfBusyVms[datacenter] += busyDiff;
+		datacenterUtilization[datacenter] = datacenterNumOfBusyVms[datacenter] == 0 ? 0 : datacenterUtilization[datacenter] + diff;
+
+		numOfBusyVms += busyDiff;
+		totalUtilization = numOfBusyVms == 0 ? 0 : totalUtilization + diff;
+	}
+
+	private boolean isBefore(int slotA, int slotB) {
+		return capacity[slotA] > capacity[slotB] ||
+				(capacity[slotA] == capacity[slotB] && slotA < slotB);
+	}
+
+	private void siftUp(int index) {
+		int slot = heap[index];
+		while(index > 0) {
+			int parent = (index - 1) >>> 1;
+			if(!isBefore(slot, heap[parent]))
+				break;
+			heap[index] = heap[parent];
+			position[heap[index]] = index;
+			index = parent;
+		}
+		heap[index] = slot;
+		position[slot] = index;
+	}
+
+	private void siftDown(int index) {
+		int slot = heap[index];
+		while(true) {
+			int child = 2 * index + 1;
+			if(child >= size)
+				break;
+			if(child + 1 < size && isBefore(heap[child + 1], heap[child]))
+				child++;
+			if(!isBefore(heap[child], slot))
+				break;
+			heap[index] = heap[child];
+			position[heap[index]] = index;
+			index = child;
+		}
+		heap[index] = slot;
+		position[slot] = index;
+	}
+}